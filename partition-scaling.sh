@@ -0,0 +1,114 @@
+#!/bin/bash
+
+# SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+#
+# SPDX-License-Identifier: EUPL-1.2
+
+# Measures how the HSM request pipeline scales with the partition count of the
+# request topics and the number of wallet-bff and hsm-worker instances.
+#
+# For every combination the request and response topics are deleted and
+# re-created through init-kafka, wallet-bff and hsm-worker are restarted with
+# the given instance counts, and HsmPipelineLoadTest runs at a fixed
+# concurrency. The compose services must already be up. The wallet-state topic
+# is left alone, so wallets keep their state between runs.
+#
+# Optional:
+#   PARTITIONS        - request topic partition counts (default: "1 2 5 10 20")
+#   BFF_INSTANCES     - wallet-bff instance counts, 1 or 2 (default: "1 2")
+#   WORKER_INSTANCES  - hsm-worker instance counts (default: "1 2 4")
+#   CONCURRENCY       - concurrent HSM requests (default: 32)
+#   STEP_DURATION     - load duration per combination (default: PT60S)
+#   RESULTS_DIR       - where results and logs go (default: target/partition-scaling)
+
+set -euo pipefail
+
+PARTITIONS="${PARTITIONS:-1 2 5 10 20}"
+BFF_INSTANCES="${BFF_INSTANCES:-1 2}"
+WORKER_INSTANCES="${WORKER_INSTANCES:-1 2 4}"
+CONCURRENCY="${CONCURRENCY:-32}"
+STEP_DURATION="${STEP_DURATION:-PT60S}"
+RESULTS_DIR="${RESULTS_DIR:-target/partition-scaling}"
+
+COMPOSE=(podman compose -f docker-compose.yaml -f config/partition-scaling/wallet-bff-2.yaml)
+TOPICS='hsm-requests|state-init-requests|hsm-worker-responses-bff-.*|state-init-responses-bff-.*'
+GATEWAY_HEALTH='http://localhost:8082/wallet-client-gateway/actuator/health'
+RESULTS="$RESULTS_DIR/results.tsv"
+
+kafka_topics() {
+  "${COMPOSE[@]}" run --rm --no-deps --entrypoint /opt/kafka/bin/kafka-topics.sh init-kafka \
+    --bootstrap-server kafka-1:19092 "$@"
+}
+
+# Deletes the request and response topics and re-creates them with the given
+# request topic partition count.
+recreate_topics() {
+  local partitions="$1"
+  kafka_topics --delete --if-exists --topic "$TOPICS"
+  # Deletion is asynchronous. The list is read in full first: grep -q exits on
+  # the first match, and the failing write would then fail the pipeline.
+  local topics
+  topics="$(kafka_topics --list)"
+  while grep -q -E "^($TOPICS)$" <<<"$topics"; do
+    sleep 2
+    topics="$(kafka_topics --list)"
+  done
+  "${COMPOSE[@]}" run --rm --no-deps -e REQUEST_TOPIC_PARTITIONS="$partitions" init-kafka
+}
+
+# Starts the given number of wallet-bff and hsm-worker instances, then restarts
+# wallet-client-gateway so that it resolves and connects to them anew.
+start_pipeline() {
+  local bffs="$1"
+  local workers="$2"
+  if [ "$bffs" -eq 2 ]; then
+    "${COMPOSE[@]}" --profile bff-2 up -d --no-deps wallet-bff-2
+  fi
+  "${COMPOSE[@]}" up -d --no-deps --scale hsm-worker="$workers" wallet-bff hsm-worker
+  "${COMPOSE[@]}" restart wallet-client-gateway
+  for i in {1..30}; do
+    curl -fsS "$GATEWAY_HEALTH" >/dev/null 2>&1 && return 0
+    echo "Waiting for wallet-client-gateway ($i/30)..."
+    sleep 2
+  done
+  echo "wallet-client-gateway did not become healthy"
+  return 1
+}
+
+stop_pipeline() {
+  "${COMPOSE[@]}" --profile bff-2 stop wallet-bff wallet-bff-2 hsm-worker
+}
+
+mkdir -p "$RESULTS_DIR"
+printf 'partitions\tbffs\tworkers\tconcurrency\trequests\terrors\tper sec\tp50 ms\tp99 ms\tsync %%\tasync p99\tresult p99\n' >"$RESULTS"
+
+for partitions in $PARTITIONS; do
+  for bffs in $BFF_INSTANCES; do
+    for workers in $WORKER_INSTANCES; do
+      name="p$partitions-b$bffs-w$workers"
+      echo "── $partitions partitions, $bffs wallet-bff, $workers hsm-worker ──"
+      stop_pipeline
+      recreate_topics "$partitions"
+      start_pipeline "$bffs" "$workers"
+
+      rm -f "$RESULTS_DIR/$name.tsv"
+      if ! env DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS=true \
+        DIGG_WALLET_ECOSYSTEM_HSM_LOAD_CONCURRENCY_LEVELS="$CONCURRENCY" \
+        DIGG_WALLET_ECOSYSTEM_HSM_LOAD_STEP_DURATION="$STEP_DURATION" \
+        DIGG_WALLET_ECOSYSTEM_HSM_LOAD_RESULTS="$RESULTS_DIR/$name.tsv" \
+        mvn -B test -Dtest=HsmPipelineLoadTest >"$RESULTS_DIR/$name.log" 2>&1; then
+        echo "Load test failed, see $RESULTS_DIR/$name.log"
+      fi
+      if [ -f "$RESULTS_DIR/$name.tsv" ]; then
+        sed "s/^/$partitions\t$bffs\t$workers\t/" "$RESULTS_DIR/$name.tsv" >>"$RESULTS"
+      fi
+    done
+  done
+done
+
+echo "Restoring the default topics and instances..."
+stop_pipeline
+recreate_topics 10
+start_pipeline 1 1
+
+column -t -s $'\t' "$RESULTS"
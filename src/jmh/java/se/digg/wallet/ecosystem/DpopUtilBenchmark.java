@@ -0,0 +1,58 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DpopUtilBenchmark {
+
+  private static final String HTU =
+      "https://localhost/pid-issuer/wallet/credentialEndpoint";
+
+  @Param({"false", "true"})
+  public boolean withAth;
+
+  private ECKey key;
+  private DpopProofFactory factory;
+  private String accessToken;
+
+  @Setup
+  public void setUp() throws JOSEException {
+    key = new ECKeyGenerator(Curve.P_256).generate();
+    factory = new DpopProofFactory(key);
+    accessToken = withAth ? "eyJhbGciOiJSUzI1NiJ9." + "a".repeat(900) + ".signature" : null;
+  }
+
+  @Benchmark
+  public String createDpopProof() throws JOSEException {
+    return DpopUtil.createDpopProof(key, HTU, "POST", accessToken);
+  }
+
+  @Benchmark
+  public String createProofWithFactory() throws JOSEException {
+    return factory.createProof(HTU, "POST", accessToken);
+  }
+}
@@ -0,0 +1,123 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.util.X509CertUtils;
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.security.cert.CRLException;
+import java.security.cert.CRLReason;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevocationCheckerBenchmark {
+
+  /** Serial numbers to look up, half of them revoked. */
+  private static final int SERIALS = 1 << 16;
+  private static final Path ROOT_CA = Path.of("config", "certificates", "rootca");
+
+  @Param({"100000", "1000000"})
+  public int entries;
+
+  private X509Certificate rootCa;
+  private byte[] crl;
+  private X509CRL jdkCrl;
+  private RevocationChecker checker;
+  private BigInteger[] serials;
+  private int next;
+
+  @Setup
+  public void setUp() throws Exception {
+    rootCa = X509CertUtils.parse(Files.readString(ROOT_CA.resolve("rootca.pem")));
+    PrivateKey key = SdJwtVcFixture.signingKey(rootCa, ROOT_CA.resolve("rootca_private_key.pem"))
+        .toECPrivateKey();
+    Random random = new Random(42);
+    Instant now = Instant.now();
+    List<CrlFixture.Entry> revoked = new ArrayList<>(entries);
+    for (int i = 0; i < entries; i++) {
+      // 20 byte serial numbers, as issued by the CAs of the ecosystem
+      revoked.add(
+          new CrlFixture.Entry(new BigInteger(159, random), now, CRLReason.KEY_COMPROMISE));
+    }
+    crl = CrlFixture.crl(rootCa, key, 1, now, now.plus(Duration.ofDays(1)), revoked);
+    jdkCrl = (X509CRL) CertificateFactory.getInstance("X.509")
+        .generateCRL(new ByteArrayInputStream(crl));
+    checker = load();
+
+    serials = new BigInteger[SERIALS];
+    for (int i = 0; i < SERIALS; i++) {
+      serials[i] = i % 2 == 0
+          ? revoked.get(random.nextInt(entries)).serialNumber()
+          : new BigInteger(159, random);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    checker.close();
+  }
+
+  @Benchmark
+  public boolean lookup() {
+    return checker.isRevoked(serials[next++ & (SERIALS - 1)]);
+  }
+
+  /** The same lookup in the JDK's parsed CRL, for comparison. */
+  @Benchmark
+  public X509CRLEntry jdkLookup() {
+    return jdkCrl.getRevokedCertificate(serials[next++ & (SERIALS - 1)]);
+  }
+
+  /** The cost of a new CRL: parsing, verifying and indexing it, paid once per refresh. */
+  @Benchmark
+  public int refresh() {
+    try (RevocationChecker fresh = load()) {
+      return fresh.size();
+    }
+  }
+
+  /** The same, parsing with the JDK, which is what {@link RevocationChecker} avoids. */
+  @Benchmark
+  public int jdkRefresh() throws CRLException, CertificateException {
+    return ((X509CRL) CertificateFactory.getInstance("X.509")
+        .generateCRL(new ByteArrayInputStream(crl))).getRevokedCertificates().size();
+  }
+
+  private RevocationChecker load() {
+    return new RevocationChecker(() -> crl, null, rootCa, Clock.systemUTC(),
+        Duration.ofMinutes(1)).start();
+  }
+}
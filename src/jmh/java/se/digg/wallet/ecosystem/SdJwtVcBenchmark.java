@@ -0,0 +1,85 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.SignedJWT;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SdJwtVcBenchmark {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @Param({"4", "16", "64"})
+  public int disclosures;
+
+  @Param({"16", "512"})
+  public int claimValueLength;
+
+  @Param({"false", "true"})
+  public boolean withKeyBinding;
+
+  private String raw;
+
+  @Setup
+  public void setUp() throws Exception {
+    ECKey issuerKey = new ECKeyGenerator(Curve.P_256).generate();
+    ECKey holderKey = new ECKeyGenerator(Curve.P_256).generate();
+    String sdJwtVc = SdJwtVcFixture.issue(issuerKey, holderKey,
+        SdJwtVcFixture.syntheticClaims(disclosures, claimValueLength));
+    raw = withKeyBinding
+        ? VerifiablePresentationToken.asString(sdJwtVc, holderKey, "nonce")
+        : sdJwtVc;
+  }
+
+  @Benchmark
+  public SdJwtVc parse() {
+    return SdJwtVc.parse(raw);
+  }
+
+  /** Baseline: the split and readTree based parsing SdJwtVc.parse used before. */
+  @Benchmark
+  public SdJwtVc parseWithTree() throws Exception {
+    String[] parts = raw.split("~");
+    SignedJWT issuerJwt = SignedJWT.parse(parts[0]);
+    Map<String, String> claims = new HashMap<>();
+    for (int i = 1; i < parts.length; i++) {
+      if (parts[i].isBlank() || parts[i].contains(".")) {
+        continue;
+      }
+      JsonNode node = OBJECT_MAPPER.readTree(
+          new String(Base64.getUrlDecoder().decode(parts[i]), StandardCharsets.UTF_8));
+      if (node.isArray() && node.size() == 3) {
+        claims.put(node.get(1).asText(), node.get(2).asText());
+      }
+    }
+    return new SdJwtVc(issuerJwt, claims);
+  }
+}
@@ -0,0 +1,74 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SdJwtVcVerifierBenchmark {
+
+  private static final String NONCE = "nonce";
+
+  @Param({"4", "16"})
+  public int disclosures;
+
+  private String presentation;
+  private JWKSet jwks;
+  private SdJwtVcVerifier verifier;
+
+  @Setup
+  public void setUp() throws Exception {
+    ECKey issuerKey = new ECKeyGenerator(Curve.P_256).keyID("issuer").generate();
+    ECKey holderKey = new ECKeyGenerator(Curve.P_256).generate();
+    presentation = VerifiablePresentationToken.asString(
+        SdJwtVcFixture.issue(issuerKey, holderKey, SdJwtVcFixture.syntheticClaims(disclosures, 16)),
+        holderKey, NONCE);
+    jwks = new JWKSet(issuerKey.toPublicJWK());
+    verifier = newVerifier();
+  }
+
+  @Benchmark
+  public SdJwtVc verifyPresentation() {
+    return verifier.verifyPresentation(
+        presentation, VerifierBackendClient.VERIFIER_AUDIENCE, NONCE);
+  }
+
+  /** Baseline: resolves the issuer key for every presentation. */
+  @Benchmark
+  public SdJwtVc verifyPresentationWithoutCache() {
+    return newVerifier().verifyPresentation(
+        presentation, VerifierBackendClient.VERIFIER_AUDIENCE, NONCE);
+  }
+
+  private SdJwtVcVerifier newVerifier() {
+    return new SdJwtVcVerifier(issuer -> jwks, Certificates.rootCaAnchor(),
+        Set.of(ServiceIdentifier.PID_ISSUER.toString()),
+        // The credential carries a kid, so no x5c certificate is checked
+        (issuer, certificate) -> false, Duration.ofHours(1), 16, Clock.systemUTC());
+  }
+}
@@ -0,0 +1,66 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusListBenchmark {
+
+  /** Random indexes to look up, so that lookups are spread over the whole list. */
+  private static final int INDEXES = 1 << 16;
+
+  @Param({"1000000", "10000000"})
+  public long size;
+
+  @Param({"1", "2"})
+  public int bits;
+
+  private String lst;
+  private StatusList statusList;
+  private long[] indexes;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    SplittableRandom random = new SplittableRandom(42);
+    StatusList list = StatusList.empty(bits, size);
+    // About one credential in a hundred is revoked
+    for (long i = 0; i < size / 100; i++) {
+      list.set(random.nextLong(size), StatusList.INVALID);
+    }
+    lst = list.encode();
+    statusList = StatusList.decode(bits, lst);
+    indexes = random.longs(INDEXES, 0, size).toArray();
+  }
+
+  @Benchmark
+  public int lookup() {
+    return statusList.status(indexes[next++ & (INDEXES - 1)]);
+  }
+
+  /** The cost of a new version of the list, paid once per version by {@link StatusListClient}. */
+  @Benchmark
+  public StatusList decode() {
+    return StatusList.decode(bits, lst);
+  }
+}
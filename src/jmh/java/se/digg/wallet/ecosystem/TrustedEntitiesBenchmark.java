@@ -0,0 +1,67 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.util.X509CertUtils;
+import com.nimbusds.jwt.SignedJWT;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrustedEntitiesBenchmark {
+
+  private Map<String, Object> lote;
+  private TrustedEntitiesList list;
+  private X509Certificate pidIssuer;
+  private X509Certificate untrusted;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    SignedJWT jwt = SignedJWT.parse(Files.readString(
+        Path.of("config", "trust-source", "signed", "trusted-entities.json")).trim());
+    lote = (Map<String, Object>) jwt.getJWTClaimsSet().toJSONObject().get("LoTE");
+    list = TrustedEntitiesList.parse(lote);
+    pidIssuer = list.services(TrustedEntitiesList.PID_ISSUANCE).getFirst().certificates()
+        .getFirst();
+    untrusted = X509CertUtils.parse(Files.readString(
+        Path.of("config", "certificates", "trust-list-signer", "trust_source_cert.pem")));
+  }
+
+  /** An issuer trust decision, thumbprint included. */
+  @Benchmark
+  public boolean trustedIssuer() {
+    return list.isTrusted(TrustedEntitiesList.PID_ISSUANCE, pidIssuer);
+  }
+
+  @Benchmark
+  public boolean untrustedIssuer() {
+    return list.isTrusted(TrustedEntitiesList.PID_ISSUANCE, untrusted);
+  }
+
+  /** Indexing a new version of the list, paid once per version by the client. */
+  @Benchmark
+  public TrustedEntitiesList parse() {
+    return TrustedEntitiesList.parse(lote);
+  }
+}
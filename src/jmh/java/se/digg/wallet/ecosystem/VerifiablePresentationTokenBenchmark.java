@@ -0,0 +1,54 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifiablePresentationTokenBenchmark {
+
+  @Param({"4", "16", "64"})
+  public int disclosures;
+
+  @Param({"16", "512"})
+  public int claimValueLength;
+
+  private ECKey bindingKey;
+  private String sdJwtVc;
+
+  @Setup
+  public void setUp() throws JOSEException {
+    ECKey issuerKey = new ECKeyGenerator(Curve.P_256).generate();
+    bindingKey = new ECKeyGenerator(Curve.P_256).generate();
+    sdJwtVc = SdJwtVcFixture.issue(issuerKey, bindingKey,
+        SdJwtVcFixture.syntheticClaims(disclosures, claimValueLength));
+  }
+
+  @Benchmark
+  public String asString() throws NoSuchAlgorithmException, JOSEException {
+    return VerifiablePresentationToken.asString(sdJwtVc, bindingKey, "nonce");
+  }
+}
@@ -0,0 +1,221 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.jwk.ECKey;
+import io.restassured.response.Response;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Fills wallet-account with accounts, each with its wallet keys and security envelopes, from
+ * parallel workers. The id of every complete account is appended and flushed to a checkpoint file,
+ * so that an interrupted run resumes where it stopped; an account that failed halfway is not
+ * recorded and is created anew, and a line cut short by a crash is dropped. A uniform sample of the
+ * recorded ids is kept for {@link #measureLookups}.
+ */
+public class AccountSeeder {
+
+  public static final String CREATE_ACCOUNT = "create account";
+  public static final String ADD_WALLET_KEY = "add wallet key";
+  public static final String ADD_SECURITY_ENVELOPE = "add security envelope";
+  public static final String GET_ACCOUNT = "get account";
+  public static final String LIST_WALLET_KEYS = "list wallet keys";
+
+  /** The number of account ids kept for lookups. */
+  static final int SAMPLE_SIZE = 10_000;
+
+  private final WalletAccountClient accounts;
+  private final Path checkpoint;
+  private final int walletKeys;
+  private final int securityEnvelopes;
+  private final List<String> sample = new ArrayList<>();
+  private long seeded;
+
+  public AccountSeeder(Path checkpoint) throws IOException {
+    this(new WalletAccountClient(), checkpoint,
+        Integer.parseInt(Property.ACCOUNT_SEED_WALLET_KEYS.getValue()),
+        Integer.parseInt(Property.ACCOUNT_SEED_SECURITY_ENVELOPES.getValue()));
+  }
+
+  public AccountSeeder(WalletAccountClient accounts, Path checkpoint, int walletKeys,
+      int securityEnvelopes) throws IOException {
+    this.accounts = accounts;
+    this.checkpoint = checkpoint;
+    this.walletKeys = walletKeys;
+    this.securityEnvelopes = securityEnvelopes;
+    if (Files.exists(checkpoint)) {
+      dropUnterminatedLine(checkpoint);
+      try (Stream<String> ids = Files.lines(checkpoint, StandardCharsets.UTF_8)) {
+        ids.filter(id -> !id.isBlank()).forEach(id -> {
+          if (!isAccountId(id)) {
+            throw new IllegalStateException(
+                "Checkpoint " + checkpoint + " holds " + id + ", which is not an account id");
+          }
+          remember(id);
+        });
+      }
+    }
+  }
+
+  /** The number of accounts recorded in the checkpoint. */
+  public synchronized long seeded() {
+    return seeded;
+  }
+
+  /**
+   * Creates accounts with {@code concurrency} workers until the checkpoint holds {@code target} of
+   * them. The result counts the accounts attempted in this run.
+   */
+  public LoadDriver.Result seedUpTo(long target, int concurrency, LatencyRecorder latency)
+      throws IOException {
+    AtomicLong remaining = new AtomicLong(target - seeded());
+    long attempts = Math.max(0, remaining.get());
+    LongAdder failures = new LongAdder();
+    AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    Files.createDirectories(checkpoint.toAbsolutePath().getParent());
+    long start = System.nanoTime();
+    // Resources close in reverse order, so the workers are done before the writer closes
+    try (BufferedWriter out = Files.newBufferedWriter(checkpoint, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int w = 0; w < concurrency; w++) {
+        executor.submit(() -> {
+          while (remaining.getAndDecrement() > 0) {
+            try {
+              record(out, createAccount(latency));
+            } catch (Exception | AssertionError e) {
+              failures.increment();
+              firstFailure.compareAndSet(null, e);
+            }
+          }
+        });
+      }
+    }
+    return new LoadDriver.Result(Duration.ofNanos(System.nanoTime() - start), attempts,
+        failures.sum(), firstFailure.get());
+  }
+
+  /** Looks up random seeded accounts and their wallet keys, one at a time. */
+  public void measureLookups(int lookups, LatencyRecorder latency) {
+    List<String> ids;
+    synchronized (this) {
+      ids = List.copyOf(sample);
+    }
+    if (ids.isEmpty()) {
+      throw new IllegalStateException("No seeded accounts in " + checkpoint);
+    }
+    for (int i = 0; i < lookups; i++) {
+      String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+      lookup(GET_ACCOUNT, () -> accounts.tryGetAccount(id), latency);
+      lookup(LIST_WALLET_KEYS, () -> accounts.tryGetWalletKeys(id), latency);
+    }
+  }
+
+  private static void lookup(String stage, Supplier<Response> request, LatencyRecorder latency) {
+    long start = System.nanoTime();
+    boolean success;
+    try {
+      success = request.get().statusCode() == 200;
+    } catch (Exception e) {
+      // Includes connection failures, which RestAssured throws unchecked
+      success = false;
+    }
+    latency.record(stage, System.nanoTime() - start, success);
+  }
+
+  private String createAccount(LatencyRecorder latency) throws Exception {
+    ECKey deviceKey = EcKeyPool.shared().take(KeyPurpose.DEVICE);
+    String id = latency.time(CREATE_ACCOUNT, () -> accounts.createAccount(deviceKey));
+    for (int k = 0; k < walletKeys; k++) {
+      ECKey walletKey = new ECKey.Builder(EcKeyPool.shared().take(KeyPurpose.DEVICE))
+          .keyID("wallet-key-" + UUID.randomUUID())
+          .build();
+      latency.time(ADD_WALLET_KEY, () -> {
+        accounts.addWalletKey(id, walletKey);
+        return null;
+      });
+    }
+    for (int e = 0; e < securityEnvelopes; e++) {
+      latency.time(ADD_SECURITY_ENVELOPE, () -> {
+        accounts.addSecurityEnvelope(id, "SIGN", "envelope-" + UUID.randomUUID());
+        return null;
+      });
+    }
+    return id;
+  }
+
+  private synchronized void record(BufferedWriter out, String id) {
+    if (!isAccountId(id)) {
+      throw new IllegalStateException("Account id " + id + " is not a UUID");
+    }
+    try {
+      out.write(id + '\n');
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write checkpoint " + checkpoint, e);
+    }
+    remember(id);
+  }
+
+  /** Truncates the checkpoint after its last newline, which a crash may have left out. */
+  private static void dropUnterminatedLine(Path checkpoint) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(checkpoint, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer last = ByteBuffer.allocate(1);
+      long end = channel.size();
+      while (end > 0) {
+        last.clear();
+        channel.read(last, end - 1);
+        if (last.get(0) == '\n') {
+          break;
+        }
+        end--;
+      }
+      channel.truncate(end);
+    }
+  }
+
+  private static boolean isAccountId(String id) {
+    try {
+      return UUID.fromString(id).toString().equalsIgnoreCase(id);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /** Counts the id and keeps it in the sample with reservoir sampling. */
+  private synchronized void remember(String id) {
+    seeded++;
+    if (sample.size() < SAMPLE_SIZE) {
+      sample.add(id);
+    } else {
+      long slot = ThreadLocalRandom.current().nextLong(seeded);
+      if (slot < SAMPLE_SIZE) {
+        sample.set((int) slot, id);
+      }
+    }
+  }
+}
@@ -0,0 +1,152 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AccountSeederTest {
+
+  private final AtomicInteger created = new AtomicInteger();
+  private final AtomicInteger walletKeys = new AtomicInteger();
+  private final AtomicInteger envelopes = new AtomicInteger();
+  private HttpServer server;
+  private WalletAccountClient accounts;
+
+  @TempDir
+  Path directory;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", this::serve);
+    server.start();
+    accounts = new WalletAccountClient(
+        URI.create("http://localhost:" + server.getAddress().getPort() + "/"));
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void seedsAccountsWithKeysAndEnvelopes() throws Exception {
+    Path checkpoint = directory.resolve("accounts.txt");
+    LatencyReport report = new LatencyReport();
+
+    LoadDriver.Result result =
+        new AccountSeeder(accounts, checkpoint, 2, 1).seedUpTo(30, 4, report);
+
+    assertThat(result.failures(), is(0L));
+    assertThat(created.get(), is(30));
+    assertThat(walletKeys.get(), is(60));
+    assertThat(envelopes.get(), is(30));
+    assertThat(Files.readAllLines(checkpoint).size(), is(30));
+    assertThat(report.count(AccountSeeder.ADD_WALLET_KEY), is(60L));
+  }
+
+  @Test
+  void resumesFromCheckpoint() throws Exception {
+    Path checkpoint = directory.resolve("accounts.txt");
+    new AccountSeeder(accounts, checkpoint, 0, 0).seedUpTo(20, 2, LatencyRecorder.NONE);
+
+    AccountSeeder resumed = new AccountSeeder(accounts, checkpoint, 0, 0);
+    assertThat(resumed.seeded(), is(20L));
+    resumed.seedUpTo(25, 2, LatencyRecorder.NONE);
+
+    assertThat(created.get(), is(25));
+    assertThat(resumed.seeded(), is(25L));
+    assertThat(Files.readAllLines(checkpoint).size(), is(25));
+  }
+
+  @Test
+  void dropsLineCutShortByCrash() throws Exception {
+    Path checkpoint = directory.resolve("accounts.txt");
+    String id = UUID.randomUUID().toString();
+    Files.writeString(checkpoint, id + "\n" + id.substring(0, 10));
+
+    AccountSeeder resumed = new AccountSeeder(accounts, checkpoint, 0, 0);
+    assertThat(resumed.seeded(), is(1L));
+    resumed.seedUpTo(3, 1, LatencyRecorder.NONE);
+
+    List<String> ids = Files.readAllLines(checkpoint);
+    assertThat(ids.size(), is(3));
+    assertThat(ids.getFirst(), is(id));
+    ids.forEach(UUID::fromString);
+  }
+
+  @Test
+  void rejectsCheckpointWithOtherLines() throws Exception {
+    Path checkpoint = directory.resolve("accounts.txt");
+    Files.writeString(checkpoint, UUID.randomUUID() + "\nnot-an-id\n");
+
+    var e = assertThrows(IllegalStateException.class,
+        () -> new AccountSeeder(accounts, checkpoint, 0, 0));
+    assertThat(e.getMessage(), containsString("not-an-id"));
+  }
+
+  @Test
+  void looksUpSeededAccounts() throws Exception {
+    AccountSeeder seeder = new AccountSeeder(accounts, directory.resolve("accounts.txt"), 1, 0);
+    seeder.seedUpTo(5, 1, LatencyRecorder.NONE);
+    LatencyReport report = new LatencyReport();
+
+    seeder.measureLookups(10, report);
+
+    assertThat(report.count(AccountSeeder.GET_ACCOUNT), is(10L));
+    assertThat(report.count(AccountSeeder.LIST_WALLET_KEYS), is(10L));
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    exchange.getRequestBody().readAllBytes();
+    boolean post = "POST".equals(exchange.getRequestMethod());
+    if (post && path.endsWith("/v0/accounts")) {
+      created.incrementAndGet();
+      respond(exchange, 201, "{\"id\": \"" + UUID.randomUUID() + "\"}");
+    } else if (post && path.endsWith("/wallet-keys")) {
+      walletKeys.incrementAndGet();
+      respond(exchange, 201, "{}");
+    } else if (post && path.endsWith("/security-envelopes")) {
+      envelopes.incrementAndGet();
+      respond(exchange, 201, "{}");
+    } else if (path.endsWith("/wallet-keys")) {
+      respond(exchange, 200, "{\"items\": []}");
+    } else if (path.contains("/v0/accounts/")) {
+      respond(exchange, 200, "{}");
+    } else {
+      respond(exchange, 404, "{}");
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
@@ -0,0 +1,72 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS",
+    matches = "true")
+@Isolated
+class AccountTableScalingTest {
+
+  @Test
+  void measuresLookupsAsAccountTablesGrow() throws Exception {
+    List<Long> scales = Arrays.stream(Property.ACCOUNT_SEED_SCALES.getValue().split(","))
+        .map(String::trim)
+        .map(Long::valueOf)
+        .toList();
+    int concurrency = Integer.parseInt(Property.ACCOUNT_SEED_CONCURRENCY.getValue());
+    int lookups = Integer.parseInt(Property.ACCOUNT_LOOKUPS.getValue());
+    AccountSeeder seeder =
+        new AccountSeeder(Path.of(Property.ACCOUNT_SEED_CHECKPOINT.getValue()));
+    System.out.format("Resuming with %d accounts already seeded%n", seeder.seeded());
+
+    StringBuilder table = new StringBuilder(String.format("%10s %9s %9s %12s %12s %12s %12s%n",
+        "accounts", "per sec", "failed", "get p50 ms", "get p99 ms", "keys p50 ms",
+        "keys p99 ms"));
+    long failures = 0;
+    for (long scale : scales) {
+      LatencyReport seeding = new LatencyReport();
+      LoadDriver.Result seeded = seeder.seedUpTo(scale, concurrency, seeding);
+      failures += seeded.failures();
+      if (seeded.firstFailure() != null) {
+        seeded.firstFailure().printStackTrace(System.out);
+      }
+      LatencyReport report = new LatencyReport();
+      seeder.measureLookups(lookups, report);
+
+      table.append(String.format("%10d %9.1f %9d %12.1f %12.1f %12.1f %12.1f%n", seeder.seeded(),
+          seeding.throughput(AccountSeeder.CREATE_ACCOUNT, seeded.elapsed()), seeded.failures(),
+          report.percentileMillis(AccountSeeder.GET_ACCOUNT, 50),
+          report.percentileMillis(AccountSeeder.GET_ACCOUNT, 99),
+          report.percentileMillis(AccountSeeder.LIST_WALLET_KEYS, 50),
+          report.percentileMillis(AccountSeeder.LIST_WALLET_KEYS, 99)));
+      System.out.format("%s", table);
+      printTableSizes();
+    }
+
+    assertThat(failures, is(0L));
+  }
+
+  private static void printTableSizes() throws SQLException {
+    if (!Boolean.parseBoolean(Property.WALLET_ACCOUNT_DB_TESTING_ENABLED.getValue())) {
+      return;
+    }
+    for (DbInspector.TableSize table : DbInspector.walletAccount().tableSizes()) {
+      System.out.format("  %-30s %12d rows %10.1f MB%n", table.name(), table.liveRows(),
+          table.totalBytes() / 1e6);
+    }
+  }
+}
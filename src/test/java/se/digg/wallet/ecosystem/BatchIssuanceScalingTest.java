@@ -0,0 +1,71 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+
+import com.nimbusds.jose.jwk.ECKey;
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+/**
+ * Measures how the cost of a PID grows with the number of credentials requested at once, up to the
+ * batch size the issuer advertises, to help choose batch limits.
+ */
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS",
+    matches = "true")
+@Isolated
+class BatchIssuanceScalingTest {
+
+  private static final int ROUNDS = 10;
+
+  @Test
+  void measuresPerCredentialCostByBatchSize() throws Exception {
+    IssuanceAgent agent = new IssuanceAgent();
+    int maxBatchSize = new PidIssuerClient().getBatchSize();
+    LatencyReport report = new LatencyReport();
+
+    agent.issuePidCredentials(bindingKeys(1), "tneal", "password");
+    long start = System.nanoTime();
+    for (int batchSize : batchSizes(maxBatchSize)) {
+      for (int round = 0; round < ROUNDS; round++) {
+        List<ECKey> keys = bindingKeys(batchSize);
+        long roundStart = System.nanoTime();
+        List<String> credentials = agent.issuePidCredentials(keys, "tneal", "password");
+        long nanos = System.nanoTime() - roundStart;
+
+        assertThat(credentials, hasSize(batchSize));
+        report.record("batch of " + batchSize, nanos, true);
+        report.record("per credential in batch of " + batchSize, nanos / batchSize, true);
+      }
+    }
+
+    System.out.format("PID batch issuance, issuer batch size %d, %d rounds per size%n",
+        maxBatchSize, ROUNDS);
+    System.out.format("%s", report.format(Duration.ofNanos(System.nanoTime() - start)));
+  }
+
+  private static List<Integer> batchSizes(int maxBatchSize) {
+    return Stream.concat(Stream.of(1, 2, 5, 10), Stream.of(maxBatchSize))
+        .filter(size -> size <= maxBatchSize)
+        .collect(TreeSet<Integer>::new, TreeSet::add, TreeSet::addAll)
+        .stream()
+        .toList();
+  }
+
+  private static List<ECKey> bindingKeys(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> EcKeyPool.shared().take(KeyPurpose.BINDING))
+        .toList();
+  }
+}
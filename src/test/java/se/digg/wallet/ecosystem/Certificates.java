@@ -0,0 +1,46 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.util.X509CertUtils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.util.Set;
+
+/** The certificates of the ecosystem in {@code config/certificates}. */
+final class Certificates {
+  private Certificates() {}
+
+  static final Path ROOT_CA = Path.of("config", "certificates", "rootca", "rootca.pem");
+  static final Path TRUST_SOURCE =
+      Path.of("config", "certificates", "trust-list-signer", "trust_source_cert.pem");
+
+  /** The ecosystem root CA. */
+  static X509Certificate rootCa() {
+    return read(ROOT_CA);
+  }
+
+  /** The ecosystem root CA as the only trust anchor. */
+  static Set<TrustAnchor> rootCaAnchor() {
+    return Set.of(new TrustAnchor(rootCa(), null));
+  }
+
+  static X509Certificate read(Path pem) {
+    X509Certificate certificate;
+    try {
+      certificate = X509CertUtils.parse(Files.readString(pem));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + pem, e);
+    }
+    if (certificate == null) {
+      throw new IllegalStateException("No certificate in " + pem);
+    }
+    return certificate;
+  }
+}
@@ -0,0 +1,155 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * Latency histograms of every HTTP call made through {@link RestAssuredSugar#given()}, keyed by
+ * method, endpoint and status code. Path segments that look like identifiers are replaced by
+ * {@code {id}} so that e.g. every request object URI shares one endpoint. Calls that fail without a
+ * response are recorded with status 0. At the end of a test run {@link ClientMetricsListener}
+ * writes the histograms as an HdrHistogram log and as a JSON summary.
+ */
+public final class ClientMetrics {
+
+  public static final String HISTOGRAM_LOG = "client-latency.hlog";
+  public static final String SUMMARY = "client-latency.json";
+
+  static final ClientMetrics SHARED = new ClientMetrics();
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final Pattern IDENTIFIER = Pattern.compile(
+      "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}"
+          + "|\\d+"
+          + "|(?=.*\\d)[A-Za-z0-9_-]{16,}");
+
+  private record Key(String method, String endpoint, int status) {
+
+    String tag() {
+      return method + ":" + status + ":" + endpoint;
+    }
+  }
+
+  /** The JSON summary of one histogram, in milliseconds. */
+  public record Summary(String method, String endpoint, int status, long count, double meanMs,
+      double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+  }
+
+  private final Map<Key, Histogram> histograms = new ConcurrentHashMap<>();
+  private final Filter filter = new TimingFilter();
+
+  /** A RestAssured filter that records every request it sees in these metrics. */
+  public Filter filter() {
+    return filter;
+  }
+
+  public void record(String method, URI uri, int status, long nanos) {
+    histograms.computeIfAbsent(new Key(method, endpoint(uri), status), key -> {
+      Histogram histogram = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+      histogram.setStartTimeStamp(System.currentTimeMillis());
+      histogram.setTag(key.tag());
+      return histogram;
+    }).recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+  }
+
+  public boolean isEmpty() {
+    return histograms.isEmpty();
+  }
+
+  public List<Summary> summaries() {
+    return histograms.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey(Comparator.comparing(Key::endpoint)
+            .thenComparing(Key::method)
+            .thenComparingInt(Key::status)))
+        .map(e -> {
+          Histogram h = e.getValue();
+          return new Summary(e.getKey().method(), e.getKey().endpoint(), e.getKey().status(),
+              h.getTotalCount(), h.getMean() / 1000.0,
+              h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+              h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0);
+        })
+        .toList();
+  }
+
+  /** Writes {@value #HISTOGRAM_LOG} and {@value #SUMMARY} to the directory. */
+  public void writeTo(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    long now = System.currentTimeMillis();
+
+    try (OutputStream out = Files.newOutputStream(directory.resolve(HISTOGRAM_LOG))) {
+      HistogramLogWriter writer = new HistogramLogWriter(out);
+      writer.outputLogFormatVersion();
+      writer.outputStartTime(histograms.values().stream()
+          .mapToLong(Histogram::getStartTimeStamp).min().orElse(now));
+      writer.outputLegend();
+      for (Histogram histogram : histograms.values()) {
+        Histogram copy = histogram.copy();
+        copy.setTag(histogram.getTag());
+        copy.setStartTimeStamp(histogram.getStartTimeStamp());
+        copy.setEndTimeStamp(now);
+        writer.outputIntervalHistogram(copy);
+      }
+    }
+
+    new ObjectMapper().writerWithDefaultPrettyPrinter()
+        .writeValue(directory.resolve(SUMMARY).toFile(), summaries());
+  }
+
+  static String endpoint(URI uri) {
+    StringBuilder endpoint = new StringBuilder(uri.getHost() == null ? "" : uri.getHost());
+    if (uri.getPort() != -1) {
+      endpoint.append(':').append(uri.getPort());
+    }
+    String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+    for (String segment : path.split("/")) {
+      if (!segment.isEmpty()) {
+        endpoint.append('/').append(IDENTIFIER.matcher(segment).matches() ? "{id}" : segment);
+      }
+    }
+    if (path.endsWith("/")) {
+      endpoint.append('/');
+    }
+    return endpoint.toString();
+  }
+
+  private final class TimingFilter implements Filter {
+    @Override
+    public Response filter(FilterableRequestSpecification request,
+        FilterableResponseSpecification response, FilterContext context) {
+      long start = System.nanoTime();
+      int status = 0;
+      try {
+        Response result = context.next(request, response);
+        status = result.statusCode();
+        return result;
+      } finally {
+        String uri = request.getURI();
+        int query = uri.indexOf('?');
+        record(request.getMethod(), URI.create(query < 0 ? uri : uri.substring(0, query)), status,
+            System.nanoTime() - start);
+      }
+    }
+  }
+}
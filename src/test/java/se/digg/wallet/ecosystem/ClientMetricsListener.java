@@ -0,0 +1,31 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Writes the {@link ClientMetrics} of a test run to {@link Property#CLIENT_METRICS_DIR}, unless it
+ * is {@code none}. Registered through {@code META-INF/services}.
+ */
+public class ClientMetricsListener implements TestExecutionListener {
+
+  @Override
+  public void testPlanExecutionFinished(TestPlan testPlan) {
+    String directory = Property.CLIENT_METRICS_DIR.getValue();
+    if ("none".equals(directory) || ClientMetrics.SHARED.isEmpty()) {
+      return;
+    }
+    try {
+      ClientMetrics.SHARED.writeTo(Path.of(directory));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write client metrics to " + directory, e);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClientMetricsTest {
+
+  @TempDir
+  Path directory;
+
+  private final ClientMetrics metrics = new ClientMetrics();
+  private HttpServer server;
+  private String base;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", this::serve);
+    server.start();
+    base = "http://localhost:" + server.getAddress().getPort();
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void recordsLatencyPerEndpointAndStatus() {
+    for (int i = 0; i < 3; i++) {
+      get("/ui/presentations/" + UUID.randomUUID());
+    }
+    get("/missing?nonce=1");
+
+    List<ClientMetrics.Summary> summaries = metrics.summaries();
+
+    String host = "localhost:" + server.getAddress().getPort();
+    assertThat(summaries.stream().map(s -> s.endpoint() + " " + s.status()).toList(), contains(
+        host + "/missing 404",
+        host + "/ui/presentations/{id} 200"));
+    assertThat(summaries.get(1).count(), is(3L));
+    assertThat(summaries.get(1).method(), is("GET"));
+  }
+
+  @Test
+  void writesHistogramLogAndSummary() throws Exception {
+    get("/nonce");
+    get("/missing");
+
+    metrics.writeTo(directory);
+
+    List<String> tags = new ArrayList<>();
+    try (InputStream in = Files.newInputStream(directory.resolve(ClientMetrics.HISTOGRAM_LOG))) {
+      HistogramLogReader reader = new HistogramLogReader(in);
+      for (EncodableHistogram h = reader.nextIntervalHistogram(); h != null; h =
+          reader.nextIntervalHistogram()) {
+        tags.add(h.getTag());
+      }
+    }
+    String host = "localhost:" + server.getAddress().getPort();
+    assertThat(tags,
+        containsInAnyOrder("GET:200:" + host + "/nonce", "GET:404:" + host + "/missing"));
+
+    JsonNode summary =
+        new ObjectMapper().readTree(directory.resolve(ClientMetrics.SUMMARY).toFile());
+    assertThat(summary.size(), is(2));
+    assertThat(summary.get(1).get("endpoint").asText(), is(host + "/nonce"));
+    assertThat(summary.get(1).get("count").asLong(), is(1L));
+  }
+
+  @Test
+  void replacesIdentifiersInPath() {
+    assertThat(ClientMetrics.endpoint(URI.create(
+        "https://localhost/refimpl-verifier-backend/wallet/request.jwt/"
+            + "bOpTQz8y0wbTyL6r2yGbS6n8Qb9vT3mD1Wc")),
+        is("localhost/refimpl-verifier-backend/wallet/request.jwt/{id}"));
+    assertThat(ClientMetrics.endpoint(URI.create("https://localhost/v0/accounts/42/keys/")),
+        is("localhost/v0/accounts/{id}/keys/"));
+    assertThat(ClientMetrics.endpoint(URI.create(
+        "https://localhost/pid-issuer/.well-known/openid-credential-issuer")),
+        is("localhost/pid-issuer/.well-known/openid-credential-issuer"));
+  }
+
+  private void get(String path) {
+    RestAssured.given().filter(metrics.filter()).when().get(base + path);
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    int status = exchange.getRequestURI().getPath().startsWith("/missing") ? 404 : 200;
+    exchange.sendResponseHeaders(status, -1);
+    exchange.close();
+  }
+}
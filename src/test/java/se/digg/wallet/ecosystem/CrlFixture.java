@@ -0,0 +1,123 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.CRLReason;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HexFormat;
+
+/**
+ * Writes X.509 v2 CRLs signed with ECDSA, complete or delta, for tests and benchmarks that need
+ * more entries than trust-source's CRL has. The JDK can read CRLs but not create them.
+ */
+public final class CrlFixture {
+  private CrlFixture() {}
+
+  // DER encoded OBJECT IDENTIFIERs and BOOLEAN true
+  private static final byte[] ECDSA_WITH_SHA256 = HexFormat.of().parseHex("06082a8648ce3d040302");
+  private static final byte[] CRL_NUMBER = HexFormat.of().parseHex("0603551d14");
+  private static final byte[] DELTA_CRL_INDICATOR = HexFormat.of().parseHex("0603551d1b");
+  private static final byte[] REASON_CODE = HexFormat.of().parseHex("0603551d15");
+  private static final byte[] TRUE = HexFormat.of().parseHex("0101ff");
+  private static final DateTimeFormatter UTC_TIME =
+      DateTimeFormatter.ofPattern("yyMMddHHmmss'Z'").withZone(ZoneOffset.UTC);
+
+  /** A revoked serial number, with a reason or null for none. */
+  public record Entry(BigInteger serialNumber, Instant revoked, CRLReason reason) {
+  }
+
+  /** A complete CRL. */
+  public static byte[] crl(X509Certificate issuer, PrivateKey key, long number,
+      Instant thisUpdate, Instant nextUpdate, Collection<Entry> entries)
+      throws GeneralSecurityException {
+    return sign(issuer, key, number, null, thisUpdate, nextUpdate, entries);
+  }
+
+  /** A delta CRL on top of the complete CRL with number {@code baseNumber}. */
+  public static byte[] deltaCrl(X509Certificate issuer, PrivateKey key, long number,
+      long baseNumber, Instant thisUpdate, Instant nextUpdate, Collection<Entry> entries)
+      throws GeneralSecurityException {
+    return sign(issuer, key, number, baseNumber, thisUpdate, nextUpdate, entries);
+  }
+
+  private static byte[] sign(X509Certificate issuer, PrivateKey key, long number,
+      Long baseNumber, Instant thisUpdate, Instant nextUpdate, Collection<Entry> entries)
+      throws GeneralSecurityException {
+    byte[] algorithm = tlv(0x30, ECDSA_WITH_SHA256);
+
+    ByteArrayOutputStream revoked = new ByteArrayOutputStream(entries.size() * 32);
+    for (Entry entry : entries) {
+      byte[] extensions = entry.reason() == null ? new byte[0]
+          : tlv(0x30, tlv(0x30,
+              REASON_CODE, tlv(0x04, tlv(0x0a, new byte[] {(byte) entry.reason().ordinal()}))));
+      revoked.writeBytes(tlv(0x30, integer(entry.serialNumber()), time(entry.revoked()),
+          extensions));
+    }
+
+    byte[] crlExtensions = tlv(0x30, CRL_NUMBER, tlv(0x04, integer(BigInteger.valueOf(number))));
+    if (baseNumber != null) {
+      crlExtensions = concat(crlExtensions, tlv(0x30, DELTA_CRL_INDICATOR, TRUE,
+          tlv(0x04, integer(BigInteger.valueOf(baseNumber)))));
+    }
+
+    byte[] tbs = tlv(0x30,
+        integer(BigInteger.ONE),
+        algorithm,
+        issuer.getSubjectX500Principal().getEncoded(),
+        time(thisUpdate),
+        time(nextUpdate),
+        entries.isEmpty() ? new byte[0] : tlv(0x30, revoked.toByteArray()),
+        tlv(0xa0, tlv(0x30, crlExtensions)));
+
+    Signature signature = Signature.getInstance("SHA256withECDSA");
+    signature.initSign(key);
+    signature.update(tbs);
+    byte[] signatureBits = concat(new byte[] {0}, signature.sign());
+    return tlv(0x30, tbs, algorithm, tlv(0x03, signatureBits));
+  }
+
+  private static byte[] integer(BigInteger value) {
+    return tlv(0x02, value.toByteArray());
+  }
+
+  private static byte[] time(Instant instant) {
+    return tlv(0x17, UTC_TIME.format(instant).getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static byte[] tlv(int tag, byte[]... contents) {
+    byte[] value = concat(contents);
+    ByteArrayOutputStream out = new ByteArrayOutputStream(value.length + 6);
+    out.write(tag);
+    if (value.length < 0x80) {
+      out.write(value.length);
+    } else {
+      int bytes = (Integer.SIZE - Integer.numberOfLeadingZeros(value.length) + 7) / 8;
+      out.write(0x80 | bytes);
+      for (int i = bytes - 1; i >= 0; i--) {
+        out.write(value.length >>> (8 * i));
+      }
+    }
+    out.writeBytes(value);
+    return out.toByteArray();
+  }
+
+  private static byte[] concat(byte[]... parts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.writeBytes(part);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,396 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads pid-issuer-db and wallet-account-db directly, over a small pool of JDBC connections that
+ * are validated before reuse. Issued credentials are found by the {@code notification_id} of their
+ * credential response rather than by taking the latest row, which races with parallel issuance.
+ * {@link #explainHotQueries} captures the plans of the issuer's frequent queries, for instance on a
+ * table filled with {@link #seedIssuedCredentials}, and {@link Plan#sequentialScans} flags those
+ * that read the whole table.
+ */
+public final class DbInspector implements AutoCloseable {
+
+  public static final String BY_NOTIFICATION_ID = "by notification id";
+  public static final String BY_CREDENTIAL_IDENTIFIER = "by credential identifier";
+  public static final String EXPIRED = "expired";
+  public static final String LATEST_ISSUED = "latest issued";
+
+  /** Seeded rows get a notification id with this prefix, so that they can be told apart. */
+  static final String SEED_PREFIX = "seed-";
+
+  static final int POOL_SIZE = 4;
+  static final int SEED_BATCH = 500_000;
+  private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+  private static final String STATUS_LIST = "http://trust-source/signed/status-list.jwt";
+
+  private static final String ISSUED_CREDENTIAL_COLUMNS = """
+      SELECT id, credential_type, issued_at, expires_at, notification_id,
+          client_status_list_uri, client_status_list_index, key_storage_status_list_uri,
+          credential_identifier
+      FROM issued_credential""";
+
+  private static final Pattern SEQUENTIAL_SCAN =
+      Pattern.compile("(?:Parallel )?Seq Scan on (\\S+)");
+  private static final Pattern EXECUTION_TIME =
+      Pattern.compile("Execution Time: ([0-9.]+) ms");
+
+  private static final DbInspector PID_ISSUER = new DbInspector(
+      ServiceIdentifier.PID_ISSUER_DB.toString(), "pid-issuer", "pass", POOL_SIZE);
+  private static final DbInspector WALLET_ACCOUNT = new DbInspector(
+      ServiceIdentifier.WALLET_ACCOUNT_DB.toString(), "wallet-account", "pass", POOL_SIZE);
+
+  /** Work done with a pooled connection. */
+  @FunctionalInterface
+  public interface SqlWork<T> {
+    T apply(Connection connection) throws SQLException;
+  }
+
+  public record IssuedCredential(long id, String credentialType, Instant issuedAt,
+      Instant expiresAt, String notificationId, String clientStatusListUri,
+      long clientStatusListIndex, String keyStorageStatusListUri, UUID credentialIdentifier) {
+  }
+
+  public record TableSize(String name, long liveRows, long totalBytes) {
+  }
+
+  /**
+   * Size and vacuum figures of a table from {@code pg_stat_user_tables}. Row counts are the
+   * server's estimates; the vacuum and analyze counts only grow.
+   */
+  public record TableStats(long liveRows, long deadRows, long tableBytes, long indexBytes,
+      long insertsSinceVacuum, long autovacuums, long autoanalyzes) {
+  }
+
+  /** The lines of an {@code EXPLAIN (ANALYZE, BUFFERS)} plan of a named query. */
+  public record Plan(String name, List<String> lines) {
+
+    /** The relations that the plan reads with a sequential scan, in plan order. */
+    public List<String> sequentialScans() {
+      List<String> relations = new ArrayList<>();
+      for (String line : lines) {
+        Matcher matcher = SEQUENTIAL_SCAN.matcher(line);
+        if (matcher.find()) {
+          relations.add(matcher.group(1));
+        }
+      }
+      return relations;
+    }
+
+    /** The execution time that the server reported, or -1 without one. */
+    public double executionMillis() {
+      for (String line : lines) {
+        Matcher matcher = EXECUTION_TIME.matcher(line);
+        if (matcher.find()) {
+          return Double.parseDouble(matcher.group(1));
+        }
+      }
+      return -1;
+    }
+
+    public String format() {
+      StringBuilder out = new StringBuilder(String.format("%s%s%n", name,
+          sequentialScans().isEmpty() ? "" : " -- SEQUENTIAL SCAN on " + sequentialScans()));
+      for (String line : lines) {
+        out.append("  ").append(line).append(System.lineSeparator());
+      }
+      return out.toString();
+    }
+  }
+
+  private final String url;
+  private final String user;
+  private final String password;
+  private final Semaphore permits;
+  private final BlockingQueue<Connection> idle = new LinkedBlockingQueue<>();
+  private volatile boolean closed;
+
+  public DbInspector(String url, String user, String password, int poolSize) {
+    if (poolSize < 1) {
+      throw new IllegalArgumentException("Pool size must be at least 1");
+    }
+    this.url = url;
+    this.user = user;
+    this.password = password;
+    this.permits = new Semaphore(poolSize);
+  }
+
+  /** The shared inspector of pid-issuer-db. */
+  public static DbInspector pidIssuer() {
+    return PID_ISSUER;
+  }
+
+  /** The shared inspector of wallet-account-db. */
+  public static DbInspector walletAccount() {
+    return WALLET_ACCOUNT;
+  }
+
+  /**
+   * Runs {@code work} with a connection from the pool, waiting while all of them are in use. A
+   * connection that failed is closed instead of returned to the pool.
+   */
+  public <T> T withConnection(SqlWork<T> work) throws SQLException {
+    if (closed) {
+      throw new IllegalStateException("Inspector of " + url + " is closed");
+    }
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a connection to " + url, e);
+    }
+    try {
+      Connection connection = take();
+      boolean healthy = false;
+      try {
+        T result = work.apply(connection);
+        healthy = true;
+        return result;
+      } finally {
+        if (healthy && !closed) {
+          idle.add(connection);
+        } else {
+          connection.close();
+        }
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * The credentials issued in the credential response with {@code notificationId}, one per binding
+   * key of the request.
+   */
+  public List<IssuedCredential> findIssuedCredentials(String notificationId)
+      throws SQLException {
+    return withConnection(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(
+          ISSUED_CREDENTIAL_COLUMNS + " WHERE notification_id = ? ORDER BY id")) {
+        statement.setString(1, notificationId);
+        List<IssuedCredential> found = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery()) {
+          while (rows.next()) {
+            found.add(issuedCredential(rows));
+          }
+        }
+        return found;
+      }
+    });
+  }
+
+  public Optional<IssuedCredential> findIssuedCredential(UUID credentialIdentifier)
+      throws SQLException {
+    return withConnection(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(
+          ISSUED_CREDENTIAL_COLUMNS + " WHERE credential_identifier = ?")) {
+        statement.setObject(1, credentialIdentifier);
+        try (ResultSet rows = statement.executeQuery()) {
+          return rows.next() ? Optional.of(issuedCredential(rows)) : Optional.empty();
+        }
+      }
+    });
+  }
+
+  /** Runs {@code sql} with {@code parameters} under {@code EXPLAIN (ANALYZE, BUFFERS)}. */
+  public Plan explain(String name, String sql, Object... parameters) throws SQLException {
+    return withConnection(connection -> {
+      try (PreparedStatement statement =
+          connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+        for (int i = 0; i < parameters.length; i++) {
+          statement.setObject(i + 1, parameters[i]);
+        }
+        List<String> lines = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery()) {
+          while (rows.next()) {
+            lines.add(rows.getString(1));
+          }
+        }
+        return new Plan(name, lines);
+      }
+    });
+  }
+
+  /**
+   * Explains the issuer's frequent queries on {@code issued_credential}, using the newest row with
+   * a notification id for the lookups. Ordering by {@code issued_at} has no index to use and is
+   * expected to be flagged.
+   */
+  public List<Plan> explainHotQueries() throws SQLException {
+    IssuedCredential sample = withConnection(connection -> {
+      try (Statement statement = connection.createStatement();
+          ResultSet rows = statement.executeQuery(ISSUED_CREDENTIAL_COLUMNS
+              + " WHERE notification_id IS NOT NULL ORDER BY id DESC LIMIT 1")) {
+        if (!rows.next()) {
+          throw new IllegalStateException("No issued credential with a notification id");
+        }
+        return issuedCredential(rows);
+      }
+    });
+    return List.of(
+        explain(BY_NOTIFICATION_ID, ISSUED_CREDENTIAL_COLUMNS + " WHERE notification_id = ?",
+            sample.notificationId()),
+        explain(BY_CREDENTIAL_IDENTIFIER,
+            ISSUED_CREDENTIAL_COLUMNS + " WHERE credential_identifier = ?",
+            sample.credentialIdentifier()),
+        explain(EXPIRED, "SELECT id FROM issued_credential WHERE expires_at < ? LIMIT 1000",
+            Timestamp.from(Instant.now())),
+        explain(LATEST_ISSUED,
+            ISSUED_CREDENTIAL_COLUMNS + " ORDER BY issued_at DESC LIMIT 1"));
+  }
+
+  /** The exact number of rows in {@code issued_credential}. */
+  public long countIssuedCredentials() throws SQLException {
+    return withConnection(connection -> {
+      try (Statement statement = connection.createStatement();
+          ResultSet rows = statement.executeQuery("SELECT count(*) FROM issued_credential")) {
+        rows.next();
+        return rows.getLong(1);
+      }
+    });
+  }
+
+  /** The number of rows added by {@link #seedIssuedCredentials}. */
+  public long countSeededIssuedCredentials() throws SQLException {
+    return withConnection(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(
+          "SELECT count(*) FROM issued_credential WHERE notification_id LIKE ?")) {
+        statement.setString(1, SEED_PREFIX + "%");
+        try (ResultSet rows = statement.executeQuery()) {
+          rows.next();
+          return rows.getLong(1);
+        }
+      }
+    });
+  }
+
+  /**
+   * Inserts {@code rows} synthetic credentials issued over the past year, generated by the server
+   * in batches of {@link #SEED_BATCH}, and analyzes the table so that its plans reflect the new
+   * size.
+   */
+  public void seedIssuedCredentials(long rows) throws SQLException {
+    withConnection(connection -> {
+      try (PreparedStatement insert = connection.prepareStatement("""
+          INSERT INTO issued_credential (credential_format, credential_type, issued_at,
+              expires_at, notification_id, client_status_list_uri, client_status_list_index,
+              key_storage_status_list_uri, key_storage_status_list_index, credential_identifier)
+          SELECT 'dc+sd-jwt', 'urn:eudi:pid:1', issued_at, issued_at + interval '90 days',
+              ? || gen_random_uuid(), ?, n, ?, n, gen_random_uuid()
+          FROM (SELECT n, now() - random() * interval '365 days' AS issued_at
+              FROM generate_series(1, ?) AS n) AS seed""")) {
+        for (long done = 0; done < rows; done += SEED_BATCH) {
+          insert.setString(1, SEED_PREFIX);
+          insert.setString(2, STATUS_LIST);
+          insert.setString(3, STATUS_LIST);
+          insert.setLong(4, Math.min(SEED_BATCH, rows - done));
+          insert.executeUpdate();
+        }
+      }
+      try (Statement analyze = connection.createStatement()) {
+        analyze.execute("ANALYZE issued_credential");
+      }
+      return null;
+    });
+  }
+
+  /** Deletes the rows added by {@link #seedIssuedCredentials}, returning their number. */
+  public int deleteSeededIssuedCredentials() throws SQLException {
+    return withConnection(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(
+          "DELETE FROM issued_credential WHERE notification_id LIKE ?")) {
+        statement.setString(1, SEED_PREFIX + "%");
+        return statement.executeUpdate();
+      }
+    });
+  }
+
+  /** The live rows and total size, with indexes, of every user table, largest first. */
+  public List<TableSize> tableSizes() throws SQLException {
+    return withConnection(connection -> {
+      try (Statement statement = connection.createStatement();
+          ResultSet rows = statement.executeQuery("""
+              SELECT relname, n_live_tup, pg_total_relation_size(relid)
+              FROM pg_stat_user_tables
+              ORDER BY pg_total_relation_size(relid) DESC""")) {
+        List<TableSize> sizes = new ArrayList<>();
+        while (rows.next()) {
+          sizes.add(new TableSize(rows.getString(1), rows.getLong(2), rows.getLong(3)));
+        }
+        return sizes;
+      }
+    });
+  }
+
+  public TableStats tableStats(String table) throws SQLException {
+    return withConnection(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement("""
+          SELECT n_live_tup, n_dead_tup, pg_table_size(relid), pg_indexes_size(relid),
+              n_ins_since_vacuum, autovacuum_count, autoanalyze_count
+          FROM pg_stat_user_tables
+          WHERE relname = ?""")) {
+        statement.setString(1, table);
+        try (ResultSet rows = statement.executeQuery()) {
+          if (!rows.next()) {
+            throw new IllegalArgumentException("No table " + table + " in " + url);
+          }
+          return new TableStats(rows.getLong(1), rows.getLong(2), rows.getLong(3),
+              rows.getLong(4), rows.getLong(5), rows.getLong(6), rows.getLong(7));
+        }
+      }
+    });
+  }
+
+  @Override
+  public void close() throws SQLException {
+    closed = true;
+    for (Connection connection = idle.poll(); connection != null; connection = idle.poll()) {
+      connection.close();
+    }
+  }
+
+  private Connection take() throws SQLException {
+    for (Connection connection = idle.poll(); connection != null; connection = idle.poll()) {
+      if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+        return connection;
+      }
+      connection.close();
+    }
+    return DriverManager.getConnection(url, user, password);
+  }
+
+  private static IssuedCredential issuedCredential(ResultSet rows) throws SQLException {
+    return new IssuedCredential(
+        rows.getLong("id"),
+        rows.getString("credential_type"),
+        rows.getObject("issued_at", OffsetDateTime.class).toInstant(),
+        rows.getObject("expires_at", OffsetDateTime.class).toInstant(),
+        rows.getString("notification_id"),
+        rows.getString("client_status_list_uri"),
+        rows.getLong("client_status_list_index"),
+        rows.getString("key_storage_status_list_uri"),
+        rows.getObject("credential_identifier", UUID.class));
+  }
+}
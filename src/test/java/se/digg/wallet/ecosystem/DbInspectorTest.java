@@ -0,0 +1,67 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DbInspectorTest {
+
+  @Test
+  void flagsSequentialScansInPlanOrder() {
+    DbInspector.Plan plan = new DbInspector.Plan(DbInspector.LATEST_ISSUED, List.of(
+        "Limit  (cost=1000.00..1001.00 rows=1 width=120) (actual time=812.1..812.3 rows=1 loops=1)",
+        "  ->  Gather Merge  (cost=1000.00..1001.00 rows=1 width=120)",
+        "        ->  Sort  (cost=0.00..1.00 rows=1 width=120)",
+        "              ->  Parallel Seq Scan on issued_credential  (cost=0.00..1.00 rows=1)",
+        "  ->  Seq Scan on status_list  (cost=0.00..1.00 rows=1 width=8)",
+        "        Buffers: shared hit=12 read=80000",
+        "Planning Time: 0.210 ms",
+        "Execution Time: 812.517 ms"));
+
+    assertThat(plan.sequentialScans(), is(List.of("issued_credential", "status_list")));
+    assertThat(plan.executionMillis(), is(812.517));
+    assertThat(plan.format(), containsString("SEQUENTIAL SCAN on [issued_credential"));
+  }
+
+  @Test
+  void doesNotFlagIndexScans() {
+    DbInspector.Plan plan = new DbInspector.Plan(DbInspector.BY_NOTIFICATION_ID, List.of(
+        "Index Scan using idx_issued_credential_notification_id on issued_credential"
+            + "  (cost=0.43..8.45 rows=1 width=120) (actual time=0.03..0.04 rows=1 loops=1)",
+        "  Index Cond: ((notification_id)::text = 'abc'::text)",
+        "  Buffers: shared hit=4"));
+
+    assertThat(plan.sequentialScans(), is(List.of()));
+    assertThat(plan.executionMillis(), is(-1.0));
+  }
+
+  @Test
+  void releasesItsConnectionSlotWhenConnectingFails() {
+    DbInspector inspector =
+        new DbInspector("jdbc:postgresql://localhost:1/none", "none", "none", 1);
+
+    // With a single slot, a leaked one would block the second attempt
+    for (int i = 0; i < 2; i++) {
+      assertThrows(SQLException.class, () -> inspector.withConnection(connection -> null));
+    }
+  }
+
+  @Test
+  void rejectsWorkWhenClosed() throws SQLException {
+    DbInspector inspector =
+        new DbInspector("jdbc:postgresql://localhost:1/none", "none", "none", 1);
+    inspector.close();
+
+    assertThrows(IllegalStateException.class,
+        () -> inspector.withConnection(connection -> null));
+  }
+}
@@ -0,0 +1,99 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Creates DPoP proofs (RFC 9449) for a single key. The signer and the header, including its
+ * serialized form with the public JWK, are created once and shared, so a proof only costs the
+ * claims and the signature. Instances are thread-safe, and {@link #forKey} shares one per key.
+ */
+public final class DpopProofFactory {
+
+  private static final ExpiringCache<String, DpopProofFactory> SHARED =
+      new ExpiringCache<>(Duration.ofHours(1), 256);
+
+  private final ECDSASigner signer;
+  private final JWSHeader header;
+
+  public DpopProofFactory(ECKey key) throws JOSEException {
+    this.signer = new ECDSASigner(key);
+    JWSHeader built =
+        new JWSHeader.Builder(JWSAlgorithm.ES256)
+            .type(new JOSEObjectType("dpop+jwt"))
+            .jwk(key.toPublicJWK())
+            .build();
+    try {
+      // A parsed header keeps its Base64URL form, so it is not serialized again for every proof.
+      this.header = JWSHeader.parse(built.toBase64URL());
+    } catch (ParseException e) {
+      throw new JOSEException("Unable to prepare DPoP header", e);
+    }
+  }
+
+  /**
+   * The shared factory for a private key, created once per public JWK. The thumbprint would not do,
+   * as it leaves out the {@code kid}, {@code use} and {@code alg} that the header carries.
+   */
+  public static DpopProofFactory forKey(ECKey key) throws JOSEException {
+    if (!key.isPrivate()) {
+      throw new JOSEException("A DPoP key must include its private part");
+    }
+    return SHARED.get(key.toPublicJWK().toJSONString(), publicJwk -> {
+      try {
+        return new DpopProofFactory(key);
+      } catch (JOSEException e) {
+        throw new IllegalArgumentException("Unsupported DPoP key " + publicJwk, e);
+      }
+    });
+  }
+
+  public String createProof(String htu, String htm) throws JOSEException {
+    return createProof(htu, htm, null);
+  }
+
+  public String createProof(String htu, String htm, String accessToken) throws JOSEException {
+    return createProof(htu, htm, accessToken, null);
+  }
+
+  /** Creates a proof with the {@code DPoP-Nonce} the server last sent, if it is not null. */
+  public String createProof(String htu, String htm, String accessToken, String nonce)
+      throws JOSEException {
+    JWTClaimsSet.Builder claimsBuilder =
+        new JWTClaimsSet.Builder()
+            .jwtID(UUID.randomUUID().toString())
+            .issueTime(new Date())
+            .claim("htu", htu)
+            .claim("htm", htm);
+
+    if (accessToken != null && !accessToken.isEmpty()) {
+      claimsBuilder.claim("ath", accessTokenHash(accessToken));
+    }
+    if (nonce != null) {
+      claimsBuilder.claim("nonce", nonce);
+    }
+
+    SignedJWT signedJwt = new SignedJWT(header, claimsBuilder.build());
+    signedJwt.sign(signer);
+    return signedJwt.serialize();
+  }
+
+  static String accessTokenHash(String accessToken) {
+    return Sha256.base64Url(accessToken.getBytes(StandardCharsets.US_ASCII));
+  }
+}
@@ -0,0 +1,120 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.SignedJWT;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class DpopProofFactoryTest {
+
+  private static final String HTU = "https://server.example.com/token";
+
+  @Test
+  void createProof_usesSameHeaderAsFreshlyBuiltOne() throws Exception {
+    ECKey key = new ECKeyGenerator(Curve.P_256).generate();
+    JWSHeader expected =
+        new JWSHeader.Builder(JWSAlgorithm.ES256)
+            .type(new JOSEObjectType("dpop+jwt"))
+            .jwk(key.toPublicJWK())
+            .build();
+
+    SignedJWT proof = SignedJWT.parse(new DpopProofFactory(key).createProof(HTU, "POST"));
+
+    assertThat(proof.getHeader().toBase64URL(), equalTo(expected.toBase64URL()));
+  }
+
+  @Test
+  void createProof_setsClaimsLikeDpopUtil() throws Exception {
+    ECKey key = new ECKeyGenerator(Curve.P_256).generate();
+    DpopProofFactory factory = new DpopProofFactory(key);
+
+    SignedJWT withToken = SignedJWT.parse(factory.createProof(HTU, "POST", "token"));
+    SignedJWT reference = SignedJWT.parse(DpopUtil.createDpopProof(key, HTU, "POST", "token"));
+
+    assertThat(withToken.getJWTClaimsSet().getClaims().keySet(),
+        equalTo(reference.getJWTClaimsSet().getClaims().keySet()));
+    assertThat(withToken.getJWTClaimsSet().getStringClaim("ath"),
+        equalTo(reference.getJWTClaimsSet().getStringClaim("ath")));
+    assertThat(withToken.getJWTClaimsSet().getStringClaim("htu"), equalTo(HTU));
+
+    SignedJWT withoutToken = SignedJWT.parse(factory.createProof(HTU, "GET"));
+    assertThat(withoutToken.getJWTClaimsSet().getStringClaim("htm"), equalTo("GET"));
+    assertThat(withoutToken.getJWTClaimsSet().getStringClaim("ath"), nullValue());
+  }
+
+  @Test
+  void createProof_isSafeToShareBetweenThreads() throws Exception {
+    ECKey key = new ECKeyGenerator(Curve.P_256).generate();
+    DpopProofFactory factory = new DpopProofFactory(key);
+    ECDSAVerifier verifier = new ECDSAVerifier(key.toECPublicKey());
+    Set<String> jwtIds = ConcurrentHashMap.newKeySet();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      List<Future<?>> futures = IntStream.range(0, 200)
+          .<Future<?>>mapToObj(i -> executor.submit(() -> {
+            String token = "token-" + i;
+            SignedJWT proof = SignedJWT.parse(factory.createProof(HTU, "POST", token));
+            assertTrue(proof.verify(verifier));
+            assertThat(proof.getJWTClaimsSet().getStringClaim("ath"),
+                equalTo(DpopProofFactory.accessTokenHash(token)));
+            jwtIds.add(proof.getJWTClaimsSet().getJWTID());
+            return null;
+          }))
+          .toList();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+
+    assertThat(jwtIds, hasSize(200));
+  }
+
+  @Test
+  void forKey_sharesOneFactoryPerKey() throws Exception {
+    ECKey key = new ECKeyGenerator(Curve.P_256).generate();
+    DpopProofFactory factory = DpopProofFactory.forKey(key);
+
+    assertThat(DpopProofFactory.forKey(ECKey.parse(key.toJSONString())), sameInstance(factory));
+    assertThat(DpopProofFactory.forKey(new ECKeyGenerator(Curve.P_256).generate()),
+        not(sameInstance(factory)));
+    assertThrows(JOSEException.class, () -> DpopProofFactory.forKey(key.toPublicJWK()));
+  }
+
+  @Test
+  void forKey_keepsKeysWithOtherParametersApart() throws Exception {
+    ECKey key = new ECKeyGenerator(Curve.P_256).generate();
+    ECKey withKid = new ECKey.Builder(key).keyID("device").build();
+
+    DpopProofFactory factory = DpopProofFactory.forKey(withKid);
+    SignedJWT proof = SignedJWT.parse(factory.createProof("https://example/token", "POST"));
+
+    assertThat(DpopProofFactory.forKey(key), not(sameInstance(factory)));
+    assertThat(proof.getHeader().getJWK().getKeyID(), equalTo("device"));
+  }
+}
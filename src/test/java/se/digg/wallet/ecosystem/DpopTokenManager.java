@@ -0,0 +1,238 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.util.Base64URL;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caches DPoP-bound access tokens per token endpoint (that is, Keycloak and realm), token request
+ * parameters (client, user, credentials and scope) and DPoP key thumbprint. A token is handed out
+ * until {@code refreshMargin} before it expires. Tokens that were used since they were fetched are
+ * refreshed in the background twice the margin before they expire, with the refresh token if
+ * Keycloak issued one, so callers rarely wait for Keycloak; unused tokens are dropped instead.
+ * Tokens that live too briefly for that are dropped once expired, when another token is cached. A
+ * {@code use_dpop_nonce} challenge is answered by retrying with the {@code DPoP-Nonce} the server
+ * sent, and the latest nonce of every endpoint is included in the following proofs.
+ */
+public final class DpopTokenManager implements AutoCloseable {
+
+  /** Shared by all Keycloak clients, configured by {@link Property#DPOP_TOKEN_REFRESH_MARGIN}. */
+  static final DpopTokenManager SHARED = new DpopTokenManager(
+      Duration.parse(Property.DPOP_TOKEN_REFRESH_MARGIN.getValue()), Clock.systemUTC());
+
+  private static final int MAX_ATTEMPTS = 2;
+
+  private record Key(URI tokenEndpoint, Map<String, String> parameters, Base64URL thumbprint) {
+  }
+
+  private record Token(String accessToken, Instant fetchedAt, Instant expiresAt,
+      String refreshToken, Instant refreshExpiresAt) {
+  }
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<URI, String> nonces = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("dpop-token-refresh").daemon().factory());
+  private final Duration refreshMargin;
+  private final Clock clock;
+
+  public DpopTokenManager(Duration refreshMargin, Clock clock) {
+    if (refreshMargin.isNegative()) {
+      throw new IllegalArgumentException("Refresh margin must not be negative");
+    }
+    this.refreshMargin = refreshMargin;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns a DPoP access token for the key, fetched from the realm with the given token request
+   * parameters if there is no usable cached one. The parameters must include {@code client_id}.
+   */
+  public String getAccessToken(
+      KeycloakClient keycloak, String realm, ECKey key, Map<String, String> parameters)
+      throws JOSEException {
+    if (!parameters.containsKey("client_id")) {
+      throw new IllegalArgumentException("The token request must include a client_id");
+    }
+    Key cacheKey =
+        new Key(keycloak.tokenEndpoint(realm), Map.copyOf(parameters), key.computeThumbprint());
+    Entry entry = entries.get(cacheKey);
+    if (entry == null) {
+      dropExpired();
+      DpopProofFactory proofs = DpopProofFactory.forKey(key);
+      entry = entries.computeIfAbsent(cacheKey, k -> new Entry(k, keycloak, realm, proofs));
+    }
+    return entry.accessToken();
+  }
+
+  /** Drops the entries that were never scheduled for a background refresh and have expired. */
+  private void dropExpired() {
+    Instant now = clock.instant();
+    entries.values().removeIf(entry -> entry.isExpired(now));
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  @Override
+  public void close() {
+    refresher.shutdownNow();
+    entries.clear();
+  }
+
+  private static boolean isNonceChallenge(Response response) {
+    String contentType = response.contentType();
+    return response.statusCode() == 400
+        && contentType != null
+        && contentType.contains("json")
+        && "use_dpop_nonce".equals(response.jsonPath().getString("error"));
+  }
+
+  private final class Entry {
+    private final Key key;
+    private final KeycloakClient keycloak;
+    private final String realm;
+    private final DpopProofFactory proofs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Token token;
+    private volatile Instant lastUsed = Instant.MIN;
+
+    Entry(Key key, KeycloakClient keycloak, String realm, DpopProofFactory proofs) {
+      this.key = key;
+      this.keycloak = keycloak;
+      this.realm = realm;
+      this.proofs = proofs;
+    }
+
+    String accessToken() throws JOSEException {
+      lastUsed = clock.instant();
+      Token current = token;
+      if (isUsable(current)) {
+        return current.accessToken();
+      }
+      lock.lock();
+      try {
+        current = token;
+        if (!isUsable(current)) {
+          current = refresh(current);
+        }
+        return current.accessToken();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    boolean isExpired(Instant now) {
+      Token current = token;
+      return current != null && !now.isBefore(current.expiresAt());
+    }
+
+    private boolean isUsable(Token current) {
+      return current != null && clock.instant().isBefore(current.expiresAt().minus(refreshMargin));
+    }
+
+    private Token refresh(Token previous) throws JOSEException {
+      Token fetched = fetch(previous);
+      token = fetched;
+      Instant refreshAt = fetched.expiresAt().minus(refreshMargin.multipliedBy(2));
+      if (refreshAt.isAfter(fetched.fetchedAt())) {
+        refresher.schedule(() -> refreshInBackground(fetched),
+            Duration.between(clock.instant(), refreshAt).toMillis(), TimeUnit.MILLISECONDS);
+      }
+      return fetched;
+    }
+
+    private void refreshInBackground(Token scheduled) {
+      lock.lock();
+      try {
+        if (token != scheduled) {
+          return;
+        }
+        if (lastUsed.isBefore(scheduled.fetchedAt())) {
+          entries.remove(key, this);
+          return;
+        }
+        refresh(scheduled);
+      } catch (JOSEException | RuntimeException | AssertionError e) {
+        // The next lookup fetches a token in the foreground and reports the failure
+        entries.remove(key, this);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private Token fetch(Token previous) throws JOSEException {
+      Instant now = clock.instant();
+      if (previous != null && previous.refreshToken() != null
+          && now.isBefore(previous.refreshExpiresAt().minus(refreshMargin))) {
+        Response refreshed = request(Map.of(
+            "grant_type", "refresh_token",
+            "client_id", key.parameters().get("client_id"),
+            "refresh_token", previous.refreshToken()));
+        if (refreshed.statusCode() == 200) {
+          return token(refreshed, now);
+        }
+      }
+      return token(request(key.parameters()), now);
+    }
+
+    private Response request(Map<String, String> form) throws JOSEException {
+      String htu = key.tokenEndpoint().toString();
+      String nonce = nonces.get(key.tokenEndpoint());
+      for (int attempt = 1;; attempt++) {
+        Response response = keycloak.tryGetDpopAccessToken(
+            realm, proofs.createProof(htu, "POST", null, nonce), form);
+        String serverNonce = response.header("DPoP-Nonce");
+        if (serverNonce != null) {
+          nonces.put(key.tokenEndpoint(), serverNonce);
+        }
+        if (attempt == MAX_ATTEMPTS || serverNonce == null || serverNonce.equals(nonce)
+            || !isNonceChallenge(response)) {
+          return response;
+        }
+        nonce = serverNonce;
+      }
+    }
+
+    private Token token(Response response, Instant fetchedAt) {
+      response
+          .then()
+          .assertThat()
+          .statusCode(200)
+          .and()
+          .body("access_token", notNullValue())
+          .body("token_type", equalTo("DPoP"))
+          .body("expires_in", notNullValue());
+
+      JsonPath body = response.jsonPath();
+      String refreshToken = body.getString("refresh_token");
+      Integer refreshExpiresIn = body.get("refresh_expires_in");
+      // Keycloak sends refresh_expires_in 0 for refresh tokens that do not expire
+      Instant refreshExpiresAt = refreshExpiresIn == null || refreshExpiresIn == 0
+          ? Instant.MAX
+          : fetchedAt.plusSeconds(refreshExpiresIn);
+      return new Token(body.getString("access_token"), fetchedAt,
+          fetchedAt.plusSeconds(body.getLong("expires_in")), refreshToken, refreshExpiresAt);
+    }
+  }
+}
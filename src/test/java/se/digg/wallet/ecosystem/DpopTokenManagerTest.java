@@ -0,0 +1,224 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DpopTokenManagerTest {
+
+  private static final String REALM = "pid-issuer-realm";
+
+  private final ExpiringCacheTest.MutableClock clock = new ExpiringCacheTest.MutableClock();
+  private final ECKey key = EcKeyPool.shared().take(KeyPurpose.BINDING);
+  private final List<String> grants = new CopyOnWriteArrayList<>();
+  private final List<String> proofNonces = new CopyOnWriteArrayList<>();
+  private final AtomicInteger issued = new AtomicInteger();
+  private volatile int expiresIn = 300;
+  private volatile boolean requireNonce;
+  private volatile boolean reject;
+  private HttpServer server;
+  private URI base;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/realms/" + REALM + "/protocol/openid-connect/token", this::serve);
+    server.start();
+    base = URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void reusesTokenPerUserAndKey() throws Exception {
+    try (DpopTokenManager tokens = new DpopTokenManager(Duration.ofSeconds(30), clock)) {
+      KeycloakClient keycloak = new KeycloakClient(base, tokens);
+
+      String first = keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+      String second = keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+      keycloak.getCachedDpopAccessToken(REALM, key, password("snilsson"));
+      keycloak.getCachedDpopAccessToken(
+          REALM, EcKeyPool.shared().take(KeyPurpose.BINDING), password("tneal"));
+
+      assertThat(second, is(first));
+      assertThat(grants, contains("password", "password", "password"));
+      assertThat(tokens.size(), is(3));
+    }
+  }
+
+  @Test
+  void keepsTokensOfOtherCredentialsAndScopesApart() throws Exception {
+    try (DpopTokenManager tokens = new DpopTokenManager(Duration.ofSeconds(30), clock)) {
+      KeycloakClient keycloak = new KeycloakClient(base, tokens);
+      Map<String, String> otherPassword = new HashMap<>(password("tneal"));
+      otherPassword.put("password", "wrong");
+      Map<String, String> otherScope = new HashMap<>(password("tneal"));
+      otherScope.put("scope", "openid");
+
+      String token = keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+
+      assertThat(keycloak.getCachedDpopAccessToken(REALM, key, otherPassword), is(not(token)));
+      assertThat(keycloak.getCachedDpopAccessToken(REALM, key, otherScope), is(not(token)));
+      assertThat(tokens.size(), is(3));
+    }
+  }
+
+  @Test
+  void refreshesWithRefreshTokenWithinMargin() throws Exception {
+    try (DpopTokenManager tokens = new DpopTokenManager(Duration.ofSeconds(30), clock)) {
+      KeycloakClient keycloak = new KeycloakClient(base, tokens);
+
+      String first = keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+      clock.advance(Duration.ofSeconds(269));
+      String cached = keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+      clock.advance(Duration.ofSeconds(2));
+      String refreshed = keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+
+      assertThat(cached, is(first));
+      assertThat(refreshed, is("token-2"));
+      assertThat(grants, contains("password", "refresh_token"));
+    }
+  }
+
+  @Test
+  void refreshesUsedTokensInBackground() throws Exception {
+    expiresIn = 10;
+    try (DpopTokenManager tokens =
+        new DpopTokenManager(Duration.ofSeconds(4), Clock.systemUTC())) {
+      KeycloakClient keycloak = new KeycloakClient(base, tokens);
+      keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+
+      // Refreshed in the background after 2 s, in the foreground only after 6 s
+      long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+      String token = keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+      while (!"token-2".equals(token) && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+        token = keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+      }
+
+      assertThat(token, is("token-2"));
+      assertThat(grants, contains("password", "refresh_token"));
+    }
+  }
+
+  @Test
+  void dropsExpiredTokensTooShortLivedToRefresh() throws Exception {
+    expiresIn = 50;
+    try (DpopTokenManager tokens = new DpopTokenManager(Duration.ofSeconds(30), clock)) {
+      KeycloakClient keycloak = new KeycloakClient(base, tokens);
+
+      keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+      clock.advance(Duration.ofSeconds(50));
+      keycloak.getCachedDpopAccessToken(REALM, key, password("snilsson"));
+
+      assertThat(tokens.size(), is(1));
+    }
+  }
+
+  @Test
+  void retriesWithServerNonceAndRemembersIt() throws Exception {
+    requireNonce = true;
+    try (DpopTokenManager tokens = new DpopTokenManager(Duration.ofSeconds(30), clock)) {
+      KeycloakClient keycloak = new KeycloakClient(base, tokens);
+
+      String token = keycloak.getCachedDpopAccessToken(REALM, key, password("tneal"));
+      keycloak.getCachedDpopAccessToken(REALM, key, password("snilsson"));
+
+      assertThat(token, is("token-1"));
+      assertThat(proofNonces, contains("none", "server-nonce", "server-nonce"));
+    }
+  }
+
+  @Test
+  void failsWhenGrantIsRejected() {
+    reject = true;
+    try (DpopTokenManager tokens = new DpopTokenManager(Duration.ofSeconds(30), clock)) {
+      KeycloakClient keycloak = new KeycloakClient(base, tokens);
+
+      assertThrows(AssertionError.class,
+          () -> keycloak.getCachedDpopAccessToken(REALM, key, password("tneal")));
+      assertThrows(IllegalArgumentException.class,
+          () -> keycloak.getCachedDpopAccessToken(REALM, key, Map.of("username", "tneal")));
+    }
+  }
+
+  private static Map<String, String> password(String username) {
+    return Map.of(
+        "grant_type", "password",
+        "client_id", "wallet-dev",
+        "username", username,
+        "password", "password");
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    Map<String, String> form = new HashMap<>();
+    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    for (String pair : body.split("&")) {
+      String[] parts = pair.split("=", 2);
+      form.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+          URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+    }
+    String nonce;
+    try {
+      nonce = SignedJWT.parse(exchange.getRequestHeaders().getFirst("DPoP"))
+          .getJWTClaimsSet().getStringClaim("nonce");
+    } catch (ParseException e) {
+      throw new IOException(e);
+    }
+    proofNonces.add(nonce == null ? "none" : nonce);
+
+    if (reject) {
+      respond(exchange, 401, "{\"error\": \"invalid_grant\"}");
+    } else if (requireNonce && !"server-nonce".equals(nonce)) {
+      exchange.getResponseHeaders().add("DPoP-Nonce", "server-nonce");
+      respond(exchange, 400, "{\"error\": \"use_dpop_nonce\"}");
+    } else {
+      grants.add(form.get("grant_type"));
+      int n = issued.incrementAndGet();
+      respond(exchange, 200, String.format(
+          "{\"access_token\": \"token-%d\", \"token_type\": \"DPoP\", \"expires_in\": %d,"
+              + " \"refresh_token\": \"refresh-%d\", \"refresh_expires_in\": 1800}",
+          n, expiresIn, n));
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
@@ -0,0 +1,175 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out pre-generated P-256 keys so that key generation stays off the measured path of a flow.
+ * A background thread tops the pool up to the high watermark whenever it drops below the low
+ * watermark, and if the pool runs dry a key is generated on the caller's thread instead. With a
+ * file, the unused keys are saved when the pool is closed and loaded again by the next pool, so a
+ * repeated load run starts warm. A key is handed out at most once, also across runs.
+ */
+public final class EcKeyPool implements AutoCloseable {
+
+  private static final class Shared {
+    private static final EcKeyPool POOL = fromEnvironment();
+  }
+
+  private final Queue<ECKey> keys = new ConcurrentLinkedQueue<>();
+  // ConcurrentLinkedQueue.size() walks the whole queue, so the pool counts its keys itself
+  private final AtomicInteger count = new AtomicInteger();
+  private final AtomicBoolean filling = new AtomicBoolean();
+  private final LongAdder misses = new LongAdder();
+  private final ExecutorService filler = Executors.newSingleThreadExecutor(
+      Thread.ofPlatform().name("ec-key-pool").daemon().factory());
+  private final int lowWatermark;
+  private final int highWatermark;
+  private final Path file;
+  private volatile boolean closed;
+
+  public EcKeyPool(int lowWatermark, int highWatermark) {
+    this(lowWatermark, highWatermark, null);
+  }
+
+  /** Creates a pool that is saved to, and first loaded from, the given file. */
+  public EcKeyPool(int lowWatermark, int highWatermark, Path file) {
+    if (lowWatermark < 0 || highWatermark < lowWatermark || highWatermark < 1) {
+      throw new IllegalArgumentException(
+          "Watermarks must satisfy 0 <= low <= high and 1 <= high, got %d and %d"
+              .formatted(lowWatermark, highWatermark));
+    }
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.file = file;
+    if (file != null) {
+      load(file);
+    }
+    refill();
+  }
+
+  /**
+   * The pool shared by all clients, sized by {@link Property#KEY_POOL_LOW_WATERMARK} and
+   * {@link Property#KEY_POOL_HIGH_WATERMARK} and persisted to {@link Property#KEY_POOL_FILE}.
+   */
+  public static EcKeyPool shared() {
+    return Shared.POOL;
+  }
+
+  public ECKey take(KeyPurpose purpose) {
+    ECKey key = keys.poll();
+    int left = key == null ? count.get() : count.decrementAndGet();
+    if (left < lowWatermark) {
+      refill();
+    }
+    if (key == null) {
+      misses.increment();
+      key = generate();
+    }
+    return purpose.apply(key);
+  }
+
+  public int size() {
+    return count.get();
+  }
+
+  /** The number of keys that had to be generated on the caller's thread. */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /** Stops refilling and saves the keys that are left, if the pool has a file. */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    filler.shutdownNow();
+    if (file != null) {
+      Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+      Files.writeString(temporary, new JWKSet(List.copyOf(keys)).toString(false));
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    }
+  }
+
+  private void refill() {
+    if (closed || !filling.compareAndSet(false, true)) {
+      return;
+    }
+    filler.execute(() -> {
+      try {
+        while (!closed && count.get() < highWatermark) {
+          add(generate());
+        }
+      } finally {
+        filling.set(false);
+      }
+    });
+  }
+
+  /** Takes over the keys saved by an earlier pool, deleting the file so they are not reused. */
+  private void load(Path file) {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try {
+      JWKSet saved = JWKSet.parse(Files.readString(file));
+      Files.delete(file);
+      saved.getKeys().stream()
+          .filter(key -> key instanceof ECKey ec && Curve.P_256.equals(ec.getCurve())
+              && ec.isPrivate())
+          .map(ECKey.class::cast)
+          .forEach(this::add);
+    } catch (IOException | ParseException e) {
+      throw new IllegalStateException("Could not load EC key pool from " + file, e);
+    }
+  }
+
+  private void add(ECKey key) {
+    keys.add(key);
+    count.incrementAndGet();
+  }
+
+  private static ECKey generate() {
+    try {
+      return new ECKeyGenerator(Curve.P_256).generate();
+    } catch (JOSEException e) {
+      throw new IllegalStateException("Could not generate P-256 key", e);
+    }
+  }
+
+  private static EcKeyPool fromEnvironment() {
+    String file = Property.KEY_POOL_FILE.getValue();
+    EcKeyPool pool = new EcKeyPool(
+        Integer.parseInt(Property.KEY_POOL_LOW_WATERMARK.getValue()),
+        Integer.parseInt(Property.KEY_POOL_HIGH_WATERMARK.getValue()),
+        "none".equals(file) ? null : Path.of(file));
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        pool.close();
+      } catch (IOException e) {
+        System.err.println("Could not save EC key pool: " + e.getMessage());
+      }
+    }));
+    return pool;
+  }
+}
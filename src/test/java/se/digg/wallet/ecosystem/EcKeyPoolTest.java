@@ -0,0 +1,117 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nimbusds.jose.Algorithm;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.KeyUse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EcKeyPoolTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void fillsToHighWatermarkInBackground() throws Exception {
+    try (EcKeyPool pool = new EcKeyPool(2, 8)) {
+      await(() -> pool.size() == 8);
+
+      for (int i = 0; i < 7; i++) {
+        pool.take(KeyPurpose.BINDING);
+      }
+      await(() -> pool.size() == 8);
+
+      assertThat(pool.misses(), is(0L));
+    }
+  }
+
+  @Test
+  void generatesOnCallerThreadWhenEmpty() throws Exception {
+    try (EcKeyPool pool = new EcKeyPool(0, 1)) {
+      await(() -> pool.size() == 1);
+
+      pool.take(KeyPurpose.BINDING);
+      pool.take(KeyPurpose.BINDING);
+
+      assertThat(pool.misses(), is(1L));
+    }
+  }
+
+  @Test
+  void appliesPurposeToUniqueKeys() throws Exception {
+    try (EcKeyPool pool = new EcKeyPool(4, 16)) {
+      ECKey binding = pool.take(KeyPurpose.BINDING);
+      assertThat(binding.getAlgorithm(), is(JWSAlgorithm.ES256));
+      assertThat(binding.getKeyUse(), is(KeyUse.SIGNATURE));
+      assertThat(binding.getKeyID(), is(not(nullValue())));
+
+      ECKey device = pool.take(KeyPurpose.DEVICE);
+      assertThat(device.getAlgorithm(), is(Algorithm.NONE));
+      assertThat(device.getKeyID(), startsWith("device-key-"));
+
+      ECKey encryption = pool.take(KeyPurpose.ENCRYPTION);
+      assertThat(encryption.getAlgorithm(), is(JWEAlgorithm.ECDH_ES));
+      assertThat(encryption.getKeyUse(), is(KeyUse.ENCRYPTION));
+      assertThat(encryption.getKeyID(), is(nullValue()));
+
+      assertThat(Set.of(binding.getX(), device.getX(), encryption.getX()).size(), is(3));
+    }
+  }
+
+  @Test
+  void handsOutSavedKeysOnceAcrossPools() throws Exception {
+    Path file = directory.resolve("keys.jwks");
+    Set<String> first = new HashSet<>();
+    try (EcKeyPool pool = new EcKeyPool(0, 4, file)) {
+      await(() -> pool.size() == 4);
+      first.add(pool.take(KeyPurpose.BINDING).getX().toString());
+    }
+
+    Set<String> second = new HashSet<>();
+    try (EcKeyPool pool = new EcKeyPool(0, 3, file)) {
+      assertThat(Files.exists(file), is(false));
+      for (int i = 0; i < 3; i++) {
+        second.add(pool.take(KeyPurpose.DEVICE).getX().toString());
+      }
+      assertThat(pool.misses(), is(0L));
+    }
+
+    assertThat(second.size(), is(3));
+    assertThat(second.removeAll(first), is(false));
+  }
+
+  @Test
+  void rejectsInvalidWatermarks() {
+    assertThrows(IllegalArgumentException.class, () -> new EcKeyPool(8, 4));
+    assertThrows(IllegalArgumentException.class, () -> new EcKeyPool(0, 0));
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("Condition not met within 10 seconds");
+      }
+      Thread.sleep(10);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A bounded cache whose entries expire a fixed time after they were loaded. Lookups are lock-free,
+ * and loaders run outside any lock of the map, so a slow load only holds up lookups of its own key.
+ * When the cache is full, expired entries are dropped first and then the entries closest to expiry,
+ * so a burst of new keys cannot grow it beyond {@code maxEntries}.
+ */
+final class ExpiringCache<K, V> {
+
+  private record Entry<V>(V value, Instant expiresAt) {
+  }
+
+  private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+  private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Duration ttl;
+  private final int maxEntries;
+  private final Clock clock;
+
+  ExpiringCache(Duration ttl, int maxEntries) {
+    this(ttl, maxEntries, Clock.systemUTC());
+  }
+
+  ExpiringCache(Duration ttl, int maxEntries, Clock clock) {
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("TTL must be positive");
+    }
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Max entries must be at least 1");
+    }
+    this.ttl = ttl;
+    this.maxEntries = maxEntries;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the cached value for the key, loading it if it is missing or expired. Concurrent
+   * lookups of the same missing key load it once. Failures are not cached.
+   */
+  V get(K key, Function<? super K, ? extends V> loader) {
+    Instant now = clock.instant();
+    Entry<V> entry = entries.get(key);
+    if (entry != null && now.isBefore(entry.expiresAt())) {
+      return entry.value();
+    }
+
+    CompletableFuture<V> load = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+    if (existing != null) {
+      try {
+        return existing.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof Error error) {
+          throw error;
+        }
+        throw e.getCause() instanceof RuntimeException cause ? cause : e;
+      }
+    }
+
+    try {
+      Entry<V> current = entries.get(key);
+      V value;
+      if (current != null && now.isBefore(current.expiresAt())) {
+        value = current.value();
+      } else {
+        value = loader.apply(key);
+        entries.put(key, new Entry<>(value, now.plus(ttl)));
+        if (entries.size() > maxEntries) {
+          evict(now);
+        }
+      }
+      load.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, load);
+    }
+  }
+
+  void invalidate(K key) {
+    entries.remove(key);
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  private void evict(Instant now) {
+    entries.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+    while (entries.size() > maxEntries) {
+      entries.entrySet().stream()
+          .min(Comparator.comparing(e -> e.getValue().expiresAt()))
+          .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+  }
+}
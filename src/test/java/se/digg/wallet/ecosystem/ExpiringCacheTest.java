@@ -0,0 +1,137 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTest {
+
+  private final MutableClock clock = new MutableClock();
+
+  @Test
+  void loadsOnceUntilExpired() {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofMinutes(1), 10, clock);
+    AtomicInteger loads = new AtomicInteger();
+
+    assertThat(cache.get("a", key -> loads.incrementAndGet()), is(1));
+    clock.advance(Duration.ofSeconds(59));
+    assertThat(cache.get("a", key -> loads.incrementAndGet()), is(1));
+    clock.advance(Duration.ofSeconds(1));
+    assertThat(cache.get("a", key -> loads.incrementAndGet()), is(2));
+  }
+
+  @Test
+  void evictsEntriesClosestToExpiryWhenFull() {
+    ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(Duration.ofMinutes(1), 3, clock);
+
+    for (int i = 0; i < 5; i++) {
+      cache.get(i, key -> key);
+      clock.advance(Duration.ofSeconds(1));
+    }
+
+    assertThat(cache.size(), is(3));
+    assertThat(cache.get(4, key -> -1), is(4));
+    assertThat(cache.get(0, key -> -1), is(-1));
+  }
+
+  @Test
+  void doesNotCacheFailedLoads() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(Duration.ofMinutes(1), 10, clock);
+
+    assertThrows(IllegalStateException.class, () -> cache.get("a", key -> {
+      throw new IllegalStateException("unavailable");
+    }));
+    assertThat(cache.get("a", key -> "loaded"), is("loaded"));
+  }
+
+  @Test
+  void invalidateForcesReload() {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofMinutes(1), 10, clock);
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get("a", key -> loads.incrementAndGet());
+    cache.invalidate("a");
+
+    assertThat(cache.get("a", key -> loads.incrementAndGet()), is(2));
+  }
+
+  @Test
+  void loadsOutsideTheMapAndOncePerKey() throws Exception {
+    ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofMinutes(1), 10, clock);
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      results.add(executor.submit(() -> cache.get("a", key -> {
+        loading.countDown();
+        await(release);
+        return loads.incrementAndGet();
+      })));
+      loading.await();
+      results.add(executor.submit(() -> cache.get("a", key -> loads.incrementAndGet())));
+
+      // Other keys are not held up by the slow load
+      assertThat(cache.get("b", key -> 42), is(42));
+      release.countDown();
+      for (Future<Integer> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS), is(1));
+      }
+      assertThat(loads.get(), is(1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  static final class MutableClock extends Clock {
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,207 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.restassured.response.Response;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Drives the HSM request pipeline, from wallet-client-gateway through wallet-bff, the
+ * {@code hsm-requests} topic and hsm-worker back over {@code hsm-worker-responses-bff-*}, at
+ * increasing concurrency. A request answered directly by the gateway was served synchronously
+ * (wallet-bff {@code SERVE_SYNC} within {@code SYNC_TIMEOUT_MS}); one answered with 202 is awaited
+ * by its client id with a {@link HsmResultAwaiter}. Each concurrency level runs closed-loop for a
+ * fixed time with its own {@link LatencyReport}, so the throughput ceiling shows as the level from
+ * which more concurrency no longer gives more throughput.
+ */
+public class HsmPipelineLoadGenerator {
+
+  public static final String END_TO_END = "end-to-end";
+  public static final String SYNC = "sync";
+  public static final String ASYNC = "async";
+  public static final String RESULT_POLL = HsmResultAwaiter.RESULT_POLL;
+  public static final String TIME_TO_RESULT = HsmResultAwaiter.TIME_TO_RESULT;
+
+  /** Throughput must grow by at least this factor for a level to count as scaling. */
+  static final double SCALING_FACTOR = 1.1;
+
+  /** Creates the body of an HSM request for a signed-in device. */
+  @FunctionalInterface
+  public interface RequestFactory {
+    String create(Device device, String clientId) throws Exception;
+  }
+
+  public record Device(ECKey key, String session) {
+  }
+
+  public record Step(int concurrency, LoadDriver.Result result, LatencyReport report) {
+
+    public double throughput() {
+      return report.throughput(END_TO_END, result.elapsed());
+    }
+
+    public double syncShare() {
+      long sync = report.count(SYNC);
+      long total = sync + report.count(ASYNC);
+      return total == 0 ? 0 : (double) sync / total;
+    }
+  }
+
+  private final WalletClientGatewayClient gateway;
+  private final RequestFactory requests;
+  private final Duration minPollInterval;
+  private final Duration maxPollInterval;
+  private final Duration resultTimeout;
+
+  public HsmPipelineLoadGenerator() {
+    this(new WalletClientGatewayClient(), HsmPipelineLoadGenerator::signedRequest,
+        Duration.parse(Property.HSM_RESULT_POLL_INTERVAL.getValue()),
+        Duration.parse(Property.HSM_RESULT_MAX_POLL_INTERVAL.getValue()),
+        Duration.parse(Property.HSM_RESULT_TIMEOUT.getValue()));
+  }
+
+  public HsmPipelineLoadGenerator(WalletClientGatewayClient gateway, RequestFactory requests,
+      Duration minPollInterval, Duration maxPollInterval, Duration resultTimeout) {
+    this.gateway = gateway;
+    this.requests = requests;
+    this.minPollInterval = minPollInterval;
+    this.maxPollInterval = maxPollInterval;
+    this.resultTimeout = resultTimeout;
+  }
+
+  /** Runs every concurrency level for {@code stepDuration}, signing in all devices up front. */
+  public List<Step> run(List<Integer> concurrencyLevels, Duration stepDuration)
+      throws JOSEException {
+    int devices = concurrencyLevels.stream().mapToInt(Integer::intValue).max().orElse(0);
+    List<Device> signedIn = new ArrayList<>();
+    for (int i = 0; i < devices; i++) {
+      ECKey key = EcKeyPool.shared().take(KeyPurpose.DEVICE);
+      signedIn.add(new Device(key, gateway.createSession(key)));
+    }
+
+    List<Step> steps = new ArrayList<>();
+    try (HsmResultAwaiter awaiter =
+        new HsmResultAwaiter(gateway, minPollInterval, maxPollInterval, resultTimeout)) {
+      for (int concurrency : concurrencyLevels) {
+        LatencyReport report = new LatencyReport();
+        // Closed-loop at full speed: the rate is far above what a worker can reach
+        LoadProfile profile =
+            new LoadProfile(concurrency, Duration.ZERO, concurrency * 1000.0, stepDuration);
+        LoadDriver.Result result = LoadDriver.run(profile, (worker, iteration) -> report.time(
+            END_TO_END, () -> send(signedIn.get(worker), awaiter, report)));
+        steps.add(new Step(concurrency, result, report));
+      }
+    }
+    return steps;
+  }
+
+  /**
+   * The last step that still scaled, that is, after which throughput grew by less than
+   * {@link #SCALING_FACTOR}, or the last step if throughput kept growing.
+   */
+  public static Step ceiling(List<Step> steps) {
+    for (int i = 1; i < steps.size(); i++) {
+      if (steps.get(i).throughput() < steps.get(i - 1).throughput() * SCALING_FACTOR) {
+        return steps.get(i - 1);
+      }
+    }
+    return steps.getLast();
+  }
+
+  public static String format(List<Step> steps) {
+    StringBuilder out = new StringBuilder(String.format(
+        "%11s %8s %7s %9s %10s %10s %7s %10s %11s%n", "concurrency", "requests", "errors",
+        "per sec", "p50 ms", "p99 ms", "sync %", "async p99", "result p99"));
+    for (Step step : steps) {
+      LatencyReport report = step.report();
+      out.append(String.format("%11d %8d %7d %9.2f %10.1f %10.1f %7.1f %10.1f %11.1f%n",
+          step.concurrency(), report.count(END_TO_END), report.errors(END_TO_END),
+          step.throughput(), report.percentileMillis(END_TO_END, 50),
+          report.percentileMillis(END_TO_END, 99), step.syncShare() * 100,
+          report.percentileMillis(ASYNC, 99), report.percentileMillis(TIME_TO_RESULT, 99)));
+    }
+    return out.toString();
+  }
+
+  /** The rows of {@link #format} as tab-separated values without a header, for scripts. */
+  public static String toTsv(List<Step> steps) {
+    StringBuilder out = new StringBuilder();
+    for (Step step : steps) {
+      LatencyReport report = step.report();
+      out.append(String.format(Locale.ROOT, "%d\t%d\t%d\t%.2f\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f%n",
+          step.concurrency(), report.count(END_TO_END), report.errors(END_TO_END),
+          step.throughput(), report.percentileMillis(END_TO_END, 50),
+          report.percentileMillis(END_TO_END, 99), step.syncShare() * 100,
+          report.percentileMillis(ASYNC, 99), report.percentileMillis(TIME_TO_RESULT, 99)));
+    }
+    return out.toString();
+  }
+
+  private Object send(Device device, HsmResultAwaiter awaiter, LatencyRecorder latency)
+      throws Exception {
+    String clientId = UUID.randomUUID().toString();
+    String body = requests.create(device, clientId);
+    long start = System.nanoTime();
+
+    Response created = gateway.createHsmRequest(device.session(), body);
+    if (created.statusCode() == 200 || created.statusCode() == 201) {
+      latency.record(SYNC, System.nanoTime() - start, true);
+      return created;
+    }
+    if (created.statusCode() != 202) {
+      throw new IllegalStateException(
+          "HSM request failed with " + created.statusLine() + ": " + created.asString());
+    }
+    Response result = awaiter.await(device.session(), clientId, latency).get();
+    latency.record(ASYNC, System.nanoTime() - start, true);
+    return result;
+  }
+
+  /**
+   * A request in the shape of the gateway's HSM tests: an outer request JWS and a device state JWS
+   * with the device public key, both signed by the device key. Replace it with a factory for real
+   * HSM operations to measure the worker itself.
+   */
+  static String signedRequest(Device device, String clientId) throws JOSEException {
+    JWTClaimsSet outer = new JWTClaimsSet.Builder()
+        .claim("client_id", clientId)
+        .issueTime(new Date())
+        .build();
+    JWTClaimsSet state = new JWTClaimsSet.Builder()
+        .claim("device_key", device.key().toPublicJWK().toJSONObject())
+        .issueTime(new Date())
+        .build();
+    return """
+        {
+          "outerRequestJws": "%s",
+          "clientId": "%s",
+          "stateJws": "%s"
+        }""".formatted(sign(device.key(), outer), clientId, sign(device.key(), state));
+  }
+
+  private static String sign(ECKey key, JWTClaimsSet claims) throws JOSEException {
+    SignedJWT jws = new SignedJWT(
+        new JWSHeader.Builder(JWSAlgorithm.ES256)
+            .type(JOSEObjectType.JOSE)
+            .keyID(key.getKeyID())
+            .build(),
+        claims);
+    jws.sign(new ECDSASigner(key));
+    return jws.serialize();
+  }
+}
@@ -0,0 +1,124 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HsmPipelineLoadGeneratorTest {
+
+  private final AtomicInteger requests = new AtomicInteger();
+  private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+  private HttpServer server;
+  private WalletClientGatewayClient gateway;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", this::serve);
+    server.start();
+    gateway = new WalletClientGatewayClient(
+        URI.create("http://localhost:" + server.getAddress().getPort() + "/"));
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void separatesSyncAndAsyncResults() throws Exception {
+    HsmPipelineLoadGenerator generator = new HsmPipelineLoadGenerator(gateway,
+        (device, clientId) -> "{\"clientId\": \"" + clientId + "\"}",
+        Duration.ofMillis(5), Duration.ofMillis(50), Duration.ofSeconds(5));
+
+    List<HsmPipelineLoadGenerator.Step> steps =
+        generator.run(List.of(1, 2), Duration.ofMillis(300));
+
+    assertThat(steps.stream().map(HsmPipelineLoadGenerator.Step::concurrency).toList(),
+        contains(1, 2));
+    LatencyReport report = steps.getLast().report();
+    assertThat(report.count(HsmPipelineLoadGenerator.SYNC), greaterThan(0L));
+    assertThat(report.count(HsmPipelineLoadGenerator.ASYNC), greaterThan(0L));
+    assertThat(report.count(HsmPipelineLoadGenerator.RESULT_POLL),
+        greaterThan(report.count(HsmPipelineLoadGenerator.ASYNC)));
+    assertThat(report.errors(HsmPipelineLoadGenerator.END_TO_END), is(0L));
+  }
+
+  @Test
+  void findsLevelAfterWhichThroughputStopsGrowing() {
+    List<HsmPipelineLoadGenerator.Step> steps = List.of(
+        step(1, 100), step(2, 190), step(4, 350), step(8, 370), step(16, 360));
+
+    assertThat(HsmPipelineLoadGenerator.ceiling(steps).concurrency(), is(4));
+    assertThat(HsmPipelineLoadGenerator.ceiling(steps.subList(0, 3)).concurrency(), is(4));
+  }
+
+  @Test
+  void writesOneTabSeparatedRowPerStep() {
+    String tsv = HsmPipelineLoadGenerator.toTsv(List.of(step(1, 100), step(2, 190)));
+
+    assertThat(tsv.lines().toList(), contains(
+        "1\t100\t0\t100.00\t1.0\t1.0\t0.0\t0.0\t0.0",
+        "2\t190\t0\t190.00\t1.0\t1.0\t0.0\t0.0\t0.0"));
+  }
+
+  private static HsmPipelineLoadGenerator.Step step(int concurrency, int requests) {
+    LatencyReport report = new LatencyReport();
+    for (int i = 0; i < requests; i++) {
+      report.record(HsmPipelineLoadGenerator.END_TO_END, 1_000_000, true);
+    }
+    return new HsmPipelineLoadGenerator.Step(concurrency,
+        new LoadDriver.Result(Duration.ofSeconds(1), requests, 0, null), report);
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    exchange.getRequestBody().readAllBytes();
+    if (path.endsWith("/v0/accounts")) {
+      respond(exchange, 201, "{\"accountId\": \"account\"}");
+    } else if (path.endsWith("/session/challenge")) {
+      respond(exchange, 200, "{\"nonce\": \"nonce\"}");
+    } else if (path.endsWith("/session/response")) {
+      exchange.getResponseHeaders().add("session", "session");
+      respond(exchange, 200, "{\"sessionId\": \"session\"}");
+    } else if (path.endsWith("/hsm/v0/requests")) {
+      // Every other request misses the synchronous timeout
+      respond(exchange, requests.incrementAndGet() % 2 == 0 ? 200 : 202, "{}");
+    } else if (path.contains("/hsm/v0/requests/")) {
+      int poll = polls.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+      respond(exchange, poll < 2 ? 202 : 200, "{}");
+    } else {
+      respond(exchange, 404, "{}");
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
@@ -0,0 +1,60 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS",
+    matches = "true")
+@Isolated
+class HsmPipelineLoadTest {
+
+  @Test
+  void findsThroughputCeilingOfHsmPipeline() throws Exception {
+    List<Integer> levels = Arrays.stream(
+        Property.HSM_LOAD_CONCURRENCY_LEVELS.getValue().split(","))
+        .map(String::trim)
+        .map(Integer::valueOf)
+        .toList();
+    Duration stepDuration = Duration.parse(Property.HSM_LOAD_STEP_DURATION.getValue());
+
+    List<HsmPipelineLoadGenerator.Step> steps =
+        new HsmPipelineLoadGenerator().run(levels, stepDuration);
+
+    System.out.format("HSM pipeline, %s per concurrency level%n", stepDuration);
+    System.out.format("%s", HsmPipelineLoadGenerator.format(steps));
+    HsmPipelineLoadGenerator.Step ceiling = HsmPipelineLoadGenerator.ceiling(steps);
+    System.out.format("Throughput ceiling: %.2f requests/s at concurrency %d%n",
+        ceiling.throughput(), ceiling.concurrency());
+    steps.stream()
+        .map(step -> step.result().firstFailure())
+        .filter(failure -> failure != null)
+        .findFirst()
+        .ifPresent(failure -> failure.printStackTrace(System.out));
+
+    String results = Property.HSM_LOAD_RESULTS.getValue();
+    if (!"none".equals(results)) {
+      Path file = Path.of(results).toAbsolutePath();
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, HsmPipelineLoadGenerator.toTsv(steps), StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+    }
+
+    assertThat(steps.getFirst().report().count(HsmPipelineLoadGenerator.END_TO_END),
+        greaterThan(0L));
+  }
+}
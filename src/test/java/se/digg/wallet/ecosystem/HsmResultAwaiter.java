@@ -0,0 +1,153 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import io.restassured.response.Response;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Awaits the results of asynchronous HSM requests by polling
+ * {@link WalletClientGatewayClient#getAsyncHsmResult}. A pending request holds no thread: polls are
+ * scheduled on a single timer thread and sent from virtual threads, so thousands of requests can be
+ * awaited at once. The first poll is made after the median time to result seen so far, and each
+ * following delay doubles up to the maximum, with jitter so that requests sent together do not poll
+ * together. Times to result are kept in {@link #report()}.
+ */
+public final class HsmResultAwaiter implements AutoCloseable {
+
+  public static final String TIME_TO_RESULT = "time to result";
+  public static final String RESULT_POLL = "result poll";
+
+  /** The median is not used for the first delay until this many results have been seen. */
+  static final long MIN_OBSERVATIONS = 10;
+
+  private final LatencyReport report = new LatencyReport();
+  private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("hsm-result-awaiter").daemon().factory());
+  private final ExecutorService pollers = Executors.newVirtualThreadPerTaskExecutor();
+  private final WalletClientGatewayClient gateway;
+  private final long minDelay;
+  private final long maxDelay;
+  private final long timeout;
+
+  public HsmResultAwaiter(WalletClientGatewayClient gateway, Duration minDelay, Duration maxDelay,
+      Duration timeout) {
+    if (minDelay.isNegative() || minDelay.isZero() || maxDelay.compareTo(minDelay) < 0) {
+      throw new IllegalArgumentException(
+          "Delays must be positive and the maximum at least the minimum");
+    }
+    this.gateway = gateway;
+    this.minDelay = minDelay.toNanos();
+    this.maxDelay = maxDelay.toNanos();
+    this.timeout = timeout.toNanos();
+  }
+
+  public CompletableFuture<Response> await(String session, String id) {
+    return await(session, id, LatencyRecorder.NONE);
+  }
+
+  /**
+   * Returns a future that completes with the result, or fails with a {@link TimeoutException} after
+   * the timeout, or with an {@link IllegalStateException} if the gateway answers neither 200 nor
+   * 202. Every poll and the time to result are also recorded in {@code latency}.
+   */
+  public CompletableFuture<Response> await(String session, String id, LatencyRecorder latency) {
+    Pending pending = new Pending(session, id, latency, System.nanoTime());
+    schedule(pending, initialDelayNanos());
+    return pending.result;
+  }
+
+  /** Times to result and poll latencies of all requests awaited so far. */
+  public LatencyReport report() {
+    return report;
+  }
+
+  @Override
+  public void close() {
+    timer.shutdownNow();
+    pollers.shutdownNow();
+  }
+
+  long initialDelayNanos() {
+    if (report.count(TIME_TO_RESULT) < MIN_OBSERVATIONS) {
+      return minDelay;
+    }
+    long median = Math.round(report.percentileMillis(TIME_TO_RESULT, 50) * 1_000_000);
+    return Math.clamp(median, minDelay, maxDelay);
+  }
+
+  /** Twice the previous delay, capped at the maximum, with "equal jitter" in its upper half. */
+  long nextDelayNanos(long previous) {
+    long doubled = Math.min(maxDelay, Math.max(minDelay, previous) * 2);
+    return doubled / 2 + ThreadLocalRandom.current().nextLong(doubled / 2 + 1);
+  }
+
+  private void schedule(Pending pending, long delay) {
+    pending.delay = delay;
+    timer.schedule(() -> pollers.execute(() -> poll(pending)), delay, TimeUnit.NANOSECONDS);
+  }
+
+  private void poll(Pending pending) {
+    long pollStart = System.nanoTime();
+    try {
+      Response response = gateway.getAsyncHsmResult(pending.session, pending.id);
+      long now = System.nanoTime();
+      record(pending, RESULT_POLL, now - pollStart, true);
+
+      if (response.statusCode() == 200) {
+        record(pending, TIME_TO_RESULT, now - pending.start, true);
+        pending.result.complete(response);
+      } else if (response.statusCode() != 202) {
+        fail(pending, new IllegalStateException(
+            "HSM result " + pending.id + " failed with " + response.statusLine()));
+      } else {
+        long next = nextDelayNanos(pending.delay);
+        if (now + next - pending.start > timeout) {
+          fail(pending, new TimeoutException("No HSM result for " + pending.id + " after "
+              + Duration.ofNanos(timeout)));
+        } else {
+          schedule(pending, next);
+        }
+      }
+    } catch (Exception e) {
+      // Includes connection failures, which RestAssured throws unchecked
+      record(pending, RESULT_POLL, System.nanoTime() - pollStart, false);
+      fail(pending, e);
+    }
+  }
+
+  private void fail(Pending pending, Exception cause) {
+    record(pending, TIME_TO_RESULT, System.nanoTime() - pending.start, false);
+    pending.result.completeExceptionally(cause);
+  }
+
+  private void record(Pending pending, String stage, long nanos, boolean success) {
+    report.record(stage, nanos, success);
+    pending.latency.record(stage, nanos, success);
+  }
+
+  private static final class Pending {
+    private final String session;
+    private final String id;
+    private final LatencyRecorder latency;
+    private final long start;
+    private final CompletableFuture<Response> result = new CompletableFuture<>();
+    private volatile long delay;
+
+    Pending(String session, String id, LatencyRecorder latency, long start) {
+      this.session = session;
+      this.id = id;
+      this.latency = latency;
+      this.start = start;
+    }
+  }
+}
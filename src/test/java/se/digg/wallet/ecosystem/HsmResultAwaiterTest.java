@@ -0,0 +1,154 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HsmResultAwaiterTest {
+
+  private static final long MILLIS = 1_000_000;
+
+  private final Map<String, Long> firstPolls = new ConcurrentHashMap<>();
+  private volatile long readyAfterNanos = 100 * MILLIS;
+  private volatile int pendingStatus = 202;
+  private HttpServer server;
+  private WalletClientGatewayClient gateway;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", this::serve);
+    server.start();
+    gateway = new WalletClientGatewayClient(
+        URI.create("http://localhost:" + server.getAddress().getPort() + "/"));
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void awaitsManyRequestsFromOneTimerThread() {
+    try (HsmResultAwaiter awaiter = awaiter(Duration.ofMillis(5), Duration.ofMillis(100))) {
+      List<CompletableFuture<Response>> results = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        results.add(awaiter.await("session", "client-" + i));
+      }
+
+      CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+      assertThat(results.stream().allMatch(r -> r.join().statusCode() == 200), is(true));
+      LatencyReport report = awaiter.report();
+      assertThat(report.count(HsmResultAwaiter.TIME_TO_RESULT), is(200L));
+      assertThat(report.percentileMillis(HsmResultAwaiter.TIME_TO_RESULT, 50),
+          greaterThanOrEqualTo(100.0));
+      // Backing off keeps the polls per result at half of the 21 that polling every 5 ms would need
+      assertThat(report.count(HsmResultAwaiter.RESULT_POLL), lessThan(200L * 10));
+    }
+  }
+
+  @Test
+  void seedsFirstDelayWithObservedMedian() {
+    try (HsmResultAwaiter awaiter = awaiter(Duration.ofMillis(5), Duration.ofMillis(500))) {
+      assertThat(awaiter.initialDelayNanos(), is(5 * MILLIS));
+
+      for (int i = 0; i < HsmResultAwaiter.MIN_OBSERVATIONS; i++) {
+        awaiter.report().record(HsmResultAwaiter.TIME_TO_RESULT, 200 * MILLIS, true);
+      }
+      assertThat((double) awaiter.initialDelayNanos(), closeTo(200.0 * MILLIS, 2.0 * MILLIS));
+
+      for (int i = 0; i < 100; i++) {
+        awaiter.report().record(HsmResultAwaiter.TIME_TO_RESULT, 5_000 * MILLIS, true);
+      }
+      assertThat(awaiter.initialDelayNanos(), is(500 * MILLIS));
+    }
+  }
+
+  @Test
+  void backsOffWithJitterUpToMaximum() {
+    try (HsmResultAwaiter awaiter = awaiter(Duration.ofMillis(10), Duration.ofMillis(100))) {
+      for (int i = 0; i < 1000; i++) {
+        assertThat(awaiter.nextDelayNanos(10 * MILLIS),
+            allOf(greaterThanOrEqualTo(10 * MILLIS), lessThanOrEqualTo(20 * MILLIS)));
+        assertThat(awaiter.nextDelayNanos(80 * MILLIS),
+            allOf(greaterThanOrEqualTo(50 * MILLIS), lessThanOrEqualTo(100 * MILLIS)));
+      }
+    }
+  }
+
+  @Test
+  void failsWhenResultIsNotReadyInTime() {
+    readyAfterNanos = Long.MAX_VALUE;
+    try (HsmResultAwaiter awaiter = new HsmResultAwaiter(gateway, Duration.ofMillis(5),
+        Duration.ofMillis(20), Duration.ofMillis(100))) {
+      ExecutionException e = assertThrows(ExecutionException.class,
+          () -> awaiter.await("session", "client").get());
+
+      assertThat(e.getCause(), instanceOf(TimeoutException.class));
+      assertThat(awaiter.report().errors(HsmResultAwaiter.TIME_TO_RESULT), is(1L));
+    }
+  }
+
+  @Test
+  void failsWhenGatewayAnswersError() {
+    pendingStatus = 500;
+    try (HsmResultAwaiter awaiter = awaiter(Duration.ofMillis(5), Duration.ofMillis(20))) {
+      ExecutionException e = assertThrows(ExecutionException.class,
+          () -> awaiter.await("session", "client").get());
+
+      assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+    }
+  }
+
+  private HsmResultAwaiter awaiter(Duration minDelay, Duration maxDelay) {
+    return new HsmResultAwaiter(gateway, minDelay, maxDelay, Duration.ofSeconds(60));
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    exchange.getRequestBody().readAllBytes();
+    long first = firstPolls.computeIfAbsent(path, p -> System.nanoTime());
+    boolean ready = System.nanoTime() - first >= readyAfterNanos;
+    respond(exchange, ready ? 200 : pendingStatus, "{}");
+  }
+
+  private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
@@ -6,25 +6,34 @@ package se.digg.wallet.ecosystem;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JOSEObjectType;
-import com.nimbusds.jose.JWEAlgorithm;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.crypto.ECDSASigner;
-import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class IssuanceAgent {
 
   private static final String DEFAULT_WUA_KEY_ID = "0";
 
+  /**
+   * The credentials of one credential response and its {@code notification_id}, which pid-issuer
+   * also stores with each issued credential. It is null when the issuer sends none.
+   */
+  public record Issuance(List<String> credentials, String notificationId) {
+  }
+
   static IssuanceAgent untrusted() {
     return new IssuanceAgent(
         new InternalWalletClient(
@@ -39,6 +48,9 @@ public class IssuanceAgent {
   private final KeycloakClient keycloak;
   private final PidIssuerClient pidIssuer;
   private final String audience;
+  private final LatencyRecorder latency;
+  // One DPoP key per user when access tokens are cached, or null to use the first binding key
+  private final Map<String, ECKey> dpopKeys;
 
   public IssuanceAgent() {
     this(new InternalWalletClient(new WalletProviderClient()));
@@ -55,44 +67,108 @@ public class IssuanceAgent {
       PidIssuerClient pidIssuer,
       String audience) {
 
+    this(wallet, keycloak, pidIssuer, audience, LatencyRecorder.NONE, null);
+  }
+
+  private IssuanceAgent(
+      WalletClient wallet,
+      KeycloakClient keycloak,
+      PidIssuerClient pidIssuer,
+      String audience,
+      LatencyRecorder latency,
+      Map<String, ECKey> dpopKeys) {
+
     this.wallet = wallet;
     this.keycloak = keycloak;
     this.pidIssuer = pidIssuer;
     this.audience = audience;
+    this.latency = latency;
+    this.dpopKeys = dpopKeys;
+  }
+
+  public IssuanceAgent withLatencyRecorder(LatencyRecorder latency) {
+    return new IssuanceAgent(wallet, keycloak, pidIssuer, audience, latency, dpopKeys);
+  }
+
+  /**
+   * Returns an agent that keeps one DPoP key per user and reuses the user's access token between
+   * issuances through {@link KeycloakClient#getCachedDpopAccessToken}, as a wallet would. Without
+   * it every issuance fetches a new token bound to the first binding key.
+   */
+  public IssuanceAgent withCachedTokens() {
+    return new IssuanceAgent(wallet, keycloak, pidIssuer, audience, latency,
+        new ConcurrentHashMap<>());
   }
 
   public String issuePidCredential(ECKey bindingKey, String username, String password)
       throws Exception {
-    ECKey encryptionKey =
-        new ECKeyGenerator(Curve.P_256)
-            .algorithm(JWEAlgorithm.ECDH_ES)
-            .keyUse(KeyUse.ENCRYPTION)
-            .generate();
-
-    String accessToken =
-        keycloak.getDpopAccessToken(
-            "pid-issuer-realm",
-            bindingKey,
-            Map.of(
-                "grant_type", "password",
-                "client_id", "wallet-dev",
-                "username", username,
-                "password", password,
-                "scope", "openid eu.europa.ec.eudi.pid_vc_sd_jwt",
-                "role", "user"));
-
-    String nonce = pidIssuer.getNonce(accessToken, bindingKey);
-    String walletAttestation = wallet.createWalletUnitAttestation(bindingKey, nonce);
-    String proof = createProof(bindingKey, walletAttestation, nonce);
-    ECKey pidIssuerCredentialRequestEncryptionKey = pidIssuer.getCredentialRequestEncryptionKey();
-    Map<String, Object> payloadJson =
-        pidIssuer
-            .issueCredentials(
-                accessToken, bindingKey, encryptionKey, proof,
-                pidIssuerCredentialRequestEncryptionKey)
-            .toJSONObject();
-
-    return extractSdJwtVc(payloadJson);
+    return issuePidCredentials(List.of(bindingKey), username, password).getFirst();
+  }
+
+  public List<String> issuePidCredentials(
+      List<ECKey> bindingKeys, String username, String password) throws Exception {
+    return issue(bindingKeys, username, password).credentials();
+  }
+
+  /**
+   * Issues one PID per binding key in a single credential request. The wallet unit attestations and
+   * proofs for the keys are created in parallel, and the first key is used for DPoP unless the
+   * agent {@linkplain #withCachedTokens caches tokens}.
+   */
+  public Issuance issue(List<ECKey> bindingKeys, String username, String password)
+      throws Exception {
+    if (bindingKeys.isEmpty()) {
+      throw new IllegalArgumentException("At least one binding key is required");
+    }
+    ECKey dpopKey = dpopKeys == null
+        ? bindingKeys.getFirst()
+        : dpopKeys.computeIfAbsent(username, u -> EcKeyPool.shared().take(KeyPurpose.BINDING));
+    ECKey encryptionKey = EcKeyPool.shared().take(KeyPurpose.ENCRYPTION);
+
+    Map<String, String> parameters = Map.of(
+        "grant_type", "password",
+        "client_id", "wallet-dev",
+        "username", username,
+        "password", password,
+        "scope", "openid eu.europa.ec.eudi.pid_vc_sd_jwt",
+        "role", "user");
+    String accessToken = latency.time("token", () -> dpopKeys == null
+        ? keycloak.getDpopAccessToken("pid-issuer-realm", dpopKey, parameters)
+        : keycloak.getCachedDpopAccessToken("pid-issuer-realm", dpopKey, parameters));
+
+    String nonce = latency.time("nonce", () -> pidIssuer.getNonce(accessToken, dpopKey));
+    List<String> proofs = createProofs(bindingKeys, nonce);
+    ECKey pidIssuerCredentialRequestEncryptionKey =
+        latency.time("credential request encryption key",
+            pidIssuer::getCredentialRequestEncryptionKey);
+    Map<String, Object> payloadJson = latency.time("credential", () -> pidIssuer
+        .issueCredentials(
+            accessToken, dpopKey, encryptionKey, proofs,
+            pidIssuerCredentialRequestEncryptionKey)
+        .toJSONObject());
+
+    return new Issuance(
+        extractSdJwtVcs(payloadJson), (String) payloadJson.get("notification_id"));
+  }
+
+  private List<String> createProofs(List<ECKey> bindingKeys, String nonce) throws Exception {
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<String>> proofs = new ArrayList<>();
+      for (ECKey bindingKey : bindingKeys) {
+        proofs.add(executor.submit(() -> createProof(bindingKey,
+            latency.time("wua", () -> wallet.createWalletUnitAttestation(bindingKey, nonce)),
+            nonce)));
+      }
+      List<String> result = new ArrayList<>();
+      for (Future<String> proof : proofs) {
+        try {
+          result.add(proof.get());
+        } catch (ExecutionException e) {
+          throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+      }
+      return result;
+    }
   }
 
   private String createProof(ECKey jwk, String wua, String nonce) throws JOSEException {
@@ -116,10 +192,10 @@ public class IssuanceAgent {
     return jwt.serialize();
   }
 
-  private String extractSdJwtVc(Map<String, Object> payloadJson) {
+  private List<String> extractSdJwtVcs(Map<String, Object> payloadJson) {
     var credentials = (List<?>) payloadJson.get("credentials");
-    Object firstCredential = credentials.getFirst();
-    Map<String, Object> credentialMap = (Map<String, Object>) firstCredential;
-    return (String) credentialMap.get("credential");
+    return credentials.stream()
+        .map(credential -> (String) ((Map<?, ?>) credential).get("credential"))
+        .toList();
   }
 }
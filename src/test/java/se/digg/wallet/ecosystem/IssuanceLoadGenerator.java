@@ -0,0 +1,44 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.jwk.ECKey;
+import java.util.List;
+
+/**
+ * Drives the full Keycloak, nonce, WUA and credential flow of {@link IssuanceAgent} from many
+ * concurrent issuers and records the latency of every step as well as of the whole issuance.
+ */
+public class IssuanceLoadGenerator {
+
+  public static final String ISSUANCE = "issuance";
+
+  static final List<String> FICTIVE_USERS = List.of(
+      "tneal", "snilsson", "aberglund", "asupremo", "apersson", "ccarlgren",
+      "fstrom", "knyberg", "leriksson", "saruba", "syestrom", "tmalinovski");
+
+  private final IssuanceAgent agent;
+
+  public IssuanceLoadGenerator() {
+    this(new IssuanceAgent().withCachedTokens());
+  }
+
+  public IssuanceLoadGenerator(IssuanceAgent agent) {
+    this.agent = agent;
+  }
+
+  public LoadDriver.Result run(LoadProfile profile, LatencyReport report) {
+    IssuanceAgent instrumented = agent.withLatencyRecorder(report);
+
+    return LoadDriver.run(profile, (worker, iteration) -> {
+      String username = FICTIVE_USERS.get(
+          (int) ((worker + iteration) % FICTIVE_USERS.size()));
+      ECKey bindingKey = EcKeyPool.shared().take(KeyPurpose.BINDING);
+
+      report.time(ISSUANCE,
+          () -> instrumented.issuePidCredential(bindingKey, username, "password"));
+    });
+  }
+}
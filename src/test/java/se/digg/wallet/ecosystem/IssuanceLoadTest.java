@@ -0,0 +1,38 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS",
+    matches = "true")
+@Isolated
+class IssuanceLoadTest {
+
+  @Test
+  void sustainsPidIssuance() {
+    LoadProfile profile = LoadProfile.fromEnvironment();
+    LatencyReport report = new LatencyReport();
+
+    LoadDriver.Result result = new IssuanceLoadGenerator().run(profile, report);
+
+    System.out.format("PID issuance with %s%n", profile);
+    System.out.format("%s", report.format(result.elapsed()));
+    System.out.format("Throughput: %.2f issuances/s over %s (%d of %d failed)%n",
+        report.throughput(IssuanceLoadGenerator.ISSUANCE, result.elapsed()),
+        result.elapsed(), result.failures(), result.iterations());
+    if (result.firstFailure() != null) {
+      result.firstFailure().printStackTrace(System.out);
+    }
+
+    assertThat(report.count(IssuanceLoadGenerator.ISSUANCE), greaterThan(0L));
+  }
+}
@@ -0,0 +1,159 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures how PID issuance and the {@code issued_credential} table behind it behave as the table
+ * grows. For each row count the table is first topped up with synthetic rows generated by the
+ * database, since reaching tens of millions through the issuer would take days, and then real
+ * issuances run through {@link IssuanceAgent} for a load profile. Table and index size and
+ * autovacuum activity are read from {@code pg_stat_user_tables} before and after each window.
+ */
+public class IssuedCredentialGrowthBenchmark {
+
+  /** The credential request, which is where pid-issuer inserts the rows. */
+  public static final String CREDENTIAL = "credential";
+
+  /** The table being grown, normally {@code issued_credential} through {@link DbInspector}. */
+  public interface Table {
+    long rows() throws SQLException;
+
+    void grow(long rows) throws SQLException;
+
+    DbInspector.TableStats stats() throws SQLException;
+  }
+
+  /** Runs issuances, normally {@link IssuanceLoadGenerator#run}. */
+  @FunctionalInterface
+  public interface Issuer {
+    LoadDriver.Result run(LoadProfile profile, LatencyReport report);
+  }
+
+  /**
+   * One row count: how long it took to seed up to it, the issuances that followed and the table
+   * figures around them.
+   */
+  public record Step(long rows, long seeded, Duration seeding, LoadDriver.Result load,
+      LatencyReport report, DbInspector.TableStats before, DbInspector.TableStats after) {
+
+    public double seedRowsPerSecond() {
+      return seeded == 0 ? 0 : seeded / (seeding.toNanos() / 1e9);
+    }
+
+    /** Index size per live row after the step, which grows with bloat. */
+    public double indexBytesPerRow() {
+      return after.liveRows() == 0 ? 0 : (double) after.indexBytes() / after.liveRows();
+    }
+
+    public long autovacuums() {
+      return after.autovacuums() - before.autovacuums();
+    }
+
+    public long autoanalyzes() {
+      return after.autoanalyzes() - before.autoanalyzes();
+    }
+  }
+
+  private final Table table;
+  private final Issuer issuer;
+
+  public IssuedCredentialGrowthBenchmark() {
+    this(issuedCredentials(DbInspector.pidIssuer()), new IssuanceLoadGenerator()::run);
+  }
+
+  public IssuedCredentialGrowthBenchmark(Table table, Issuer issuer) {
+    this.table = table;
+    this.issuer = issuer;
+  }
+
+  public static Table issuedCredentials(DbInspector db) {
+    return new Table() {
+      @Override
+      public long rows() throws SQLException {
+        return db.countIssuedCredentials();
+      }
+
+      @Override
+      public void grow(long rows) throws SQLException {
+        db.seedIssuedCredentials(rows);
+      }
+
+      @Override
+      public DbInspector.TableStats stats() throws SQLException {
+        return db.tableStats("issued_credential");
+      }
+    };
+  }
+
+  /** Runs {@link #step} for each row count in turn. */
+  public List<Step> run(List<Long> rowCounts, LoadProfile profile) throws SQLException {
+    List<Step> steps = new ArrayList<>();
+    for (long rows : rowCounts) {
+      steps.add(step(rows, profile));
+    }
+    return steps;
+  }
+
+  /**
+   * Tops the table up to {@code rows}, unless it already has that many, and issues according to
+   * {@code profile}.
+   */
+  public Step step(long rows, LoadProfile profile) throws SQLException {
+    long existing = table.rows();
+    long missing = Math.max(0, rows - existing);
+    long seedStart = System.nanoTime();
+    if (missing > 0) {
+      table.grow(missing);
+    }
+    Duration seeding = Duration.ofNanos(System.nanoTime() - seedStart);
+
+    DbInspector.TableStats before = table.stats();
+    LatencyReport report = new LatencyReport();
+    LoadDriver.Result load = issuer.run(profile, report);
+    DbInspector.TableStats after = table.stats();
+    return new Step(Math.max(rows, existing), missing, seeding, load, report, before, after);
+  }
+
+  public static String format(List<Step> steps) {
+    StringBuilder out = new StringBuilder(String.format(
+        "%11s %9s %7s %6s %8s %8s %8s %9s %9s %9s %10s %7s %7s%n", "rows", "seed/s", "issued",
+        "failed", "p50 ms", "p99 ms", "cred p99", "table MB", "index MB", "idx B/row", "dead",
+        "autovac", "analyze"));
+    for (Step step : steps) {
+      LatencyReport report = step.report();
+      out.append(String.format(
+          "%11d %9.0f %7d %6d %8.1f %8.1f %8.1f %9.1f %9.1f %9.1f %10d %7d %7d%n", step.rows(),
+          step.seedRowsPerSecond(), report.count(IssuanceLoadGenerator.ISSUANCE),
+          step.load().failures(), report.percentileMillis(IssuanceLoadGenerator.ISSUANCE, 50),
+          report.percentileMillis(IssuanceLoadGenerator.ISSUANCE, 99),
+          report.percentileMillis(CREDENTIAL, 99), step.after().tableBytes() / 1e6,
+          step.after().indexBytes() / 1e6, step.indexBytesPerRow(), step.after().deadRows(),
+          step.autovacuums(), step.autoanalyzes()));
+    }
+    return out.toString();
+  }
+
+  public static String toTsv(List<Step> steps) {
+    StringBuilder out = new StringBuilder();
+    for (Step step : steps) {
+      LatencyReport report = step.report();
+      out.append(String.format(Locale.ROOT,
+          "%d\t%.0f\t%d\t%d\t%.1f\t%.1f\t%.1f\t%d\t%d\t%d\t%d\t%d%n", step.rows(),
+          step.seedRowsPerSecond(), report.count(IssuanceLoadGenerator.ISSUANCE),
+          step.load().failures(), report.percentileMillis(IssuanceLoadGenerator.ISSUANCE, 50),
+          report.percentileMillis(IssuanceLoadGenerator.ISSUANCE, 99),
+          report.percentileMillis(CREDENTIAL, 99), step.after().tableBytes(),
+          step.after().indexBytes(), step.after().deadRows(), step.autovacuums(),
+          step.autoanalyzes()));
+    }
+    return out.toString();
+  }
+}
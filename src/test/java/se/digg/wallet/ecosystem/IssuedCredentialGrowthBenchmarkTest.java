@@ -0,0 +1,84 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class IssuedCredentialGrowthBenchmarkTest {
+
+  private static final LoadProfile PROFILE =
+      new LoadProfile(1, Duration.ZERO, 1, Duration.ofSeconds(1));
+
+  /** A table of 100 bytes and 40 index bytes per row, vacuumed once per 1000 inserts. */
+  private static final class FakeTable implements IssuedCredentialGrowthBenchmark.Table {
+    private final List<Long> grown = new ArrayList<>();
+    private long rows;
+
+    @Override
+    public long rows() {
+      return rows;
+    }
+
+    @Override
+    public void grow(long added) {
+      grown.add(added);
+      rows += added;
+    }
+
+    @Override
+    public DbInspector.TableStats stats() {
+      return new DbInspector.TableStats(rows, 0, rows * 100, rows * 40, rows % 1000,
+          rows / 1000, rows / 500);
+    }
+  }
+
+  @Test
+  void seedsOnlyTheMissingRowsBeforeIssuing() throws Exception {
+    FakeTable table = new FakeTable();
+    IssuedCredentialGrowthBenchmark benchmark =
+        new IssuedCredentialGrowthBenchmark(table, (profile, report) -> {
+          for (int i = 1; i <= 10; i++) {
+            report.record(IssuanceLoadGenerator.ISSUANCE, i * 1_000_000L, true);
+          }
+          table.rows += 1000;
+          return new LoadDriver.Result(Duration.ofSeconds(1), 10, 0, null);
+        });
+
+    List<IssuedCredentialGrowthBenchmark.Step> steps =
+        benchmark.run(List.of(5000L, 2000L, 10_000L), PROFILE);
+
+    assertThat(table.grown, is(List.of(5000L, 3000L)));
+    assertThat(steps.stream().map(IssuedCredentialGrowthBenchmark.Step::rows).toList(),
+        is(List.of(5000L, 6000L, 10_000L)));
+    assertThat(steps.get(1).seeded(), is(0L));
+    assertThat(steps.get(0).autovacuums(), is(1L));
+    assertThat(steps.get(0).autoanalyzes(), is(2L));
+    assertThat(steps.get(0).indexBytesPerRow(), is(40.0));
+    assertThat(steps.get(2).report().percentileMillis(IssuanceLoadGenerator.ISSUANCE, 99),
+        closeTo(10.0, 0.1));
+  }
+
+  @Test
+  void writesOneTabSeparatedRowPerStep() throws Exception {
+    FakeTable table = new FakeTable();
+    IssuedCredentialGrowthBenchmark benchmark = new IssuedCredentialGrowthBenchmark(table,
+        (profile, report) -> new LoadDriver.Result(Duration.ofSeconds(1), 0, 0, null));
+
+    String tsv = IssuedCredentialGrowthBenchmark.toTsv(
+        benchmark.run(List.of(1000L, 3000L), PROFILE));
+
+    String[] lines = tsv.split("\n");
+    assertThat(lines.length, is(2));
+    assertThat(lines[1].split("\t").length, is(12));
+    assertThat(lines[1].split("\t")[0], is("3000"));
+  }
+}
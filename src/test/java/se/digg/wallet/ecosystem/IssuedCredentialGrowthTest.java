@@ -0,0 +1,56 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS",
+    matches = "true")
+@Isolated
+class IssuedCredentialGrowthTest {
+
+  @Test
+  void measuresIssuanceAsIssuedCredentialTableGrows() throws Exception {
+    List<Long> rowCounts = Arrays.stream(
+        Property.ISSUED_CREDENTIAL_GROWTH_STEPS.getValue().split(","))
+        .map(String::trim)
+        .map(Long::valueOf)
+        .toList();
+    LoadProfile profile = LoadProfile.fromEnvironment();
+    IssuedCredentialGrowthBenchmark benchmark = new IssuedCredentialGrowthBenchmark();
+
+    long issued = 0;
+    for (long rows : rowCounts) {
+      IssuedCredentialGrowthBenchmark.Step step = benchmark.step(rows, profile);
+      issued += step.report().count(IssuanceLoadGenerator.ISSUANCE);
+      System.out.format("issued_credential growth with %s%n%s", profile,
+          IssuedCredentialGrowthBenchmark.format(List.of(step)));
+      if (step.load().firstFailure() != null) {
+        step.load().firstFailure().printStackTrace(System.out);
+      }
+
+      String results = Property.ISSUED_CREDENTIAL_GROWTH_RESULTS.getValue();
+      if (!"none".equals(results)) {
+        Path file = Path.of(results).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, IssuedCredentialGrowthBenchmark.toTsv(List.of(step)),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      }
+    }
+
+    assertThat(issued, greaterThan(0L));
+  }
+}
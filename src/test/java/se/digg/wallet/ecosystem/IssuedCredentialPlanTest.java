@@ -0,0 +1,52 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS",
+    matches = "true")
+@Isolated
+class IssuedCredentialPlanTest {
+
+  @Test
+  void correlationLookupsUseIndexesOnLargeTable() throws Exception {
+    DbInspector db = DbInspector.pidIssuer();
+    long target = Long.parseLong(Property.ISSUED_CREDENTIAL_SEED_ROWS.getValue());
+    long seeded = db.countSeededIssuedCredentials();
+    if (seeded < target) {
+      System.out.format("Seeding %d issued credentials%n", target - seeded);
+      db.seedIssuedCredentials(target - seeded);
+    }
+    for (DbInspector.TableSize table : db.tableSizes()) {
+      System.out.format("  %-30s %12d rows %10.1f MB%n", table.name(), table.liveRows(),
+          table.totalBytes() / 1e6);
+    }
+
+    List<DbInspector.Plan> plans = db.explainHotQueries();
+    for (DbInspector.Plan plan : plans) {
+      System.out.format("%s%n", plan.format());
+    }
+    System.out.format("%-26s %12s  %s%n", "query", "exec ms", "sequential scans");
+    for (DbInspector.Plan plan : plans) {
+      System.out.format("%-26s %12.3f  %s%n", plan.name(), plan.executionMillis(),
+          plan.sequentialScans());
+    }
+
+    for (DbInspector.Plan plan : plans) {
+      if (plan.name().equals(DbInspector.BY_NOTIFICATION_ID)
+          || plan.name().equals(DbInspector.BY_CREDENTIAL_IDENTIFIER)) {
+        assertThat(plan.name(), plan.sequentialScans(), empty());
+      }
+    }
+  }
+}
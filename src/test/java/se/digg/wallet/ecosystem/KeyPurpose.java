@@ -0,0 +1,40 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.Algorithm;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.KeyUse;
+import java.util.UUID;
+
+/** What a P-256 key from the {@link EcKeyPool} is used for, and the JWK attributes that implies. */
+public enum KeyPurpose {
+  /** Holder key that credentials are bound to and that signs DPoP proofs and presentations. */
+  BINDING("", JWSAlgorithm.ES256, KeyUse.SIGNATURE),
+  /** Key identifying a wallet instance towards the wallet client gateway. */
+  DEVICE("device-key-", Algorithm.NONE, KeyUse.SIGNATURE),
+  /** Key that an issuer encrypts its credential response to. Has no key id. */
+  ENCRYPTION(null, JWEAlgorithm.ECDH_ES, KeyUse.ENCRYPTION);
+
+  private final String keyIdPrefix;
+  private final Algorithm algorithm;
+  private final KeyUse keyUse;
+
+  KeyPurpose(String keyIdPrefix, Algorithm algorithm, KeyUse keyUse) {
+    this.keyIdPrefix = keyIdPrefix;
+    this.algorithm = algorithm;
+    this.keyUse = keyUse;
+  }
+
+  ECKey apply(ECKey key) {
+    return new ECKey.Builder(key)
+        .keyID(keyIdPrefix == null ? null : keyIdPrefix + UUID.randomUUID())
+        .algorithm(algorithm)
+        .keyUse(keyUse)
+        .build();
+  }
+}
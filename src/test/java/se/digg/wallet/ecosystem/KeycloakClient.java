@@ -17,13 +17,19 @@ import java.util.Map;
 public class KeycloakClient {
 
   private final URI base;
+  private final DpopTokenManager tokens;
 
   public KeycloakClient() {
     this(ServiceIdentifier.KEYCLOAK.getResourceRoot());
   }
 
   public KeycloakClient(URI base) {
+    this(base, DpopTokenManager.SHARED);
+  }
+
+  public KeycloakClient(URI base, DpopTokenManager tokens) {
     this.base = base;
+    this.tokens = tokens;
   }
 
   public Response tryGetOauthAuthorizationServerMetadata(
@@ -37,15 +43,10 @@ public class KeycloakClient {
   public String getDpopAccessToken(
       String realm, ECKey key, Map<String, String> parameters) throws JOSEException {
 
-    URI tokenEndpoint = base.resolve("realms/" + realm + "/protocol/openid-connect/token");
-    String dpopProof = DpopUtil.createDpopProof(key, tokenEndpoint.toString(), "POST");
+    String dpopProof =
+        DpopProofFactory.forKey(key).createProof(tokenEndpoint(realm).toString(), "POST");
 
-    return given()
-        .when()
-        .contentType(ContentType.URLENC)
-        .header("DPoP", dpopProof)
-        .formParams(parameters)
-        .post(tokenEndpoint)
+    return tryGetDpopAccessToken(realm, dpopProof, parameters)
         .then()
         .assertThat()
         .statusCode(200)
@@ -56,14 +57,31 @@ public class KeycloakClient {
         .path("access_token");
   }
 
-  public String getAccessToken(String realm, Map<String, String> parameters) {
-    URI tokenEndpoint = base.resolve("realms/" + realm + "/protocol/openid-connect/token");
+  /**
+   * Like {@link #getDpopAccessToken}, but reuses and refreshes tokens through the
+   * {@link DpopTokenManager} of this client.
+   */
+  public String getCachedDpopAccessToken(
+      String realm, ECKey key, Map<String, String> parameters) throws JOSEException {
+    return tokens.getAccessToken(this, realm, key, parameters);
+  }
 
+  public Response tryGetDpopAccessToken(
+      String realm, String dpopProof, Map<String, String> parameters) {
+    return given()
+        .when()
+        .contentType(ContentType.URLENC)
+        .header("DPoP", dpopProof)
+        .formParams(parameters)
+        .post(tokenEndpoint(realm));
+  }
+
+  public String getAccessToken(String realm, Map<String, String> parameters) {
     return given()
         .when()
         .contentType(ContentType.URLENC)
         .formParams(parameters)
-        .post(tokenEndpoint)
+        .post(tokenEndpoint(realm))
         .then()
         .assertThat()
         .statusCode(200)
@@ -104,4 +122,8 @@ public class KeycloakClient {
   public Response tryGetAdminRoot() {
     return given().when().get(base.resolve("admin/"));
   }
+
+  URI tokenEndpoint(String realm) {
+    return base.resolve("realms/" + realm + "/protocol/openid-connect/token");
+  }
 }
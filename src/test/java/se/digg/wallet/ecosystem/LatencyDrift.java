@@ -0,0 +1,97 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Compares two {@link LatencyReport}s, typically the first and last window of a soak run, and finds
+ * the stages whose p99 latency or error rate got significantly worse. The p99 has drifted when
+ * significantly more than 1% of the later samples are slower than the earlier p99, and the error
+ * rate when a two-proportion z-test says the later rate is higher. Both tests are one-sided and use
+ * {@value #Z_THRESHOLD} standard deviations, so a long run with many stages rarely raises a false
+ * alarm. The lowest heap use of a service has drifted when it grew by more than
+ * {@value #MAX_HEAP_GROWTH} of the earlier one.
+ */
+public final class LatencyDrift {
+  private LatencyDrift() {}
+
+  public static final double Z_THRESHOLD = 3.0;
+
+  /** The relative growth of the lowest heap use that is still taken for noise. */
+  public static final double MAX_HEAP_GROWTH = 0.2;
+
+  /** Fewer successful samples than this in either report say too little about the p99. */
+  static final long MIN_SAMPLES = 100;
+
+  /** A stage that got worse; {@code z} is NaN when no statistical test was used. */
+  public record Finding(String stage, String metric, double first, double last, double z) {
+
+    @Override
+    public String toString() {
+      String finding = String.format("%s: %s went from %.2f to %.2f", stage, metric, first, last);
+      return Double.isNaN(z) ? finding : finding + String.format(" (z = %.1f)", z);
+    }
+  }
+
+  public static List<Finding> compare(LatencyReport first, LatencyReport last) {
+    List<Finding> findings = new ArrayList<>();
+    for (String stage : last.stages()) {
+      if (!first.stages().contains(stage)) {
+        continue;
+      }
+      double p99 = p99Shift(first.copyOf(stage), last.copyOf(stage));
+      if (p99 > Z_THRESHOLD) {
+        findings.add(new Finding(stage, "p99 ms", first.percentileMillis(stage, 99),
+            last.percentileMillis(stage, 99), p99));
+      }
+      double errors = errorRateIncrease(first, last, stage);
+      if (errors > Z_THRESHOLD) {
+        findings.add(new Finding(stage, "error %", first.errorRate(stage) * 100,
+            last.errorRate(stage) * 100, errors));
+      }
+    }
+    return findings;
+  }
+
+  /** Compares the lowest heap use per stage, as kept by {@link SoakWindows.Window}. */
+  public static List<Finding> compareHeap(Map<String, Long> first, Map<String, Long> last) {
+    List<Finding> findings = new ArrayList<>();
+    last.forEach((stage, bytes) -> {
+      Long before = first.get(stage);
+      if (before != null && before > 0 && bytes > before * (1 + MAX_HEAP_GROWTH)) {
+        findings.add(new Finding(stage, "heap MB", before / 1e6, bytes / 1e6, Double.NaN));
+      }
+    });
+    return findings;
+  }
+
+  static double p99Shift(Histogram first, Histogram last) {
+    if (first.getTotalCount() < MIN_SAMPLES || last.getTotalCount() < MIN_SAMPLES) {
+      return 0;
+    }
+    long threshold = first.getValueAtPercentile(99);
+    double n = last.getTotalCount();
+    double slower = n - last.getCountBetweenValues(0, threshold);
+    return (slower - 0.01 * n) / Math.sqrt(n * 0.01 * 0.99);
+  }
+
+  static double errorRateIncrease(LatencyReport first, LatencyReport last, String stage) {
+    double n1 = first.count(stage) + first.errors(stage);
+    double n2 = last.count(stage) + last.errors(stage);
+    if (n1 == 0 || n2 == 0) {
+      return 0;
+    }
+    double pooled = (first.errors(stage) + last.errors(stage)) / (n1 + n2);
+    if (pooled == 0 || pooled == 1) {
+      return 0;
+    }
+    double standardError = Math.sqrt(pooled * (1 - pooled) * (1 / n1 + 1 / n2));
+    return (last.errorRate(stage) - first.errorRate(stage)) / standardError;
+  }
+}
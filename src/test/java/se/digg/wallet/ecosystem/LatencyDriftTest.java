@@ -0,0 +1,80 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LatencyDriftTest {
+
+  @Test
+  void flagsSlowerTail() {
+    LatencyReport first = window(1000, 0, 0);
+    LatencyReport last = window(1000, 50, 0);
+
+    assertThat(LatencyDrift.compare(first, last).stream().map(LatencyDrift.Finding::metric)
+        .toList(), contains("p99 ms"));
+  }
+
+  @Test
+  void ignoresTailWithinNoise() {
+    LatencyReport first = window(1000, 10, 0);
+    LatencyReport last = window(1000, 13, 0);
+
+    assertThat(LatencyDrift.compare(first, last), is(empty()));
+  }
+
+  @Test
+  void flagsRisingErrorRate() {
+    LatencyReport first = window(1000, 0, 1);
+    LatencyReport last = window(1000, 0, 30);
+
+    assertThat(LatencyDrift.compare(first, last).stream().map(LatencyDrift.Finding::metric)
+        .toList(), contains("error %"));
+  }
+
+  @Test
+  void ignoresErrorsWithinNoiseAndImprovements() {
+    assertThat(LatencyDrift.compare(window(1000, 0, 2), window(1000, 0, 4)), is(empty()));
+    assertThat(LatencyDrift.compare(window(1000, 50, 30), window(1000, 0, 0)), is(empty()));
+  }
+
+  @Test
+  void needsEnoughSamplesForP99() {
+    assertThat(LatencyDrift.compare(window(50, 0, 0), window(50, 25, 0)), is(empty()));
+  }
+
+  @Test
+  void flagsGrowingHeap() {
+    List<LatencyDrift.Finding> findings = LatencyDrift.compareHeap(
+        Map.of("heap pid_issuer", 200_000_000L, "heap verifier_backend", 100_000_000L),
+        Map.of("heap pid_issuer", 230_000_000L, "heap verifier_backend", 130_000_000L,
+            "heap trust_validator", 50_000_000L));
+
+    assertThat(findings.stream().map(LatencyDrift.Finding::stage).toList(),
+        contains("heap verifier_backend"));
+    assertThat(findings.getFirst().toString(),
+        is("heap verifier_backend: heap MB went from 100.00 to 130.00"));
+  }
+
+  /** Successful samples of 10 ms, of which {@code slow} take 100 ms, and failed samples. */
+  private static LatencyReport window(int successes, int slow, int failures) {
+    LatencyReport report = new LatencyReport();
+    for (int i = 0; i < successes; i++) {
+      report.record("scenario", TimeUnit.MILLISECONDS.toNanos(i < slow ? 100 : 10), true);
+    }
+    for (int i = 0; i < failures; i++) {
+      report.record("scenario", 0, false);
+    }
+    return report;
+  }
+}
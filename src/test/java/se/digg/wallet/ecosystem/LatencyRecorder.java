@@ -0,0 +1,33 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+/**
+ * Receives the latency of named stages of a flow, e.g. the steps of a PID issuance.
+ */
+public interface LatencyRecorder {
+
+  LatencyRecorder NONE = (stage, nanos, success) -> {
+  };
+
+  void record(String stage, long nanos, boolean success);
+
+  default <T> T time(String stage, Stage<T> body) throws Exception {
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      T result = body.call();
+      success = true;
+      return result;
+    } finally {
+      record(stage, System.nanoTime() - start, success);
+    }
+  }
+
+  @FunctionalInterface
+  interface Stage<T> {
+    T call() throws Exception;
+  }
+}
@@ -0,0 +1,99 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Thread-safe collection of per-stage latency histograms. Successful stages are recorded with
+ * microsecond resolution while failed stages are only counted.
+ */
+public class LatencyReport implements LatencyRecorder {
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final Map<String, StageStatistics> statistics = new ConcurrentHashMap<>();
+  private final Queue<String> stages = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public void record(String stage, long nanos, boolean success) {
+    StageStatistics s = statistics.computeIfAbsent(stage, name -> {
+      stages.add(name);
+      return new StageStatistics(new ConcurrentHistogram(SIGNIFICANT_DIGITS), new LongAdder());
+    });
+
+    if (success) {
+      s.histogram().recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    } else {
+      s.errors().increment();
+    }
+  }
+
+  public List<String> stages() {
+    return List.copyOf(stages);
+  }
+
+  public long count(String stage) {
+    StageStatistics s = statistics.get(stage);
+    return s == null ? 0 : s.histogram().getTotalCount();
+  }
+
+  public long errors(String stage) {
+    StageStatistics s = statistics.get(stage);
+    return s == null ? 0 : s.errors().sum();
+  }
+
+  public double errorRate(String stage) {
+    long total = count(stage) + errors(stage);
+    return total == 0 ? 0 : (double) errors(stage) / total;
+  }
+
+  public double percentileMillis(String stage, double percentile) {
+    StageStatistics s = statistics.get(stage);
+    return s == null ? 0 : s.histogram().getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  public double maxMillis(String stage) {
+    StageStatistics s = statistics.get(stage);
+    return s == null ? 0 : s.histogram().getMaxValue() / 1000.0;
+  }
+
+  public double throughput(String stage, Duration elapsed) {
+    double seconds = elapsed.toNanos() / 1e9;
+    return seconds <= 0 ? 0 : count(stage) / seconds;
+  }
+
+  Histogram copyOf(String stage) {
+    StageStatistics s = statistics.get(stage);
+    return s == null ? new Histogram(SIGNIFICANT_DIGITS) : s.histogram().copy();
+  }
+
+  public String format(Duration elapsed) {
+    StringBuilder out = new StringBuilder(String.format(
+        "%-36s %8s %7s %7s %10s %10s %10s %10s %9s%n",
+        "stage", "count", "errors", "error %", "p50 ms", "p95 ms", "p99 ms", "max ms", "per sec"));
+    for (String stage : stages()) {
+      out.append(String.format(
+          "%-36s %8d %7d %7.2f %10.1f %10.1f %10.1f %10.1f %9.2f%n",
+          stage, count(stage), errors(stage), errorRate(stage) * 100,
+          percentileMillis(stage, 50), percentileMillis(stage, 95),
+          percentileMillis(stage, 99), maxMillis(stage),
+          throughput(stage, elapsed)));
+    }
+    return out.toString();
+  }
+
+  private record StageStatistics(Histogram histogram, LongAdder errors) {
+  }
+}
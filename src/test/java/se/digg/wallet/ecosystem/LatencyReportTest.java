@@ -0,0 +1,75 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LatencyReportTest {
+
+  @Test
+  void calculatesPercentilesPerStage() {
+    LatencyReport report = new LatencyReport();
+    for (int millis = 1; millis <= 100; millis++) {
+      report.record("token", TimeUnit.MILLISECONDS.toNanos(millis), true);
+    }
+    report.record("nonce", TimeUnit.MILLISECONDS.toNanos(7), true);
+
+    assertThat(report.stages(), contains("token", "nonce"));
+    assertThat(report.count("token"), is(100L));
+    assertThat(report.percentileMillis("token", 50), closeTo(50, 0.1));
+    assertThat(report.percentileMillis("token", 99), closeTo(99, 0.1));
+    assertThat(report.maxMillis("token"), closeTo(100, 0.1));
+    assertThat(report.maxMillis("nonce"), closeTo(7, 0.01));
+  }
+
+  @Test
+  void countsFailuresSeparately() throws Exception {
+    LatencyReport report = new LatencyReport();
+
+    report.time("credential", () -> "ok");
+    assertThrows(IllegalStateException.class, () -> report.time("credential", () -> {
+      throw new IllegalStateException("boom");
+    }));
+
+    assertThat(report.count("credential"), is(1L));
+    assertThat(report.errors("credential"), is(1L));
+    assertThat(report.errorRate("credential"), closeTo(0.5, 0.001));
+  }
+
+  @Test
+  void calculatesThroughput() {
+    LatencyReport report = new LatencyReport();
+    for (int i = 0; i < 30; i++) {
+      report.record("issuance", 1_000_000, true);
+    }
+
+    assertThat(report.throughput("issuance", Duration.ofSeconds(10)), closeTo(3, 0.001));
+    assertThat(report.throughput("unknown", Duration.ofSeconds(10)), closeTo(0, 0.001));
+  }
+
+  @Test
+  void formatsErrorRatePerStage() {
+    LatencyReport report = new LatencyReport();
+    for (int i = 0; i < 3; i++) {
+      report.record("direct_post", 1_000_000, true);
+    }
+    report.record("direct_post", 1_000_000, false);
+
+    String line = report.format(Duration.ofSeconds(1)).lines().skip(1).findFirst().orElseThrow();
+    String[] columns = line.split("\\s+");
+
+    assertThat(columns[0], is("direct_post"));
+    assertThat(columns[2], is("1"));
+    assertThat(columns[3], is(String.format("%.2f", 25.0)));
+  }
+}
@@ -0,0 +1,81 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs an iteration body on one virtual thread per worker according to a {@link LoadProfile}. Each
+ * worker paces itself to its share of the target arrival rate. A worker that falls behind starts
+ * its next iteration immediately instead of trying to catch up, which keeps the load closed-loop:
+ * there are never more than {@code concurrency} iterations in flight.
+ */
+public final class LoadDriver {
+  private LoadDriver() {}
+
+  @FunctionalInterface
+  public interface Iteration {
+    void run(int worker, long iteration) throws Exception;
+  }
+
+  public record Result(Duration elapsed, long iterations, long failures, Throwable firstFailure) {
+  }
+
+  public static Result run(LoadProfile profile, Iteration body) {
+    LongAdder iterations = new LongAdder();
+    LongAdder failures = new LongAdder();
+    AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    long start = System.nanoTime();
+    long deadline = start + profile.duration().toNanos();
+    long interval = profile.workerInterval().toNanos();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int w = 0; w < profile.concurrency(); w++) {
+        int worker = w;
+        long firstStart = start + profile.startOffset(worker).toNanos();
+        executor.submit(() -> {
+          long next = firstStart;
+          for (long i = 0; next < deadline; i++) {
+            if (!sleepUntil(next)) {
+              return;
+            }
+            try {
+              body.run(worker, i);
+            } catch (Exception | AssertionError e) {
+              // Includes failed RestAssured and JUnit assertions
+              failures.increment();
+              firstFailure.compareAndSet(null, e);
+            }
+            iterations.increment();
+            next = Math.max(next + interval, System.nanoTime());
+          }
+        });
+      }
+    }
+
+    return new Result(
+        Duration.ofNanos(System.nanoTime() - start),
+        iterations.sum(), failures.sum(), firstFailure.get());
+  }
+
+  private static boolean sleepUntil(long nanoTime) {
+    long remaining = nanoTime - System.nanoTime();
+    if (remaining <= 0) {
+      return true;
+    }
+    try {
+      Thread.sleep(Duration.ofNanos(remaining));
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class LoadDriverTest {
+
+  @Test
+  void pacesWorkersToTheTargetArrivalRate() {
+    LoadProfile profile = new LoadProfile(4, Duration.ZERO, 40, Duration.ofMillis(500));
+
+    LoadDriver.Result result = LoadDriver.run(profile, (worker, iteration) -> {
+    });
+
+    // 40 iterations per second for half a second, give or take one round of workers
+    assertThat(result.iterations(), allOf(greaterThanOrEqualTo(16L), lessThanOrEqualTo(24L)));
+    assertThat(result.failures(), is(0L));
+  }
+
+  @Test
+  void neverRunsMoreIterationsConcurrentlyThanWorkers() {
+    LoadProfile profile = new LoadProfile(3, Duration.ofMillis(30), 1000, Duration.ofMillis(300));
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    LoadDriver.run(profile, (worker, iteration) -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      Thread.sleep(5);
+      inFlight.decrementAndGet();
+    });
+
+    assertThat(maxInFlight.get(), lessThanOrEqualTo(3));
+  }
+
+  @Test
+  void countsFailedIterations() {
+    LoadProfile profile = new LoadProfile(1, Duration.ZERO, 100, Duration.ofMillis(100));
+
+    LoadDriver.Result result = LoadDriver.run(profile, (worker, iteration) -> {
+      throw new IllegalStateException("iteration " + iteration);
+    });
+
+    assertThat(result.failures(), is(result.iterations()));
+    assertThat(result.firstFailure().getMessage(), is("iteration 0"));
+  }
+
+  @Test
+  void countsFailedAssertions() {
+    LoadProfile profile = new LoadProfile(1, Duration.ZERO, 100, Duration.ofMillis(100));
+
+    LoadDriver.Result result = LoadDriver.run(profile, (worker, iteration) -> {
+      throw new AssertionError("iteration " + iteration);
+    });
+
+    assertThat(result.iterations(), greaterThanOrEqualTo(1L));
+    assertThat(result.failures(), is(result.iterations()));
+    assertThat(result.firstFailure().getMessage(), is("iteration 0"));
+  }
+}
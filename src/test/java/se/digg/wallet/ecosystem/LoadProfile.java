@@ -0,0 +1,45 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.time.Duration;
+
+/**
+ * Shape of a closed-loop load run: how many concurrent workers to use, how long it takes until all
+ * of them have started, the combined target arrival rate (iterations per second) and the total
+ * duration of the run.
+ */
+public record LoadProfile(int concurrency, Duration rampUp, double arrivalRate, Duration duration) {
+
+  public LoadProfile {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("Concurrency must be at least 1");
+    }
+    if (arrivalRate <= 0) {
+      throw new IllegalArgumentException("Arrival rate must be positive");
+    }
+    if (rampUp.isNegative() || duration.isNegative()) {
+      throw new IllegalArgumentException("Ramp-up and duration must not be negative");
+    }
+  }
+
+  public static LoadProfile fromEnvironment() {
+    return new LoadProfile(
+        Integer.parseInt(Property.LOAD_CONCURRENCY.getValue()),
+        Duration.parse(Property.LOAD_RAMP_UP.getValue()),
+        Double.parseDouble(Property.LOAD_ARRIVAL_RATE.getValue()),
+        Duration.parse(Property.LOAD_DURATION.getValue()));
+  }
+
+  /** The delay before the given worker starts, spreading all workers evenly over the ramp-up. */
+  public Duration startOffset(int worker) {
+    return rampUp.multipliedBy(worker).dividedBy(concurrency);
+  }
+
+  /** The time between two iterations of a single worker when running at the target rate. */
+  public Duration workerInterval() {
+    return Duration.ofNanos(Math.round(concurrency / arrivalRate * 1e9));
+  }
+}
@@ -0,0 +1,190 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.oneOf;
+import static se.digg.wallet.ecosystem.RestAssuredSugar.given;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded HTTP cache for metadata documents such as {@code .well-known/openid-credential-issuer}.
+ * A document is fresh for its {@code Cache-Control: max-age}, capped by the configured TTL, or for
+ * the TTL if the server gives no max-age. A stale document with an {@code ETag} is revalidated with
+ * {@code If-None-Match}, so an unchanged document costs a 304 instead of a full response.
+ * {@code no-store} responses are never cached and {@code no-cache} responses are revalidated on
+ * every use. Concurrent lookups of a missing or stale document share a single request.
+ */
+public class MetadataCache {
+
+  private static final Pattern MAX_AGE = Pattern.compile("(?:^|,)\\s*max-age\\s*=\\s*\"?(\\d+)");
+
+  /** Shared by all clients, configured by {@link Property#METADATA_CACHE_TTL}. */
+  static final MetadataCache SHARED =
+      new MetadataCache(Duration.parse(Property.METADATA_CACHE_TTL.getValue()), 64,
+          Clock.systemUTC());
+
+  private record Key(URI uri, String accept) {
+  }
+
+  private record Entry(Document document, String etag, Instant expiresAt) {
+  }
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<Key, CompletableFuture<Document>> inFlight = new ConcurrentHashMap<>();
+  private final Duration ttl;
+  private final int maxEntries;
+  private final Clock clock;
+
+  public MetadataCache(Duration ttl, int maxEntries, Clock clock) {
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("TTL must not be negative");
+    }
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Max entries must be at least 1");
+    }
+    this.ttl = ttl;
+    this.maxEntries = maxEntries;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the document at the URI, as served for the given {@code Accept} header, or for no
+   * {@code Accept} header if it is null.
+   */
+  public Document get(URI uri, String accept) {
+    Key key = new Key(uri, accept);
+    Entry cached = entries.get(key);
+    if (cached != null && clock.instant().isBefore(cached.expiresAt())) {
+      return cached.document();
+    }
+
+    CompletableFuture<Document> fetch = new CompletableFuture<>();
+    CompletableFuture<Document> existing = inFlight.putIfAbsent(key, fetch);
+    if (existing != null) {
+      try {
+        return existing.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof Error error) {
+          throw error;
+        }
+        throw e.getCause() instanceof RuntimeException cause ? cause : e;
+      }
+    }
+
+    try {
+      Entry current = entries.get(key);
+      Document document = current != null && clock.instant().isBefore(current.expiresAt())
+          ? current.document()
+          : fetch(key, current);
+      fetch.complete(document);
+      return document;
+    } catch (RuntimeException | Error e) {
+      fetch.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, fetch);
+    }
+  }
+
+  public void invalidate(URI uri, String accept) {
+    entries.remove(new Key(uri, accept));
+  }
+
+  private Document fetch(Key key, Entry stale) {
+    RequestSpecification request = given();
+    if (key.accept() != null) {
+      request.header("Accept", key.accept());
+    }
+    if (stale != null && stale.etag() != null) {
+      request.header("If-None-Match", stale.etag());
+    }
+    Response response = request.when().get(key.uri());
+    response.then().assertThat().statusCode(stale != null && stale.etag() != null
+        ? is(oneOf(200, 304))
+        : is(200));
+
+    String cacheControl = response.header("Cache-Control");
+    String directives = cacheControl == null ? "" : cacheControl.toLowerCase(Locale.ROOT);
+    Document document = response.statusCode() == 304
+        ? stale.document()
+        : new Document(response.asString(), response.contentType());
+    String etag = response.statusCode() == 304 && response.header("ETag") == null
+        ? stale.etag()
+        : response.header("ETag");
+
+    if (directives.contains("no-store")) {
+      entries.remove(key);
+    } else {
+      Instant now = clock.instant();
+      entries.put(key, new Entry(document, etag,
+          directives.contains("no-cache") ? now : now.plus(freshness(directives))));
+      if (entries.size() > maxEntries) {
+        evictOldest();
+      }
+    }
+    return document;
+  }
+
+  private Duration freshness(String directives) {
+    Matcher maxAge = MAX_AGE.matcher(directives);
+    if (maxAge.find()) {
+      Duration serverMaxAge = Duration.ofSeconds(Long.parseLong(maxAge.group(1)));
+      return serverMaxAge.compareTo(ttl) < 0 ? serverMaxAge : ttl;
+    }
+    return ttl;
+  }
+
+  private void evictOldest() {
+    while (entries.size() > maxEntries) {
+      entries.entrySet().stream()
+          .min(Comparator.comparing(e -> e.getValue().expiresAt()))
+          .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+  }
+
+  /**
+   * A fetched metadata document. Values derived from it with {@link #view} are computed once per
+   * document, and survive revalidations that confirm the document is unchanged.
+   */
+  public static final class Document {
+    private final String body;
+    private final String contentType;
+    private final Map<String, Object> views = new ConcurrentHashMap<>();
+
+    Document(String body, String contentType) {
+      this.body = body;
+      this.contentType = contentType;
+    }
+
+    public String body() {
+      return body;
+    }
+
+    public String contentType() {
+      return contentType;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T view(String name, Function<String, T> derive) {
+      return (T) views.computeIfAbsent(name, n -> derive.apply(body));
+    }
+  }
+}
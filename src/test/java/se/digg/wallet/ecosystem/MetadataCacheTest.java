@@ -0,0 +1,182 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetadataCacheTest {
+
+  private static final String BODY = "{\"credential_issuer\": \"https://localhost/pid-issuer\"}";
+
+  private final ExpiringCacheTest.MutableClock clock = new ExpiringCacheTest.MutableClock();
+  private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+  private final AtomicInteger bodies = new AtomicInteger();
+  private volatile String cacheControl;
+  private volatile String etag = "\"v1\"";
+  private volatile CountDownLatch release = new CountDownLatch(0);
+  private HttpServer server;
+  private URI uri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/.well-known/openid-credential-issuer", this::serve);
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort()
+        + "/.well-known/openid-credential-issuer");
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void servesFromCacheWhileFresh() {
+    cacheControl = "public, max-age=60";
+    MetadataCache cache = new MetadataCache(Duration.ofMinutes(5), 8, clock);
+
+    MetadataCache.Document first = cache.get(uri, "application/json");
+    clock.advance(Duration.ofSeconds(59));
+    MetadataCache.Document second = cache.get(uri, "application/json");
+
+    assertThat(second, is(sameInstance(first)));
+    assertThat(ifNoneMatch, contains((String) null));
+  }
+
+  @Test
+  void capsServerMaxAgeAtTtl() {
+    cacheControl = "max-age=3600";
+    MetadataCache cache = new MetadataCache(Duration.ofSeconds(10), 8, clock);
+
+    cache.get(uri, null);
+    clock.advance(Duration.ofSeconds(10));
+    cache.get(uri, null);
+
+    assertThat(ifNoneMatch.size(), is(2));
+  }
+
+  @Test
+  void revalidatesStaleDocumentWithEtag() {
+    cacheControl = "max-age=60";
+    MetadataCache cache = new MetadataCache(Duration.ofMinutes(5), 8, clock);
+    AtomicInteger derived = new AtomicInteger();
+
+    MetadataCache.Document first = cache.get(uri, null);
+    first.view("length", body -> derived.incrementAndGet());
+    clock.advance(Duration.ofSeconds(60));
+    MetadataCache.Document revalidated = cache.get(uri, null);
+    revalidated.view("length", body -> derived.incrementAndGet());
+
+    assertThat(revalidated, is(sameInstance(first)));
+    assertThat(ifNoneMatch, contains(nullValue(), is("\"v1\"")));
+    assertThat(bodies.get(), is(1));
+    assertThat(derived.get(), is(1));
+  }
+
+  @Test
+  void replacesDocumentWhenEtagChanges() {
+    cacheControl = "max-age=60";
+    MetadataCache cache = new MetadataCache(Duration.ofMinutes(5), 8, clock);
+
+    MetadataCache.Document first = cache.get(uri, null);
+    etag = "\"v2\"";
+    clock.advance(Duration.ofSeconds(60));
+    MetadataCache.Document second = cache.get(uri, null);
+
+    assertThat(second == first, is(false));
+    assertThat(bodies.get(), is(2));
+  }
+
+  @Test
+  void neverCachesNoStore() {
+    cacheControl = "no-store";
+    MetadataCache cache = new MetadataCache(Duration.ofMinutes(5), 8, clock);
+
+    cache.get(uri, null);
+    cache.get(uri, null);
+
+    assertThat(ifNoneMatch, contains(nullValue(), nullValue()));
+  }
+
+  @Test
+  void revalidatesNoCacheOnEveryUse() {
+    cacheControl = "no-cache";
+    MetadataCache cache = new MetadataCache(Duration.ofMinutes(5), 8, clock);
+
+    cache.get(uri, null);
+    cache.get(uri, null);
+
+    assertThat(ifNoneMatch, contains(nullValue(), is("\"v1\"")));
+    assertThat(bodies.get(), is(1));
+  }
+
+  @Test
+  void collapsesConcurrentMisses() throws Exception {
+    cacheControl = "max-age=60";
+    release = new CountDownLatch(1);
+    MetadataCache cache = new MetadataCache(Duration.ofMinutes(5), 8, clock);
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      List<Future<MetadataCache.Document>> futures = IntStream.range(0, 8)
+          .mapToObj(i -> executor.submit(() -> cache.get(uri, null)))
+          .toList();
+      TimeUnit.MILLISECONDS.sleep(200);
+      release.countDown();
+      for (Future<MetadataCache.Document> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    }
+
+    assertThat(ifNoneMatch.size(), is(1));
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    try {
+      release.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+    ifNoneMatch.add(condition);
+    exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+    exchange.getResponseHeaders().add("ETag", etag);
+    if (etag.equals(condition)) {
+      exchange.sendResponseHeaders(304, -1);
+    } else {
+      bodies.incrementAndGet();
+      byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    }
+    exchange.close();
+  }
+}
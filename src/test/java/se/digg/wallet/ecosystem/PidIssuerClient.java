@@ -22,8 +22,8 @@ import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jwt.EncryptedJWT;
 import com.nimbusds.jwt.SignedJWT;
+import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
-import io.restassured.response.ValidatableResponse;
 import java.net.URI;
 import java.security.PublicKey;
 import java.security.cert.CertificateFactory;
@@ -32,6 +32,7 @@ import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -42,13 +43,19 @@ import org.jsoup.nodes.Element;
 public class PidIssuerClient {
 
   private final URI base;
+  private final MetadataCache metadataCache;
 
   public PidIssuerClient() {
     this(ServiceIdentifier.PID_ISSUER.getResourceRoot());
   }
 
   public PidIssuerClient(URI base) {
+    this(base, MetadataCache.SHARED);
+  }
+
+  public PidIssuerClient(URI base, MetadataCache metadataCache) {
     this.base = base;
+    this.metadataCache = metadataCache;
   }
 
   public Response tryGetOpenIdCredentialIssuerMetadata(MetadataLocationStrategy strategy) {
@@ -58,51 +65,64 @@ public class PidIssuerClient {
   }
 
   public String getDecodedOpenIdCredentialIssuerMetadata(MetadataLocationStrategy strategy) {
-    var response = tryGetOpenIdCredentialIssuerMetadata(strategy)
-        .then()
-        .assertThat().statusCode(200)
-        .extract();
-
-    String contentType = response.contentType();
-    String body = response.asString();
+    MetadataCache.Document document = metadataCache.get(strategy.applyTo(
+        ServiceIdentifier.PID_ISSUER.toUri(),
+        "/.well-known/openid-credential-issuer"), null);
 
+    String contentType = document.contentType();
     if (contentType != null && contentType.startsWith("application/jwt")) {
-      try {
-        SignedJWT signedJwt = SignedJWT.parse(body);
-
-        // Verify signature against the embedded x5c certificate
-        List<com.nimbusds.jose.util.Base64> x5c =
-            signedJwt.getHeader().getX509CertChain();
-        assertNotNull(x5c,
-            "Signed metadata must contain x5c header");
-        org.junit.jupiter.api.Assertions.assertFalse(x5c.isEmpty(), "x5c header must not be empty");
-
-        CertificateFactory cf =
-            CertificateFactory.getInstance("X.509");
-        X509Certificate cert = (X509Certificate) cf
-            .generateCertificate(new java.io.ByteArrayInputStream(x5c.get(0).decode()));
-        PublicKey publicKey = cert.getPublicKey();
-
-        com.nimbusds.jose.JWSVerifier verifier;
-        if (publicKey instanceof ECPublicKey) {
-          verifier = new com.nimbusds.jose.crypto.ECDSAVerifier((ECPublicKey) publicKey);
-        } else if (publicKey instanceof RSAPublicKey) {
-          verifier = new com.nimbusds.jose.crypto.RSASSAVerifier((RSAPublicKey) publicKey);
-        } else {
-          throw new IllegalArgumentException(
-              "Unsupported public key type: " + publicKey.getClass().getName());
-        }
-
-        org.junit.jupiter.api.Assertions.assertTrue(signedJwt.verify(verifier),
-            "Metadata signature verification failed");
-
-        return signedJwt.getPayload().toString();
-      } catch (Exception e) {
-        throw new RuntimeException("Failed to verify signed metadata", e);
-      }
+      // The signature is verified once per version of the document, but a certificate can be
+      // revoked at any time, so the chain is checked against the CRL on every call
+      SignedMetadata metadata =
+          document.view("signed metadata", PidIssuerClient::verifySignedMetadata);
+      RevocationChecker.shared().check(metadata.chain());
+      return metadata.payload();
     }
 
-    return body;
+    return document.body();
+  }
+
+  /** The payload of signed metadata whose signature verified, and the chain it was signed with. */
+  private record SignedMetadata(String payload, List<X509Certificate> chain) {
+  }
+
+  private static SignedMetadata verifySignedMetadata(String body) {
+    try {
+      SignedJWT signedJwt = SignedJWT.parse(body);
+
+      // Verify signature against the embedded x5c certificate
+      List<com.nimbusds.jose.util.Base64> x5c =
+          signedJwt.getHeader().getX509CertChain();
+      assertNotNull(x5c,
+          "Signed metadata must contain x5c header");
+      org.junit.jupiter.api.Assertions.assertFalse(x5c.isEmpty(), "x5c header must not be empty");
+
+      CertificateFactory cf =
+          CertificateFactory.getInstance("X.509");
+      List<X509Certificate> chain = new ArrayList<>(x5c.size());
+      for (com.nimbusds.jose.util.Base64 encoded : x5c) {
+        chain.add((X509Certificate) cf
+            .generateCertificate(new java.io.ByteArrayInputStream(encoded.decode())));
+      }
+      PublicKey publicKey = chain.getFirst().getPublicKey();
+
+      com.nimbusds.jose.JWSVerifier verifier;
+      if (publicKey instanceof ECPublicKey) {
+        verifier = new com.nimbusds.jose.crypto.ECDSAVerifier((ECPublicKey) publicKey);
+      } else if (publicKey instanceof RSAPublicKey) {
+        verifier = new com.nimbusds.jose.crypto.RSASSAVerifier((RSAPublicKey) publicKey);
+      } else {
+        throw new IllegalArgumentException(
+            "Unsupported public key type: " + publicKey.getClass().getName());
+      }
+
+      org.junit.jupiter.api.Assertions.assertTrue(signedJwt.verify(verifier),
+          "Metadata signature verification failed");
+
+      return new SignedMetadata(signedJwt.getPayload().toString(), List.copyOf(chain));
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to verify signed metadata", e);
+    }
   }
 
   public Response tryGetJwtVcIssuerMetadata(MetadataLocationStrategy strategy) {
@@ -131,7 +151,7 @@ public class PidIssuerClient {
         .auth()
         .oauth2(accessToken)
         .header("DPoP",
-            DpopUtil.createDpopProof(key, nonceEndpoint.toString(), "POST", accessToken))
+            DpopProofFactory.forKey(key).createProof(nonceEndpoint.toString(), "POST", accessToken))
         .when()
         .post(nonceEndpoint)
         .then()
@@ -142,36 +162,52 @@ public class PidIssuerClient {
   }
 
   public ECKey getCredentialRequestEncryptionKey() throws ParseException {
-    Map<String, Object> jwksMap =
-        getCredentialIssuerMetadata().extract().path("credential_request_encryption.jwks");
-
-    JWKSet jwkSet = JWKSet.parse(jwksMap);
-
-    return (ECKey) jwkSet.getKeys().getFirst();
+    return getCredentialIssuerMetadata().view("credential request encryption key", body -> {
+      Map<String, Object> jwksMap =
+          new JsonPath(body).getMap("credential_request_encryption.jwks");
+      try {
+        return (ECKey) JWKSet.parse(jwksMap).getKeys().getFirst();
+      } catch (ParseException e) {
+        throw new IllegalStateException("Invalid credential request encryption JWKS", e);
+      }
+    });
   }
 
   List<URI> getAuthorizationServers() {
-    return getCredentialIssuerMetadata().extract().<List<String>>path("authorization_servers")
-        .stream().map(URI::create).collect(Collectors.toList());
+    return getCredentialIssuerMetadata().view("authorization servers",
+        body -> new JsonPath(body).<String>getList("authorization_servers")
+            .stream().map(URI::create).toList());
   }
 
-  private ValidatableResponse getCredentialIssuerMetadata() {
-    return given()
-        .header("Accept", "application/json")
-        .when()
-        .get(this.base.resolve(".well-known/openid-credential-issuer"))
-        .then().statusCode(200);
+  /** The most credentials one request may ask for, 1 if the issuer does not support batches. */
+  public int getBatchSize() {
+    return getCredentialIssuerMetadata().view("batch size", body -> {
+      Integer batchSize = new JsonPath(body).get("batch_credential_issuance.batch_size");
+      return batchSize == null ? 1 : batchSize;
+    });
+  }
+
+  private MetadataCache.Document getCredentialIssuerMetadata() {
+    return metadataCache.get(
+        this.base.resolve(".well-known/openid-credential-issuer"), "application/json");
   }
 
   public Payload issueCredentials(String accessToken, ECKey userJwk, ECKey jwk, String proof,
       ECKey pidIssuerCredentialRequestEncryptionKey) throws JOSEException, ParseException {
+    return issueCredentials(
+        accessToken, userJwk, jwk, List.of(proof), pidIssuerCredentialRequestEncryptionKey);
+  }
+
+  /** Requests one credential per proof in a single batch request. */
+  public Payload issueCredentials(String accessToken, ECKey userJwk, ECKey jwk, List<String> proofs,
+      ECKey pidIssuerCredentialRequestEncryptionKey) throws JOSEException, ParseException {
     return decryptPayload(
         postCredentials(
             accessToken, userJwk, encryptPayload(
                 String.format("""
                     {
                       "format": "vc+sd-jwt",
-                      "proofs": { "jwt": ["%s"] },
+                      "proofs": { "jwt": [%s] },
                       "credential_configuration_id": "eu.europa.ec.eudi.pid_vc_sd_jwt",
                       "credential_response_encryption": {
                         "jwk": %s,
@@ -179,7 +215,9 @@ public class PidIssuerClient {
                         "zip": "DEF"
                       }
                     }""",
-                    proof, jwk.toPublicJWK().toJSONString()),
+                    proofs.stream().map(proof -> '"' + proof + '"')
+                        .collect(Collectors.joining(", ")),
+                    jwk.toPublicJWK().toJSONString()),
                 pidIssuerCredentialRequestEncryptionKey)),
         jwk.toECPrivateKey());
   }
@@ -191,8 +229,8 @@ public class PidIssuerClient {
     String responsePayload =
         given()
             .header("Authorization", "DPoP " + accessToken)
-            .header("DPoP", DpopUtil.createDpopProof(userJwk,
-                credentialsEndpoint, "POST", accessToken))
+            .header("DPoP", DpopProofFactory.forKey(userJwk)
+                .createProof(credentialsEndpoint, "POST", accessToken))
             .when()
             .contentType("application/jwt")
             .body(requestPayload)
@@ -8,9 +8,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
-import java.sql.Connection;
 import java.sql.DatabaseMetaData;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import org.junit.jupiter.api.Test;
@@ -21,8 +19,7 @@ public class PidIssuerDbTest {
   void isReachableAndHasIssuedCredentialTable() throws SQLException {
     assumeTrue(Boolean.parseBoolean(Property.PID_ISSUER_DB_TESTING_ENABLED.getValue()));
 
-    try (Connection conn = DriverManager.getConnection(
-        ServiceIdentifier.PID_ISSUER_DB.toString(), "pid-issuer", "pass")) {
+    DbInspector.pidIssuer().withConnection(conn -> {
       assertThat(conn.isValid(5), is(true));
 
       DatabaseMetaData metaData = conn.getMetaData();
@@ -33,6 +30,7 @@ public class PidIssuerDbTest {
               .fail("Table 'issued_credential' should exist in pid-issuer-db");
         }
       }
-    }
+      return null;
+    });
   }
 }
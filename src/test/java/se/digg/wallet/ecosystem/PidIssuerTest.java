@@ -22,12 +22,17 @@ import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import io.restassured.path.json.JsonPath;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -280,4 +285,49 @@ public class PidIssuerTest {
     assertThat(sdJwtVc.disclosedClaims().get("family_name"), is(expectedFamilyName));
     assertThat(sdJwtVc.disclosedClaims().get("personal_administrative_number"), is(expectedPnr));
   }
+
+  @Test
+  void issuedPidCredentialPassesVerification() throws Exception {
+    ECKey bindingKey =
+        new ECKeyGenerator(Curve.P_256)
+            .algorithm(JWSAlgorithm.ES256)
+            .keyUse(KeyUse.SIGNATURE)
+            .generate();
+    String rawCredential =
+        new IssuanceAgent().issuePidCredential(bindingKey, "tneal", "password");
+    String presentation =
+        VerifiablePresentationToken.asString(rawCredential, bindingKey, "nonce");
+
+    SdJwtVc verified = new SdJwtVcVerifier()
+        .verifyPresentation(presentation, VerifierBackendClient.VERIFIER_AUDIENCE, "nonce");
+
+    assertThat(verified.getIssuer(), is(IDENTIFIER.toString()));
+    assertThat(verified.getDisclosedClaim("given_name"), is("Tyler"));
+  }
+
+  @Test
+  void issuesBatchOfCredentialsBoundToEachKey() throws Exception {
+    int batchSize = Math.min(3, pidIssuer.getBatchSize());
+    List<ECKey> bindingKeys = IntStream.range(0, batchSize)
+        .mapToObj(i -> EcKeyPool.shared().take(KeyPurpose.BINDING))
+        .toList();
+
+    List<String> rawCredentials =
+        new IssuanceAgent().issuePidCredentials(bindingKeys, "tneal", "password");
+
+    Set<Base64URL> boundKeys = new HashSet<>();
+    for (String rawCredential : rawCredentials) {
+      SdJwtVc sdJwtVc = SdJwtVc.parse(rawCredential);
+      assertThat(sdJwtVc.disclosedClaims().get("given_name"), is("Tyler"));
+      Map<String, Object> cnf = sdJwtVc.issuerJwt().getJWTClaimsSet().getJSONObjectClaim("cnf");
+      @SuppressWarnings("unchecked")
+      ECKey boundKey = ECKey.parse((Map<String, Object>) cnf.get("jwk"));
+      boundKeys.add(boundKey.computeThumbprint());
+    }
+    Set<Base64URL> expected = new HashSet<>();
+    for (ECKey bindingKey : bindingKeys) {
+      expected.add(bindingKey.computeThumbprint());
+    }
+    assertThat(boundKeys, is(expected));
+  }
 }
@@ -0,0 +1,154 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static io.restassured.config.HttpClientConfig.httpClientConfig;
+import static io.restassured.config.SSLConfig.sslConfig;
+
+import io.restassured.config.RestAssuredConfig;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import org.apache.http.HttpEntity;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+
+/**
+ * Keep-alive transport selected with {@link Property#HTTP_TRANSPORT}. Every request still gets its
+ * own client, so cookies and client parameters never leak between requests, but all clients lease
+ * connections from one pool and open TLS sessions from one {@link SSLContext}, so connections are
+ * reused and new handshakes resume cached sessions. Certificate and host name checks are relaxed
+ * exactly as in the default transport.
+ */
+@SuppressWarnings("deprecation")
+final class PooledHttpTransport {
+
+  private static final SSLContext SSL_CONTEXT = trustAllContext();
+
+  private static final SSLSocketFactory SOCKET_FACTORY =
+      new SSLSocketFactory(SSL_CONTEXT, SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
+
+  private static final PoolingClientConnectionManager POOL = pool(
+      Integer.parseInt(Property.HTTP_MAX_CONNECTIONS_PER_HOST.getValue()),
+      Integer.parseInt(Property.HTTP_MAX_CONNECTIONS.getValue()));
+
+  private static final ClientConnectionManager SHARED_POOL = new SharedConnectionManager(POOL);
+
+  private PooledHttpTransport() {}
+
+  static RestAssuredConfig configure(RestAssuredConfig config) {
+    return config
+        .httpClient(httpClientConfig().httpClientFactory(PooledHttpTransport::newClient))
+        .sslConfig(sslConfig().sslSocketFactory(SOCKET_FACTORY).allowAllHostnames());
+  }
+
+  /**
+   * RestAssured reads response bodies lazily and may never read them at all, so each body is
+   * buffered as it arrives to hand the connection back to the pool straight away.
+   */
+  private static DefaultHttpClient newClient() {
+    DefaultHttpClient client = new DefaultHttpClient(SHARED_POOL);
+    client.addResponseInterceptor((response, context) -> {
+      HttpEntity entity = response.getEntity();
+      if (entity != null && entity.isStreaming()) {
+        response.setEntity(new BufferedHttpEntity(entity));
+      }
+    });
+    return client;
+  }
+
+  static PoolingClientConnectionManager pool() {
+    return POOL;
+  }
+
+  private static PoolingClientConnectionManager pool(int maxPerHost, int maxTotal) {
+    if (maxPerHost < 1 || maxTotal < maxPerHost) {
+      throw new IllegalArgumentException(
+          "Connection limits must satisfy 1 <= per host <= total, got %d and %d"
+              .formatted(maxPerHost, maxTotal));
+    }
+    SchemeRegistry schemes = SchemeRegistryFactory.createDefault();
+    schemes.register(new Scheme("https", 443, SOCKET_FACTORY));
+    PoolingClientConnectionManager pool = new PoolingClientConnectionManager(schemes);
+    pool.setDefaultMaxPerRoute(maxPerHost);
+    pool.setMaxTotal(maxTotal);
+    return pool;
+  }
+
+  private static SSLContext trustAllContext() {
+    try {
+      SSLContext context = SSLContext.getInstance("TLS");
+      context.init(null, new TrustManager[] {new TrustAllCertificates()}, null);
+      return context;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Could not create TLS context", e);
+    }
+  }
+
+  private static final class TrustAllCertificates implements X509TrustManager {
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) {}
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) {}
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+      return new X509Certificate[0];
+    }
+  }
+
+  /**
+   * Lets per-request clients use the pool without closing it. RestAssured shuts down the connection
+   * manager of a client it does not reuse once the response has been read.
+   */
+  private record SharedConnectionManager(ClientConnectionManager pool)
+      implements
+        ClientConnectionManager {
+
+    @Override
+    public SchemeRegistry getSchemeRegistry() {
+      return pool.getSchemeRegistry();
+    }
+
+    @Override
+    public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+      return pool.requestConnection(route, state);
+    }
+
+    @Override
+    public void releaseConnection(
+        ManagedClientConnection connection, long validDuration, TimeUnit unit) {
+      pool.releaseConnection(connection, validDuration, unit);
+    }
+
+    @Override
+    public void closeIdleConnections(long idletime, TimeUnit unit) {
+      pool.closeIdleConnections(idletime, unit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+      pool.closeExpiredConnections();
+    }
+
+    @Override
+    public void shutdown() {
+      // The pool lives as long as the JVM.
+    }
+  }
+}
@@ -0,0 +1,114 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+// Asserts on the process-wide pool, so no other test may lease from it meanwhile
+@Isolated
+class PooledHttpTransportTest {
+
+  private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+  private HttpServer server;
+  private URI uri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", this::serve);
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void reusesConnectionsBetweenRequests() {
+    for (int i = 0; i < 10; i++) {
+      pooled().when().get(uri).then().statusCode(200);
+    }
+
+    assertThat(clientPorts, hasSize(1));
+  }
+
+  @Test
+  void returnsConnectionsToPoolUnderConcurrency() throws Exception {
+    int threads = Math.min(8,
+        Integer.parseInt(Property.HTTP_MAX_CONNECTIONS_PER_HOST.getValue()));
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      List<Future<Integer>> statuses = new ArrayList<>();
+      for (int i = 0; i < threads * 10; i++) {
+        statuses.add(executor.submit(() -> pooled().when().get(uri).statusCode()));
+      }
+      for (Future<Integer> status : statuses) {
+        assertThat(status.get(), is(200));
+      }
+    }
+
+    assertThat(clientPorts.size(), is(lessThanOrEqualTo(threads)));
+    assertThat(PooledHttpTransport.pool().getTotalStats().getLeased(), is(0));
+  }
+
+  @Test
+  void doesNotShareCookiesBetweenRequests() {
+    List<String> cookies = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      cookies.add(pooled().when().get(uri).then().statusCode(200).extract().asString());
+    }
+
+    assertThat(cookies, everyItem(is("")));
+  }
+
+  @Test
+  void selectsTransportByName() {
+    assertThat(RestAssuredSugar.isPooled("default"), is(false));
+    assertThat(RestAssuredSugar.isPooled("POOLED"), is(true));
+    assertThrows(IllegalArgumentException.class, () -> RestAssuredSugar.isPooled("http2"));
+  }
+
+  private static RequestSpecification pooled() {
+    return RestAssured.given().config(PooledHttpTransport.configure(RestAssured.config()));
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    clientPorts.add(exchange.getRemoteAddress().getPort());
+    String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+    byte[] body = (cookie == null ? "" : cookie).getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Set-Cookie", "session=" + clientPorts.size() + "; Path=/");
+    exchange.sendResponseHeaders(200, body.length);
+    try (exchange) {
+      exchange.getResponseBody().write(body);
+    }
+  }
+}
@@ -20,12 +20,53 @@ public enum Property {
   TRUST_VALIDATOR_BASE_URI("https://localhost/trust-validator"),
   TRUST_SOURCE_BASE_URI("https://localhost/trust-source"),
   WALLET_CLIENT_GATEWAY_BASE_URI("https://localhost/wallet-client-gateway"),
+  WALLET_ACCOUNT_BASE_URI("https://localhost/wallet-account"),
   WALLET_ACCOUNT_DB_BASE_URI("jdbc:postgresql://localhost:5432/wallet-account"),
   PID_ISSUER_DB_BASE_URI("jdbc:postgresql://localhost:5433/pid-issuer"),
   WALLET_ACCOUNT_DB_TESTING_ENABLED("true"),
   PID_ISSUER_DB_TESTING_ENABLED("true"),
   WALLET_CLIENT_GATEWAY_API_KEY("apikey"),
-  VERIFIER_AUDIENCE("x509_san_dns:localhost");
+  VERIFIER_AUDIENCE("x509_san_dns:localhost"),
+  LOAD_CONCURRENCY("8"),
+  LOAD_RAMP_UP("PT10S"),
+  LOAD_ARRIVAL_RATE("4"),
+  LOAD_DURATION("PT1M"),
+  METADATA_CACHE_TTL("PT5M"),
+  HTTP_TRANSPORT("default"),
+  HTTP_MAX_CONNECTIONS_PER_HOST("32"),
+  HTTP_MAX_CONNECTIONS("256"),
+  KEY_POOL_LOW_WATERMARK("16"),
+  KEY_POOL_HIGH_WATERMARK("128"),
+  KEY_POOL_FILE("none"),
+  CLIENT_METRICS_DIR("target/client-metrics"),
+  DPOP_TOKEN_REFRESH_MARGIN("PT30S"),
+  SOAK_DURATION("PT8H"),
+  SOAK_WINDOW("PT15M"),
+  SOAK_HEALTH_INTERVAL("PT30S"),
+  HSM_LOAD_CONCURRENCY_LEVELS("1,2,4,8,16,32"),
+  HSM_LOAD_STEP_DURATION("PT30S"),
+  HSM_LOAD_RESULTS("none"),
+  HSM_RESULT_POLL_INTERVAL("PT0.1S"),
+  HSM_RESULT_MAX_POLL_INTERVAL("PT2S"),
+  HSM_RESULT_TIMEOUT("PT10S"),
+  WALLET_STATE_SEED_COUNT("10000"),
+  WALLET_STATE_SEED_CONCURRENCY("16"),
+  WALLET_STATE_RESTART_COMMAND("podman compose restart wallet-bff hsm-worker"),
+  WALLET_STATE_RESTORE_TIMEOUT("PT10M"),
+  WALLET_STATE_RESULTS("none"),
+  VALKEY_URI("redis://localhost:6378"),
+  VALKEY_SAMPLE_INTERVAL("PT10S"),
+  SESSION_REUSE("0.9"),
+  ACCOUNT_SEED_SCALES("10000,100000,1000000"),
+  ACCOUNT_SEED_CONCURRENCY("32"),
+  ACCOUNT_SEED_WALLET_KEYS("2"),
+  ACCOUNT_SEED_SECURITY_ENVELOPES("1"),
+  ACCOUNT_SEED_CHECKPOINT("target/account-seed/accounts.txt"),
+  ACCOUNT_LOOKUPS("1000"),
+  ISSUED_CREDENTIAL_SEED_ROWS("5000000"),
+  ISSUED_CREDENTIAL_GROWTH_STEPS("1000000,5000000,10000000,20000000"),
+  ISSUED_CREDENTIAL_GROWTH_RESULTS("none"),
+  CRL_DELTA_URI("none");
 
   private final String defaultValue;
 
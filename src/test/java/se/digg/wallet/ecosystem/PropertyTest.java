@@ -31,12 +31,53 @@ class PropertyTest {
       "DIGG_WALLET_ECOSYSTEM_TRUST_VALIDATOR_BASE_URI",
       "DIGG_WALLET_ECOSYSTEM_TRUST_SOURCE_BASE_URI",
       "DIGG_WALLET_ECOSYSTEM_WALLET_CLIENT_GATEWAY_BASE_URI",
+      "DIGG_WALLET_ECOSYSTEM_WALLET_ACCOUNT_BASE_URI",
       "DIGG_WALLET_ECOSYSTEM_WALLET_ACCOUNT_DB_BASE_URI",
       "DIGG_WALLET_ECOSYSTEM_PID_ISSUER_DB_BASE_URI",
       "DIGG_WALLET_ECOSYSTEM_WALLET_ACCOUNT_DB_TESTING_ENABLED",
       "DIGG_WALLET_ECOSYSTEM_PID_ISSUER_DB_TESTING_ENABLED",
       "DIGG_WALLET_ECOSYSTEM_WALLET_CLIENT_GATEWAY_API_KEY",
-      "DIGG_WALLET_ECOSYSTEM_VERIFIER_AUDIENCE"
+      "DIGG_WALLET_ECOSYSTEM_VERIFIER_AUDIENCE",
+      "DIGG_WALLET_ECOSYSTEM_LOAD_CONCURRENCY",
+      "DIGG_WALLET_ECOSYSTEM_LOAD_RAMP_UP",
+      "DIGG_WALLET_ECOSYSTEM_LOAD_ARRIVAL_RATE",
+      "DIGG_WALLET_ECOSYSTEM_LOAD_DURATION",
+      "DIGG_WALLET_ECOSYSTEM_METADATA_CACHE_TTL",
+      "DIGG_WALLET_ECOSYSTEM_HTTP_TRANSPORT",
+      "DIGG_WALLET_ECOSYSTEM_HTTP_MAX_CONNECTIONS_PER_HOST",
+      "DIGG_WALLET_ECOSYSTEM_HTTP_MAX_CONNECTIONS",
+      "DIGG_WALLET_ECOSYSTEM_KEY_POOL_LOW_WATERMARK",
+      "DIGG_WALLET_ECOSYSTEM_KEY_POOL_HIGH_WATERMARK",
+      "DIGG_WALLET_ECOSYSTEM_KEY_POOL_FILE",
+      "DIGG_WALLET_ECOSYSTEM_CLIENT_METRICS_DIR",
+      "DIGG_WALLET_ECOSYSTEM_DPOP_TOKEN_REFRESH_MARGIN",
+      "DIGG_WALLET_ECOSYSTEM_SOAK_DURATION",
+      "DIGG_WALLET_ECOSYSTEM_SOAK_WINDOW",
+      "DIGG_WALLET_ECOSYSTEM_SOAK_HEALTH_INTERVAL",
+      "DIGG_WALLET_ECOSYSTEM_HSM_LOAD_CONCURRENCY_LEVELS",
+      "DIGG_WALLET_ECOSYSTEM_HSM_LOAD_STEP_DURATION",
+      "DIGG_WALLET_ECOSYSTEM_HSM_LOAD_RESULTS",
+      "DIGG_WALLET_ECOSYSTEM_HSM_RESULT_POLL_INTERVAL",
+      "DIGG_WALLET_ECOSYSTEM_HSM_RESULT_MAX_POLL_INTERVAL",
+      "DIGG_WALLET_ECOSYSTEM_HSM_RESULT_TIMEOUT",
+      "DIGG_WALLET_ECOSYSTEM_WALLET_STATE_SEED_COUNT",
+      "DIGG_WALLET_ECOSYSTEM_WALLET_STATE_SEED_CONCURRENCY",
+      "DIGG_WALLET_ECOSYSTEM_WALLET_STATE_RESTART_COMMAND",
+      "DIGG_WALLET_ECOSYSTEM_WALLET_STATE_RESTORE_TIMEOUT",
+      "DIGG_WALLET_ECOSYSTEM_WALLET_STATE_RESULTS",
+      "DIGG_WALLET_ECOSYSTEM_VALKEY_URI",
+      "DIGG_WALLET_ECOSYSTEM_VALKEY_SAMPLE_INTERVAL",
+      "DIGG_WALLET_ECOSYSTEM_SESSION_REUSE",
+      "DIGG_WALLET_ECOSYSTEM_ACCOUNT_SEED_SCALES",
+      "DIGG_WALLET_ECOSYSTEM_ACCOUNT_SEED_CONCURRENCY",
+      "DIGG_WALLET_ECOSYSTEM_ACCOUNT_SEED_WALLET_KEYS",
+      "DIGG_WALLET_ECOSYSTEM_ACCOUNT_SEED_SECURITY_ENVELOPES",
+      "DIGG_WALLET_ECOSYSTEM_ACCOUNT_SEED_CHECKPOINT",
+      "DIGG_WALLET_ECOSYSTEM_ACCOUNT_LOOKUPS",
+      "DIGG_WALLET_ECOSYSTEM_ISSUED_CREDENTIAL_SEED_ROWS",
+      "DIGG_WALLET_ECOSYSTEM_ISSUED_CREDENTIAL_GROWTH_STEPS",
+      "DIGG_WALLET_ECOSYSTEM_ISSUED_CREDENTIAL_GROWTH_RESULTS",
+      "DIGG_WALLET_ECOSYSTEM_CRL_DELTA_URI"
   };
 
   @ParameterizedTest
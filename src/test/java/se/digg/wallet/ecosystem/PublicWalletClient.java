@@ -4,15 +4,11 @@
 
 package se.digg.wallet.ecosystem;
 
-import com.nimbusds.jose.Algorithm;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.crypto.ECDSASigner;
-import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import java.util.Date;
@@ -36,12 +32,7 @@ public class PublicWalletClient implements WalletClient {
   }
 
   public String createWalletUnitAttestation(ECKey bindingKey, String nonce) throws JOSEException {
-    ECKey deviceKey =
-        new ECKeyGenerator(Curve.P_256)
-            .keyID("device-key-" + java.util.UUID.randomUUID())
-            .algorithm(Algorithm.NONE)
-            .keyUse(KeyUse.SIGNATURE)
-            .generate();
+    ECKey deviceKey = EcKeyPool.shared().take(KeyPurpose.DEVICE);
 
     var accountId =
         gateway.createAccount(
@@ -9,21 +9,36 @@ import static io.restassured.config.LogConfig.logConfig;
 import static io.restassured.config.SSLConfig.sslConfig;
 
 import io.restassured.RestAssured;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
+import java.util.Locale;
 
 public final class RestAssuredSugar {
   private RestAssuredSugar() {}
 
+  private static final boolean POOLED = isPooled(Property.HTTP_TRANSPORT.getValue());
+
   static RequestSpecification given() {
+    RestAssuredConfig config =
+        RestAssured.config()
+            .sslConfig(sslConfig().relaxedHTTPSValidation())
+            .logConfig(logConfig().enableLoggingOfRequestAndResponseIfValidationFails())
+            .encoderConfig(
+                encoderConfig()
+                    .encodeContentTypeAs("application/jwt", ContentType.TEXT)
+                    .appendDefaultContentCharsetToContentTypeIfUndefined(false));
     return RestAssured.given()
-        .config(
-            RestAssured.config()
-                .sslConfig(sslConfig().relaxedHTTPSValidation())
-                .logConfig(logConfig().enableLoggingOfRequestAndResponseIfValidationFails())
-                .encoderConfig(
-                    encoderConfig()
-                        .encodeContentTypeAs("application/jwt", ContentType.TEXT)
-                        .appendDefaultContentCharsetToContentTypeIfUndefined(false)));
+        .config(POOLED ? PooledHttpTransport.configure(config) : config)
+        .filter(ClientMetrics.SHARED.filter());
+  }
+
+  static boolean isPooled(String transport) {
+    return switch (transport.toLowerCase(Locale.ROOT)) {
+      case "default" -> false;
+      case "pooled" -> true;
+      default -> throw new IllegalArgumentException(
+          "Unknown HTTP transport '%s', expected 'default' or 'pooled'".formatted(transport));
+    };
   }
 }
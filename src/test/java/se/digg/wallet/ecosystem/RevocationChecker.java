@@ -0,0 +1,473 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static se.digg.wallet.ecosystem.RestAssuredSugar.given;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * Checks certificates against the CRL of their issuer, by default trust-source's
+ * {@code revocation-list.pem} for the ecosystem root CA. A CRL is verified and parsed once into a
+ * hash set of revoked serial numbers, which is refreshed in the background when the
+ * {@code nextUpdate} of the CRL passes. An optional delta CRL is applied on top of its base: its
+ * entries are added, and those with reason {@code removeFromCRL} are taken out again. The delta is
+ * refreshed on its own, usually shorter, schedule. Failed refreshes are retried, and the last index
+ * keeps being used until {@link #STALE_GRACE} after its {@code nextUpdate}. CRLs are read with a
+ * streaming DER reader rather than {@link java.security.cert.X509CRL}, which builds sorted
+ * collections of entry objects and takes seconds for a CRL of 100k entries.
+ */
+public final class RevocationChecker implements AutoCloseable {
+
+  /** How long an index may be used past its {@code nextUpdate} while refreshes fail. */
+  static final Duration STALE_GRACE = Duration.ofMinutes(5);
+
+  // DER contents of the OBJECT IDENTIFIERs that are read
+  private static final String CRL_NUMBER = "551d14";
+  private static final String DELTA_CRL_INDICATOR = "551d1b";
+  private static final String AUTHORITY_KEY_IDENTIFIER = "551d23";
+  private static final String REASON_CODE = "551d15";
+  private static final String INVALIDITY_DATE = "551d18";
+  private static final Map<String, String> SIGNATURE_ALGORITHMS = Map.of(
+      "2a8648ce3d040302", "SHA256withECDSA",
+      "2a8648ce3d040303", "SHA384withECDSA",
+      "2a8648ce3d040304", "SHA512withECDSA",
+      "2a864886f70d01010b", "SHA256withRSA",
+      "2a864886f70d01010c", "SHA384withRSA",
+      "2a864886f70d01010d", "SHA512withRSA");
+  private static final int REMOVE_FROM_CRL = 8;
+
+  // DER tags
+  private static final int BOOLEAN = 0x01;
+  private static final int INTEGER = 0x02;
+  private static final int BIT_STRING = 0x03;
+  private static final int OCTET_STRING = 0x04;
+  private static final int OBJECT_IDENTIFIER = 0x06;
+  private static final int ENUMERATED = 0x0a;
+  private static final int UTC_TIME = 0x17;
+  private static final int GENERALIZED_TIME = 0x18;
+  private static final int SEQUENCE = 0x30;
+  private static final int CRL_EXTENSIONS = 0xa0;
+  private static final DateTimeFormatter UTC_TIME_FORMAT = new DateTimeFormatterBuilder()
+      .appendValueReduced(ChronoField.YEAR, 2, 2, 1950)
+      .appendPattern("MMddHHmmss'Z'")
+      .toFormatter()
+      .withZone(ZoneOffset.UTC);
+  private static final DateTimeFormatter GENERALIZED_TIME_FORMAT =
+      DateTimeFormatter.ofPattern("uuuuMMddHHmmss'Z'").withZone(ZoneOffset.UTC);
+
+  private static RevocationChecker shared;
+
+  /** A verified CRL. A delta CRL has the number of the base it applies to. */
+  private record Crl(BigInteger number, BigInteger baseNumber, Instant nextUpdate,
+      Set<BigInteger> revoked, Set<BigInteger> removed) {
+  }
+
+  private record Index(Crl base, Crl delta, Set<BigInteger> revoked) {
+
+    Instant nextUpdate() {
+      return delta != null && delta.nextUpdate().isBefore(base.nextUpdate())
+          ? delta.nextUpdate()
+          : base.nextUpdate();
+    }
+  }
+
+  private record Entries(Set<BigInteger> revoked, Set<BigInteger> removed) {
+  }
+
+  private record Extension(String id, boolean critical, byte[] value) {
+  }
+
+  private final Supplier<byte[]> base;
+  private final Supplier<byte[]> delta;
+  private final X509Certificate issuer;
+  private final Clock clock;
+  private final Duration minRefresh;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("crl-refresh").daemon().factory());
+  private volatile Index index;
+  private ScheduledFuture<?> nextRefresh;
+
+  /**
+   * Creates a checker that is not yet started.
+   *
+   * @param base fetches the complete CRL, in PEM or DER
+   * @param delta fetches the delta CRL, or null without one
+   * @param issuer the CA that signs both CRLs
+   * @param minRefresh the shortest time between refreshes, also used to retry failed ones
+   */
+  public RevocationChecker(Supplier<byte[]> base, Supplier<byte[]> delta,
+      X509Certificate issuer, Clock clock, Duration minRefresh) {
+    this.base = base;
+    this.delta = delta;
+    this.issuer = issuer;
+    this.clock = clock;
+    this.minRefresh = minRefresh;
+  }
+
+  /**
+   * The started checker of trust-source's CRL, with the delta CRL at {@link Property#CRL_DELTA_URI}
+   * unless that is {@code none}.
+   */
+  public static synchronized RevocationChecker shared() {
+    if (shared == null) {
+      String deltaUri = Property.CRL_DELTA_URI.getValue();
+      RevocationChecker checker = new RevocationChecker(
+          fetch(ServiceIdentifier.TRUST_SOURCE.getResourceRoot().resolve("revocation-list.pem")),
+          "none".equals(deltaUri) ? null : fetch(URI.create(deltaUri)),
+          Certificates.rootCa(), Clock.systemUTC(), Duration.ofMinutes(1));
+      checker.start();
+      shared = checker;
+    }
+    return shared;
+  }
+
+  /** Fetches a CRL over HTTP. */
+  public static Supplier<byte[]> fetch(URI uri) {
+    return () -> given().when().get(uri)
+        .then().assertThat().statusCode(200)
+        .extract().asByteArray();
+  }
+
+  /** Loads the CRLs and schedules their refresh. A failure to load them is thrown. */
+  public RevocationChecker start() {
+    refresh();
+    return this;
+  }
+
+  /**
+   * Fetches the CRLs that are due, the base when past its {@code nextUpdate} and the delta when
+   * past its own, and swaps in a new index.
+   */
+  public synchronized void refresh() {
+    Instant now = clock.instant();
+    Index current = index;
+    Crl newBase = current == null || !now.isBefore(current.base().nextUpdate())
+        ? parse(base.get(), false)
+        : current.base();
+    Crl newDelta = null;
+    if (delta != null) {
+      newDelta = current == null || current.delta() == null
+          || !now.isBefore(current.delta().nextUpdate())
+              ? parse(delta.get(), true)
+              : current.delta();
+      if (newDelta.baseNumber().compareTo(newBase.number()) > 0) {
+        throw new IllegalStateException("Delta CRL needs base CRL " + newDelta.baseNumber()
+            + " but the base is " + newBase.number());
+      }
+    }
+    index = new Index(newBase, newDelta, merge(newBase, newDelta));
+    schedule(Duration.between(clock.instant(), index.nextUpdate()));
+  }
+
+  public boolean isRevoked(BigInteger serialNumber) {
+    return currentIndex().revoked().contains(serialNumber);
+  }
+
+  /** The number of revoked serial numbers in the index. */
+  public int size() {
+    return currentIndex().revoked().size();
+  }
+
+  /**
+   * Throws if a certificate of the chain that was issued by this checker's CA is revoked. The other
+   * certificates are left to their own CRLs.
+   */
+  public void check(List<X509Certificate> chain) {
+    for (X509Certificate certificate : chain) {
+      if (certificate.getIssuerX500Principal().equals(issuer.getSubjectX500Principal())
+          && isRevoked(certificate.getSerialNumber())) {
+        throw new IllegalArgumentException(
+            "Certificate " + certificate.getSubjectX500Principal() + " is revoked");
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private Index currentIndex() {
+    Index current = index;
+    if (current == null) {
+      throw new IllegalStateException("Revocation checker is not started");
+    }
+    if (clock.instant().isAfter(current.nextUpdate().plus(STALE_GRACE))) {
+      throw new IllegalStateException("CRL expired at " + current.nextUpdate());
+    }
+    return current;
+  }
+
+  private synchronized void schedule(Duration untilDue) {
+    if (nextRefresh != null) {
+      nextRefresh.cancel(false);
+    }
+    long delay = Math.max(untilDue.toMillis(), minRefresh.toMillis());
+    nextRefresh = scheduler.schedule(() -> {
+      try {
+        refresh();
+      } catch (RuntimeException | AssertionError e) {
+        // Includes a failed status check of fetch; keep the current index and try again
+        schedule(minRefresh);
+      }
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+
+  private Crl parse(byte[] encoded, boolean isDelta) {
+    Der crl = new Der(pemOrDer(encoded)).read(SEQUENCE);
+    Der tbs = crl.read(SEQUENCE);
+    if (tbs.peek() == INTEGER) {
+      tbs.read(INTEGER);
+    }
+    String algorithm = tbs.read(SEQUENCE).read(OBJECT_IDENTIFIER).hex();
+    X500Principal crlIssuer = new X500Principal(tbs.read(SEQUENCE).element());
+    if (!crlIssuer.equals(issuer.getSubjectX500Principal())) {
+      throw new IllegalArgumentException("CRL is issued by " + crlIssuer);
+    }
+    if (!crl.read(SEQUENCE).read(OBJECT_IDENTIFIER).hex().equals(algorithm)) {
+      throw new IllegalArgumentException("Invalid CRL: signature algorithms differ");
+    }
+    verify(tbs, algorithm, crl.read(BIT_STRING).bytes());
+
+    tbs.time();
+    if (tbs.peek() != UTC_TIME && tbs.peek() != GENERALIZED_TIME) {
+      throw new IllegalArgumentException("CRL has no nextUpdate");
+    }
+    Instant nextUpdate = tbs.time();
+    Entries entries = tbs.peek() == SEQUENCE
+        ? entries(tbs.read(SEQUENCE))
+        : new Entries(Set.of(), Set.of());
+    Map<String, byte[]> extensions = tbs.peek() == CRL_EXTENSIONS
+        ? crlExtensions(tbs.read(CRL_EXTENSIONS).read(SEQUENCE))
+        : Map.of();
+    Crl parsed = new Crl(
+        extensions.containsKey(CRL_NUMBER) ? integer(extensions.get(CRL_NUMBER)) : BigInteger.ZERO,
+        extensions.containsKey(DELTA_CRL_INDICATOR)
+            ? integer(extensions.get(DELTA_CRL_INDICATOR))
+            : null,
+        nextUpdate, entries.revoked(), entries.removed());
+    if (isDelta != (parsed.baseNumber() != null)) {
+      throw new IllegalArgumentException(
+          isDelta ? "Delta CRL has no delta CRL indicator" : "Base CRL is a delta CRL");
+    }
+    return parsed;
+  }
+
+  private static Entries entries(Der entries) {
+    Set<BigInteger> revoked = new HashSet<>();
+    Set<BigInteger> removed = new HashSet<>();
+    while (entries.hasMore()) {
+      Der entry = entries.read(SEQUENCE);
+      BigInteger serialNumber = entry.read(INTEGER).integer();
+      // The revocation date is not needed to tell whether a certificate is revoked
+      entry.read(entry.peek() == GENERALIZED_TIME ? GENERALIZED_TIME : UTC_TIME);
+      boolean remove = false;
+      if (entry.hasMore()) {
+        for (Extension extension : extensions(entry.read(SEQUENCE))) {
+          if (extension.id().equals(REASON_CODE)) {
+            remove =
+                new Der(extension.value()).read(ENUMERATED).integer().intValue() == REMOVE_FROM_CRL;
+          } else if (extension.critical() && !extension.id().equals(INVALIDITY_DATE)) {
+            throw new IllegalArgumentException(
+                "Invalid CRL: unsupported critical entry extension " + extension.id());
+          }
+        }
+      }
+      (remove ? removed : revoked).add(serialNumber);
+    }
+    return new Entries(revoked, removed);
+  }
+
+  /** The values of the CRL extensions by OID, after checking that critical ones are known. */
+  private static Map<String, byte[]> crlExtensions(Der extensions) {
+    Map<String, byte[]> values = new HashMap<>();
+    for (Extension extension : extensions(extensions)) {
+      if (extension.critical() && !extension.id().equals(DELTA_CRL_INDICATOR)
+          && !extension.id().equals(AUTHORITY_KEY_IDENTIFIER)) {
+        throw new IllegalArgumentException(
+            "Invalid CRL: unsupported critical extension " + extension.id());
+      }
+      values.put(extension.id(), extension.value());
+    }
+    return values;
+  }
+
+  private static BigInteger integer(byte[] extensionValue) {
+    return new Der(extensionValue).read(INTEGER).integer();
+  }
+
+  private void verify(Der tbs, String algorithm, byte[] bitString) {
+    String name = SIGNATURE_ALGORITHMS.get(algorithm);
+    if (name == null) {
+      throw new IllegalArgumentException("Invalid CRL: unsupported signature algorithm");
+    }
+    try {
+      Signature signature = Signature.getInstance(name);
+      signature.initVerify(issuer.getPublicKey());
+      signature.update(tbs.der, tbs.elementStart, tbs.end - tbs.elementStart);
+      // The first byte of the BIT STRING is the number of unused bits, always 0
+      if (!signature.verify(bitString, 1, bitString.length - 1)) {
+        throw new IllegalArgumentException(
+            "Invalid CRL from " + issuer.getSubjectX500Principal() + ": bad signature");
+      }
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException(
+          "Invalid CRL from " + issuer.getSubjectX500Principal(), e);
+    }
+  }
+
+  private static Set<BigInteger> merge(Crl base, Crl delta) {
+    if (delta == null) {
+      return base.revoked();
+    }
+    Set<BigInteger> merged = new HashSet<>(base.revoked());
+    merged.addAll(delta.revoked());
+    merged.removeAll(delta.removed());
+    return merged;
+  }
+
+  private static List<Extension> extensions(Der extensions) {
+    List<Extension> parsed = new ArrayList<>();
+    while (extensions.hasMore()) {
+      Der extension = extensions.read(SEQUENCE);
+      String id = extension.read(OBJECT_IDENTIFIER).hex();
+      boolean critical = extension.peek() == BOOLEAN && extension.read(BOOLEAN).bytes()[0] != 0;
+      parsed.add(new Extension(id, critical, extension.read(OCTET_STRING).bytes()));
+    }
+    return parsed;
+  }
+
+  private static byte[] pemOrDer(byte[] encoded) {
+    if (encoded.length == 0 || encoded[0] != '-') {
+      return encoded;
+    }
+    String pem = new String(encoded, StandardCharsets.US_ASCII);
+    int begin = pem.indexOf("-----BEGIN X509 CRL-----");
+    int end = pem.indexOf("-----END X509 CRL-----");
+    if (begin < 0 || end < begin) {
+      throw new IllegalArgumentException("Invalid CRL: not an X509 CRL in PEM");
+    }
+    return Base64.getMimeDecoder()
+        .decode(pem.substring(begin + "-----BEGIN X509 CRL-----".length(), end));
+  }
+
+  /** Reads the elements of a DER encoded value, or of the contents of one, in order. */
+  private static final class Der {
+    private final byte[] der;
+    private final int elementStart;
+    private final int end;
+    private int position;
+
+    Der(byte[] der) {
+      this(der, 0, 0, der.length);
+    }
+
+    private Der(byte[] der, int elementStart, int contentStart, int end) {
+      this.der = der;
+      this.elementStart = elementStart;
+      this.position = contentStart;
+      this.end = end;
+    }
+
+    boolean hasMore() {
+      return position < end;
+    }
+
+    int peek() {
+      return hasMore() ? der[position] & 0xff : -1;
+    }
+
+    /** The next element, which must have {@code tag}. */
+    Der read(int tag) {
+      if (peek() != tag) {
+        throw new IllegalArgumentException(
+            "Invalid CRL: expected DER tag " + tag + " but found " + peek());
+      }
+      int offset = position + 1;
+      if (offset >= end) {
+        throw new IllegalArgumentException("Invalid CRL: truncated");
+      }
+      int length = der[offset++] & 0xff;
+      if (length >= 0x80) {
+        int bytes = length & 0x7f;
+        if (bytes == 0 || bytes > 4 || offset + bytes > end) {
+          throw new IllegalArgumentException("Invalid CRL: bad DER length");
+        }
+        length = 0;
+        for (int i = 0; i < bytes; i++) {
+          length = (length << 8) | (der[offset++] & 0xff);
+        }
+      }
+      if (length < 0 || length > end - offset) {
+        throw new IllegalArgumentException("Invalid CRL: truncated");
+      }
+      Der element = new Der(der, position, offset, offset + length);
+      position = offset + length;
+      return element;
+    }
+
+    Instant time() {
+      int tag = peek();
+      String time = new String(read(tag).bytes(), StandardCharsets.US_ASCII);
+      try {
+        if (tag == UTC_TIME) {
+          return UTC_TIME_FORMAT.parse(time, Instant::from);
+        }
+        if (tag == GENERALIZED_TIME) {
+          return GENERALIZED_TIME_FORMAT.parse(time, Instant::from);
+        }
+      } catch (DateTimeParseException e) {
+        throw new IllegalArgumentException("Invalid CRL: bad time " + time, e);
+      }
+      throw new IllegalArgumentException("Invalid CRL: expected a time but found tag " + tag);
+    }
+
+    BigInteger integer() {
+      return new BigInteger(der, position, end - position);
+    }
+
+    String hex() {
+      return HexFormat.of().formatHex(der, position, end);
+    }
+
+    byte[] bytes() {
+      return Arrays.copyOfRange(der, position, end);
+    }
+
+    /** The whole element, tag and length included. */
+    byte[] element() {
+      return Arrays.copyOfRange(der, elementStart, end);
+    }
+  }
+}
@@ -0,0 +1,236 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nimbusds.jose.util.X509CertUtils;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.security.cert.CRLReason;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class RevocationCheckerTest {
+
+  private static final Path ROOT_CA = Path.of("config", "certificates", "rootca");
+  private static final Path TRUST_SOURCE_CERT =
+      Path.of("config", "certificates", "trust-list-signer", "trust_source_cert.pem");
+
+  private static X509Certificate rootCa;
+  private static PrivateKey rootCaKey;
+
+  private final ExpiringCacheTest.MutableClock clock = new ExpiringCacheTest.MutableClock();
+  private final AtomicReference<byte[]> base = new AtomicReference<>();
+  private final AtomicReference<byte[]> delta = new AtomicReference<>();
+
+  @BeforeAll
+  static void loadRootCa() throws Exception {
+    rootCa = X509CertUtils.parse(Files.readString(ROOT_CA.resolve("rootca.pem")));
+    rootCaKey = SdJwtVcFixture.signingKey(rootCa, ROOT_CA.resolve("rootca_private_key.pem"))
+        .toECPrivateKey();
+  }
+
+  @Test
+  void looksUpRevokedSerialNumbers() throws Exception {
+    base.set(crl(1, Duration.ofDays(1), revoked(10), revoked(11)));
+
+    try (RevocationChecker checker = checker(false).start()) {
+      assertThat(checker.size(), is(2));
+      assertThat(checker.isRevoked(BigInteger.valueOf(10)), is(true));
+      assertThat(checker.isRevoked(BigInteger.valueOf(12)), is(false));
+    }
+  }
+
+  @Test
+  void appliesDeltaOnTopOfBase() throws Exception {
+    base.set(crl(1, Duration.ofDays(7), revoked(10), revoked(11)));
+    delta.set(CrlFixture.deltaCrl(rootCa, rootCaKey, 2, 1, clock.instant(),
+        clock.instant().plus(Duration.ofHours(1)), List.of(revoked(12),
+            new CrlFixture.Entry(BigInteger.valueOf(11), clock.instant(),
+                CRLReason.REMOVE_FROM_CRL))));
+
+    try (RevocationChecker checker = checker(true).start()) {
+      assertThat(checker.isRevoked(BigInteger.valueOf(10)), is(true));
+      assertThat(checker.isRevoked(BigInteger.valueOf(11)), is(false));
+      assertThat(checker.isRevoked(BigInteger.valueOf(12)), is(true));
+    }
+  }
+
+  @Test
+  void refreshesOnlyWhatIsDue() throws Exception {
+    base.set(crl(1, Duration.ofDays(7), revoked(10)));
+    delta.set(CrlFixture.deltaCrl(rootCa, rootCaKey, 2, 1, clock.instant(),
+        clock.instant().plus(Duration.ofHours(1)), List.of()));
+
+    try (RevocationChecker checker = checker(true).start()) {
+      clock.advance(Duration.ofHours(2));
+      // A new base that is not yet due must not be fetched
+      base.set(crl(3, Duration.ofDays(7), revoked(20)));
+      delta.set(CrlFixture.deltaCrl(rootCa, rootCaKey, 4, 1, clock.instant(),
+          clock.instant().plus(Duration.ofHours(1)), List.of(revoked(13))));
+      checker.refresh();
+
+      assertThat(checker.isRevoked(BigInteger.valueOf(13)), is(true));
+      assertThat(checker.isRevoked(BigInteger.valueOf(20)), is(false));
+    }
+  }
+
+  @Test
+  void rejectsDeltaForNewerBase() throws Exception {
+    base.set(crl(1, Duration.ofDays(7)));
+    delta.set(CrlFixture.deltaCrl(rootCa, rootCaKey, 3, 2, clock.instant(),
+        clock.instant().plus(Duration.ofHours(1)), List.of()));
+
+    try (RevocationChecker checker = checker(true)) {
+      assertThat(assertThrows(IllegalStateException.class, checker::start).getMessage(),
+          containsString("needs base CRL 2"));
+    }
+  }
+
+  @Test
+  void rejectsCrlOfOtherIssuer() throws Exception {
+    X509Certificate trustSource = X509CertUtils.parse(Files.readString(TRUST_SOURCE_CERT));
+    base.set(crl(1, Duration.ofDays(1)));
+
+    try (RevocationChecker checker = new RevocationChecker(base::get, null, trustSource, clock,
+        Duration.ofMinutes(1))) {
+      assertThat(assertThrows(IllegalArgumentException.class, checker::start).getMessage(),
+          containsString("is issued by"));
+    }
+  }
+
+  @Test
+  void rejectsTamperedCrl() throws Exception {
+    byte[] crl = crl(1, Duration.ofDays(1), revoked(10));
+    // The last byte of the serial number of the only entry
+    int serial = indexOf(crl, new byte[] {0x02, 0x01, 10});
+    crl[serial + 2] = 11;
+    base.set(crl);
+
+    try (RevocationChecker checker = checker(false)) {
+      assertThat(assertThrows(IllegalArgumentException.class, checker::start).getMessage(),
+          containsString("Invalid CRL"));
+    }
+  }
+
+  @Test
+  void failsClosedWhenCrlIsStale() throws Exception {
+    base.set(crl(1, Duration.ofHours(1), revoked(10)));
+
+    try (RevocationChecker checker = checker(false).start()) {
+      clock.advance(Duration.ofHours(1).plus(RevocationChecker.STALE_GRACE).plusSeconds(1));
+
+      assertThat(assertThrows(IllegalStateException.class,
+          () -> checker.isRevoked(BigInteger.TEN)).getMessage(), containsString("CRL expired"));
+    }
+  }
+
+  @Test
+  void refreshesInBackgroundAtNextUpdate() throws Exception {
+    Instant now = Instant.now();
+    base.set(CrlFixture.crl(rootCa, rootCaKey, 1, now, now.plusSeconds(1), List.of()));
+
+    try (RevocationChecker checker = new RevocationChecker(base::get, null, rootCa,
+        Clock.systemUTC(), Duration.ofMillis(100)).start()) {
+      base.set(CrlFixture.crl(rootCa, rootCaKey, 2, now, now.plus(Duration.ofDays(1)),
+          List.of(new CrlFixture.Entry(BigInteger.TEN, now, null))));
+
+      long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      while (!checker.isRevoked(BigInteger.TEN) && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+      }
+      assertThat(checker.isRevoked(BigInteger.TEN), is(true));
+    }
+  }
+
+  @Test
+  void retriesFailedBackgroundRefresh() throws Exception {
+    Instant now = Instant.now();
+    base.set(CrlFixture.crl(rootCa, rootCaKey, 1, now, now.plusSeconds(1), List.of()));
+    AtomicInteger fetches = new AtomicInteger();
+    Supplier<byte[]> failingOnce = () -> {
+      if (fetches.incrementAndGet() == 2) {
+        throw new AssertionError("Expected status code <200> but was <503>");
+      }
+      return base.get();
+    };
+
+    try (RevocationChecker checker = new RevocationChecker(failingOnce, null, rootCa,
+        Clock.systemUTC(), Duration.ofMillis(100)).start()) {
+      base.set(CrlFixture.crl(rootCa, rootCaKey, 2, now, now.plus(Duration.ofDays(1)),
+          List.of(new CrlFixture.Entry(BigInteger.TEN, now, null))));
+
+      long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      while (!checker.isRevoked(BigInteger.TEN) && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+      }
+      assertThat(checker.isRevoked(BigInteger.TEN), is(true));
+      assertThat(fetches.get(), is(3));
+    }
+  }
+
+  @Test
+  void checksChainCertificatesIssuedByCa() throws Exception {
+    X509Certificate trustSource = X509CertUtils.parse(Files.readString(TRUST_SOURCE_CERT));
+    base.set(crl(1, Duration.ofDays(1), new CrlFixture.Entry(trustSource.getSerialNumber(),
+        clock.instant(), null)));
+
+    try (RevocationChecker checker = checker(false).start()) {
+      assertThat(assertThrows(IllegalArgumentException.class,
+          () -> checker.check(List.of(trustSource, rootCa))).getMessage(),
+          containsString("is revoked"));
+    }
+  }
+
+  @Test
+  void parsesTrustSourceRevocationList() throws Exception {
+    byte[] pem = Files.readAllBytes(Path.of("config", "trust-source", "revocation-list.pem"));
+
+    try (RevocationChecker checker = new RevocationChecker(() -> pem, null, rootCa,
+        Clock.systemUTC(), Duration.ofMinutes(1)).start()) {
+      assertThat(checker.size(), is(0));
+    }
+  }
+
+  private RevocationChecker checker(boolean withDelta) {
+    return new RevocationChecker(base::get, withDelta ? delta::get : null, rootCa, clock,
+        Duration.ofMinutes(1));
+  }
+
+  private byte[] crl(long number, Duration validity, CrlFixture.Entry... entries)
+      throws Exception {
+    return CrlFixture.crl(rootCa, rootCaKey, number, clock.instant(),
+        clock.instant().plus(validity), List.of(entries));
+  }
+
+  private CrlFixture.Entry revoked(long serialNumber) {
+    return new CrlFixture.Entry(BigInteger.valueOf(serialNumber), clock.instant(),
+        CRLReason.KEY_COMPROMISE);
+  }
+
+  private static int indexOf(byte[] haystack, byte[] needle) {
+    for (int i = 0; i <= haystack.length - needle.length; i++) {
+      if (Arrays.equals(haystack, i, i + needle.length, needle, 0, needle.length)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Not found");
+  }
+}
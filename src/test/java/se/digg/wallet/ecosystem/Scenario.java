@@ -0,0 +1,128 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static se.digg.wallet.ecosystem.RestAssuredSugar.given;
+
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.restassured.http.ContentType;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The PID issuance and presentation flow: a verifier creates a presentation request by reference,
+ * the wallet fetches the request object, is issued a PID, presents it with a {@code vp_token} over
+ * {@code direct_post}, and the verifier polls for the result. Every run uses its own nonce, DCQL
+ * query id and binding key, so runs can be executed concurrently.
+ */
+public class Scenario {
+
+  public static final String PRESENTATION_REQUEST = "presentation request";
+  public static final String REQUEST_OBJECT = "request object";
+  public static final String ISSUANCE = "issuance";
+  public static final String VP_TOKEN = "vp_token";
+  public static final String DIRECT_POST = "direct_post";
+  public static final String STATUS_POLL = "status poll";
+
+  public static final List<String> STAGES = List.of(
+      PRESENTATION_REQUEST, REQUEST_OBJECT, ISSUANCE, VP_TOKEN, DIRECT_POST, STATUS_POLL);
+
+  /**
+   * What the verifier received in one run, and the {@code notification_id} of the issued
+   * credential.
+   */
+  public record Run(String transactionId, String nonce, String dcqlId, SdJwtVc presented,
+      String notificationId) {
+  }
+
+  private record RequestObject(String state, String responseUri) {
+  }
+
+  private final IssuanceAgent issuer;
+  private final VerifierBackendClient verifierBackend;
+  private final LatencyRecorder latency;
+
+  public Scenario(IssuanceAgent issuer) {
+    this(issuer, new VerifierBackendClient());
+  }
+
+  public Scenario(IssuanceAgent issuer, VerifierBackendClient verifierBackend) {
+    this(issuer, verifierBackend, LatencyRecorder.NONE);
+  }
+
+  private Scenario(
+      IssuanceAgent issuer, VerifierBackendClient verifierBackend, LatencyRecorder latency) {
+    this.issuer = issuer;
+    this.verifierBackend = verifierBackend;
+    this.latency = latency;
+  }
+
+  public Scenario withLatencyRecorder(LatencyRecorder latency) {
+    return new Scenario(issuer, verifierBackend, latency);
+  }
+
+  public Run run(String username, String password) throws Exception {
+    String nonce = UUID.randomUUID().toString();
+    String dcqlId = UUID.randomUUID().toString();
+
+    VerifierPresentationResponse transaction = latency.time(PRESENTATION_REQUEST,
+        () -> verifierBackend.createPresentationRequestByReference(nonce, dcqlId));
+
+    RequestObject requestObject = latency.time(REQUEST_OBJECT, () -> {
+      String authRequest = given()
+          .baseUri(transaction.request_uri())
+          .when()
+          .get()
+          .then()
+          .assertThat()
+          .statusCode(200)
+          .extract()
+          .asString();
+      JWTClaimsSet claims = SignedJWT.parse(authRequest).getJWTClaimsSet();
+      return new RequestObject(
+          claims.getStringClaim("state"), claims.getStringClaim("response_uri"));
+    });
+
+    ECKey bindingKey = EcKeyPool.shared().take(KeyPurpose.BINDING);
+    IssuanceAgent.Issuance issuance = latency.time(ISSUANCE,
+        () -> issuer.issue(List.of(bindingKey), username, password));
+    String rawCredential = issuance.credentials().getFirst();
+
+    String vpToken = latency.time(VP_TOKEN,
+        () -> VerifiablePresentationToken.asString(rawCredential, bindingKey, nonce));
+
+    latency.time(DIRECT_POST, () -> given()
+        .baseUri(requestObject.responseUri())
+        .contentType(ContentType.URLENC)
+        .formParam("state", requestObject.state())
+        .formParam("vp_token", String.format("{ \"%s\": [ \"%s\" ] }", dcqlId, vpToken))
+        .when()
+        .post()
+        .then()
+        .assertThat()
+        .statusCode(200));
+
+    String presented = latency.time(STATUS_POLL, () -> {
+      Map<String, List<String>> vpTokens = verifierBackend
+          .getPresentationsStatus(transaction.transaction_id())
+          .then()
+          .assertThat()
+          .statusCode(200)
+          .extract()
+          .jsonPath()
+          .getMap("vp_token");
+      if (vpTokens == null || vpTokens.get(dcqlId) == null) {
+        throw new IllegalStateException("Verifier has no vp_token for " + dcqlId);
+      }
+      return vpTokens.get(dcqlId).getFirst();
+    });
+
+    return new Run(transaction.transaction_id(), nonce, dcqlId, SdJwtVc.parse(presented),
+        issuance.notificationId());
+  }
+}
@@ -0,0 +1,51 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.util.List;
+
+/**
+ * Runs the issuance and presentation {@link Scenario} from many concurrent workers, half of them
+ * using internal wallets and half public wallets. Every stage is recorded per wallet type, e.g.
+ * {@code "public direct_post"}, together with the whole run, e.g. {@code "public scenario"}.
+ */
+public class ScenarioLoadGenerator {
+
+  public static final String SCENARIO = "scenario";
+
+  private record Wallet(String name, Scenario scenario) {
+  }
+
+  private final List<Wallet> wallets;
+
+  public ScenarioLoadGenerator() {
+    this(new Scenario(new IssuanceAgent(new InternalWalletClient()).withCachedTokens()),
+        new Scenario(new IssuanceAgent(new PublicWalletClient()).withCachedTokens()));
+  }
+
+  public ScenarioLoadGenerator(Scenario internal, Scenario publicWallet) {
+    this.wallets = List.of(new Wallet("internal", internal), new Wallet("public", publicWallet));
+  }
+
+  public static String stage(String wallet, String stage) {
+    return wallet + " " + stage;
+  }
+
+  public LoadDriver.Result run(LoadProfile profile, LatencyRecorder report) {
+    List<Wallet> instrumented = wallets.stream()
+        .map(wallet -> new Wallet(wallet.name(), wallet.scenario().withLatencyRecorder(
+            (stage, nanos, success) -> report.record(stage(wallet.name(), stage), nanos, success))))
+        .toList();
+
+    return LoadDriver.run(profile, (worker, iteration) -> {
+      Wallet wallet = instrumented.get(worker % instrumented.size());
+      String username = IssuanceLoadGenerator.FICTIVE_USERS.get(
+          (int) ((worker + iteration) % IssuanceLoadGenerator.FICTIVE_USERS.size()));
+
+      report.time(stage(wallet.name(), SCENARIO),
+          () -> wallet.scenario().run(username, "password"));
+    });
+  }
+}
@@ -0,0 +1,40 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS",
+    matches = "true")
+@Isolated
+class ScenarioLoadTest {
+
+  @Test
+  void sustainsIssuanceAndPresentationOfPid() {
+    LoadProfile profile = LoadProfile.fromEnvironment();
+    LatencyReport report = new LatencyReport();
+
+    LoadDriver.Result result = new ScenarioLoadGenerator().run(profile, report);
+
+    System.out.format("PID issuance and presentation with %s%n", profile);
+    System.out.format("%s", report.format(result.elapsed()));
+    System.out.format("%d of %d scenarios failed over %s%n",
+        result.failures(), result.iterations(), result.elapsed());
+    if (result.firstFailure() != null) {
+      result.firstFailure().printStackTrace(System.out);
+    }
+
+    for (String wallet : new String[] {"internal", "public"}) {
+      assertThat(report.count(ScenarioLoadGenerator.stage(wallet, ScenarioLoadGenerator.SCENARIO)),
+          greaterThan(0L));
+    }
+  }
+}
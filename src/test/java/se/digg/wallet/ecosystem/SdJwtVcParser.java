@@ -0,0 +1,176 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.nimbusds.jwt.SignedJWT;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Parses the compact {@code <issuer-jwt>~<disclosure>~...~[<kb-jwt>]} form of an SD-JWT VC in a
+ * single pass. Disclosures are base64url-decoded into a reused byte buffer and read with Jackson's
+ * streaming parser, so no intermediate strings or trees are built. The issuer JWT payload is only
+ * parsed when its claims are first read. The result is the same as the previous split and
+ * {@code readTree} based parsing of {@link SdJwtVc#parse(String)}.
+ */
+final class SdJwtVcParser {
+  private SdJwtVcParser() {}
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private static final byte[] BASE64URL = new byte[128];
+
+  static {
+    Arrays.fill(BASE64URL, (byte) -1);
+    String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    for (int i = 0; i < alphabet.length(); i++) {
+      BASE64URL[alphabet.charAt(i)] = (byte) i;
+    }
+  }
+
+  static SdJwtVc parse(String raw) {
+    Objects.requireNonNull(raw, "raw SD-JWT string must not be null");
+    int end = raw.indexOf('~');
+    if (end < 0) {
+      end = raw.length();
+    }
+    if (isBlank(raw, 0, end)) {
+      throw new IllegalArgumentException("Invalid SD-JWT: missing issuer JWT header");
+    }
+
+    SignedJWT issuerJwt;
+    try {
+      issuerJwt = SignedJWT.parse(raw.substring(0, end));
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Failed to parse issuer SignedJWT", e);
+    }
+
+    Map<String, String> claims = new HashMap<>();
+    byte[] buffer = new byte[0];
+    for (int start = end + 1; start < raw.length(); start = end + 1) {
+      end = raw.indexOf('~', start);
+      if (end < 0) {
+        end = raw.length();
+      }
+      if (isBlank(raw, start, end) || contains(raw, start, end, '.')) {
+        continue;
+      }
+
+      int maxLength = (end - start) * 3 / 4 + 3;
+      if (buffer.length < maxLength) {
+        buffer = new byte[maxLength];
+      }
+      int length = decodeBase64Url(raw, start, end, buffer);
+      try {
+        readDisclosure(buffer, length, claims);
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Failed to parse SD-JWT disclosure", e);
+      }
+    }
+
+    return new SdJwtVc(issuerJwt, claims);
+  }
+
+  /**
+   * Adds the claim of a {@code [salt, name, value]} disclosure to the map. Other JSON values are
+   * read to the end, so malformed input fails the same way as when reading a tree, and ignored.
+   */
+  private static void readDisclosure(byte[] json, int length, Map<String, String> claims)
+      throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(json, 0, length)) {
+      JsonToken token = parser.nextToken();
+      if (token != JsonToken.START_ARRAY) {
+        parser.skipChildren();
+        return;
+      }
+
+      int index = 0;
+      String name = null;
+      String value = null;
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (index == 1) {
+          name = asText(parser);
+        } else if (index == 2) {
+          value = asText(parser);
+        } else {
+          parser.skipChildren();
+        }
+        index++;
+      }
+      if (index == 3) {
+        claims.put(name, value);
+      }
+    }
+  }
+
+  /** The text of the current value, matching {@code JsonNode.asText()}. */
+  private static String asText(JsonParser parser) throws IOException {
+    return switch (parser.currentToken()) {
+      case VALUE_STRING -> parser.getText();
+      case VALUE_NUMBER_INT -> parser.getNumberValue().toString();
+      case VALUE_NUMBER_FLOAT -> Double.toString(parser.getDoubleValue());
+      case VALUE_TRUE -> "true";
+      case VALUE_FALSE -> "false";
+      case VALUE_NULL -> "null";
+      default -> {
+        parser.skipChildren();
+        yield "";
+      }
+    };
+  }
+
+  private static int decodeBase64Url(String source, int start, int end, byte[] target) {
+    int padding = 0;
+    while (end - padding > start && padding < 2 && source.charAt(end - padding - 1) == '=') {
+      padding++;
+    }
+    if (padding > 0 && (end - start) % 4 != 0 || (end - start - padding) % 4 == 1) {
+      throw new IllegalArgumentException("Invalid base64url length in SD-JWT disclosure");
+    }
+
+    int length = 0;
+    int bits = 0;
+    int accumulator = 0;
+    for (int i = start; i < end - padding; i++) {
+      char c = source.charAt(i);
+      int sextet = c < BASE64URL.length ? BASE64URL[c] : -1;
+      if (sextet < 0) {
+        throw new IllegalArgumentException("Illegal base64url character in SD-JWT disclosure");
+      }
+      accumulator = (accumulator << 6 | sextet) & 0xFFFF;
+      bits += 6;
+      if (bits >= 8) {
+        bits -= 8;
+        target[length++] = (byte) (accumulator >> bits);
+      }
+    }
+    return length;
+  }
+
+  private static boolean contains(String source, int start, int end, char c) {
+    for (int i = start; i < end; i++) {
+      if (source.charAt(i) == c) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isBlank(String source, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!Character.isWhitespace(source.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
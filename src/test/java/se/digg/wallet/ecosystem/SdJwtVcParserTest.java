@@ -0,0 +1,157 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SdJwtVcParserTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static ECKey holderKey;
+  private static String issuerJwt;
+
+  @BeforeAll
+  static void issue() throws Exception {
+    ECKey issuerKey = new ECKeyGenerator(Curve.P_256).keyID("issuer").generate();
+    holderKey = new ECKeyGenerator(Curve.P_256).generate();
+    issuerJwt = SdJwtVcFixture.issue(issuerKey, holderKey, Map.of());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "[\"salt\", \"given_name\", \"Åsa\"]",
+      "[\"salt\", \"age_in_years\", 42]",
+      "[\"salt\", \"big\", 123456789012345678901234567890]",
+      "[\"salt\", \"long\", -9007199254740993]",
+      "[\"salt\", \"float\", 1.50]",
+      "[\"salt\", \"exponent\", 1e400]",
+      "[\"salt\", \"age_over_18\", true]",
+      "[\"salt\", \"revoked\", false]",
+      "[\"salt\", \"middle_name\", null]",
+      "[\"salt\", \"address\", {\"locality\": \"Sundsvall\", \"nested\": [1, 2]}]",
+      "[\"salt\", \"nationalities\", [\"SE\", \"FI\"]]",
+      "[\"salt\", 7, \"numeric name\"]",
+      "[\"salt\", \"escaped\", \"line\\nbreak \\u00e5 \\\"quoted\\\"\"]",
+      "  [ \"salt\" , \"spaced\" , \"value\" ]  ",
+      "[\"salt\", \"two\"]",
+      "[\"salt\", \"four\", \"a\", \"b\"]",
+      "[{\"salt\": 1}, \"object salt\", \"value\"]",
+      "{\"not\": \"an array\"}",
+      "\"just a string\"",
+      "[\"salt\", \"trailing\", \"value\"] ignored",
+      ""
+  })
+  void parse_matchesTreeBasedParsing(String disclosure) {
+    String raw = issuerJwt + encode(disclosure) + "~";
+
+    assertThat(SdJwtVc.parse(raw).disclosedClaims(), equalTo(parseWithTree(raw)));
+  }
+
+  @Test
+  void parse_ignoresKeyBindingJwtAndBlankParts() throws Exception {
+    String raw = VerifiablePresentationToken.asString(
+        issuerJwt + encode("[\"s\", \"a\", \"1\"]") + "~~ ~" + encode("[\"s\", \"b\", \"2\"]")
+            + "~",
+        holderKey, "nonce");
+
+    SdJwtVc sdJwtVc = SdJwtVc.parse(raw);
+
+    assertThat(sdJwtVc.disclosedClaims(), equalTo(Map.of("a", "1", "b", "2")));
+    assertThat(sdJwtVc.getIssuer(), equalTo(ServiceIdentifier.PID_ISSUER.toString()));
+  }
+
+  @Test
+  void parse_letsLastDuplicateDisclosureWin() {
+    String raw = issuerJwt + encode("[\"s\", \"a\", \"first\"]") + "~"
+        + encode("[\"s\", \"a\", \"second\"]") + "~";
+
+    assertThat(SdJwtVc.parse(raw).disclosedClaims(), equalTo(Map.of("a", "second")));
+  }
+
+  @Test
+  void parse_acceptsPaddedDisclosures() {
+    String padded = Base64.getUrlEncoder()
+        .encodeToString("[\"s\", \"a\", \"b\"]".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(SdJwtVc.parse(issuerJwt + padded + "~").disclosedClaims(),
+        equalTo(Map.of("a", "b")));
+  }
+
+  @Test
+  void parse_withoutDisclosures_returnsNoClaims() {
+    assertThat(SdJwtVc.parse(issuerJwt).disclosedClaims(), anEmptyMap());
+    assertThat(SdJwtVc.parse(issuerJwt.substring(0, issuerJwt.length() - 1)).disclosedClaims(),
+        anEmptyMap());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "~", " ~abc~", "~~~"})
+  void parse_withoutIssuerJwt_throws(String raw) {
+    assertThrows(IllegalArgumentException.class, () -> SdJwtVc.parse(raw));
+  }
+
+  @Test
+  void parse_withMalformedIssuerJwt_throws() {
+    assertThrows(IllegalArgumentException.class, () -> SdJwtVc.parse("not-a-jwt~"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"a*b", "abcde", "ab=c"})
+  void parse_withMalformedBase64_throws(String disclosure) {
+    assertThrows(IllegalArgumentException.class,
+        () -> SdJwtVc.parse(issuerJwt + disclosure + "~"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"[\"salt\", \"a\"", "[\"salt\", \"a\", \"b\", {]", "{\"a\": }", "nope"})
+  void parse_withMalformedDisclosureJson_throws(String disclosure) {
+    assertThrows(IllegalArgumentException.class,
+        () -> SdJwtVc.parse(issuerJwt + encode(disclosure) + "~"));
+  }
+
+  private static String encode(String json) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** The disclosed claims as read by the split and readTree based parser SdJwtVc used to have. */
+  private static Map<String, String> parseWithTree(String raw) {
+    Map<String, String> claims = new HashMap<>();
+    String[] parts = raw.split("~");
+    for (int i = 1; i < parts.length; i++) {
+      if (parts[i].isBlank() || parts[i].contains(".")) {
+        continue;
+      }
+      try {
+        JsonNode node = OBJECT_MAPPER.readTree(
+            new String(Base64.getUrlDecoder().decode(parts[i]), StandardCharsets.UTF_8));
+        if (node.isArray() && node.size() == 3) {
+          claims.put(node.get(1).asText(), node.get(2).asText());
+        }
+      } catch (Exception e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+    return claims;
+  }
+}
@@ -0,0 +1,393 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static se.digg.wallet.ecosystem.RestAssuredSugar.given;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.X509CertUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.cert.CertPathValidator;
+import java.security.cert.CertificateFactory;
+import java.security.cert.PKIXParameters;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Verifies SD-JWT VCs and presentations of them: the issuer signature, that every disclosure is
+ * referenced by a digest signed by the issuer, and for presentations the key binding JWT. The
+ * issuer key is taken from the {@code x5c} header, or looked up by {@code kid} in the JWKS of the
+ * issuer's JWT VC issuer metadata. Either way the resulting verifier is cached, keyed by issuer and
+ * the SHA-256 thumbprint of the leaf certificate or by issuer and kid, so verifying many
+ * credentials from the same issuer does not parse certificates or fetch the JWKS again until the
+ * entry expires. The {@code iss} must be an allowed issuer on both paths, and an x5c chain must
+ * validate up to a trust anchor and end in a certificate of that issuer.
+ */
+public class SdJwtVcVerifier {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final JOSEObjectType KEY_BINDING_TYPE = new JOSEObjectType("kb+jwt");
+  private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+  private static final Duration MAX_KEY_BINDING_AGE = Duration.ofMinutes(5);
+
+  private final Function<String, JWKSet> jwksSource;
+  private final Set<TrustAnchor> trustAnchors;
+  private final Set<String> trustedIssuers;
+  private final BiPredicate<String, X509Certificate> issuerCertificates;
+  private final ExpiringCache<String, JWSVerifier> issuerKeys;
+  private final Clock clock;
+
+  /**
+   * Verifies credentials of the ecosystem's PID issuer, with x5c chains up to the ecosystem root CA
+   * that end in a PID issuance certificate of trust-source's trusted entities list, or keys from
+   * the PID issuer's JWKS.
+   */
+  public SdJwtVcVerifier() {
+    this(SdJwtVcVerifier::fetchJwtVcIssuerJwks, Certificates.rootCaAnchor(),
+        Set.of(ServiceIdentifier.PID_ISSUER.toString()), listedPidIssuers(),
+        Duration.ofMinutes(5), 256, Clock.systemUTC());
+  }
+
+  /**
+   * Creates a verifier with its own issuer key cache.
+   *
+   * @param jwksSource the JWKS of an issuer, used for credentials that carry a kid but no x5c
+   * @param trustAnchors x5c chains must validate up to one of these
+   * @param trustedIssuers the issuers whose credentials are accepted
+   * @param issuerCertificates whether an x5c leaf certificate belongs to the issuer
+   * @param ttl how long a resolved issuer key is cached
+   * @param maxKeys how many issuer keys are cached at most
+   */
+  public SdJwtVcVerifier(Function<String, JWKSet> jwksSource, Set<TrustAnchor> trustAnchors,
+      Set<String> trustedIssuers, BiPredicate<String, X509Certificate> issuerCertificates,
+      Duration ttl, int maxKeys, Clock clock) {
+    if (trustAnchors.isEmpty()) {
+      throw new IllegalArgumentException("At least one trust anchor is required");
+    }
+    this.jwksSource = jwksSource;
+    this.trustAnchors = Set.copyOf(trustAnchors);
+    this.trustedIssuers = Set.copyOf(trustedIssuers);
+    this.issuerCertificates = issuerCertificates;
+    this.issuerKeys = new ExpiringCache<>(ttl, maxKeys, clock);
+    this.clock = clock;
+  }
+
+  /** Verifies an issued SD-JWT VC. A trailing key binding JWT, if any, is not checked. */
+  public SdJwtVc verify(String sdJwtVc) {
+    int end = sdJwtVc.indexOf('~');
+    SignedJWT issuerJwt;
+    try {
+      issuerJwt = SignedJWT.parse(end < 0 ? sdJwtVc : sdJwtVc.substring(0, end));
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Invalid SD-JWT: malformed issuer JWT", e);
+    }
+    JWTClaimsSet claims = verifyIssuerJwt(issuerJwt);
+    return new SdJwtVc(issuerJwt, verifyDisclosures(claims, disclosures(sdJwtVc)));
+  }
+
+  /**
+   * Verifies a presentation as produced by {@link VerifiablePresentationToken}: the SD-JWT VC
+   * followed by a key binding JWT signed with the key in {@code cnf.jwk}, for the given audience
+   * and nonce.
+   */
+  public SdJwtVc verifyPresentation(String presentation, String audience, String nonce) {
+    SdJwtVc parsed = verify(presentation);
+
+    int end = presentation.lastIndexOf('~') + 1;
+    if (end == presentation.length()) {
+      throw new IllegalArgumentException("Invalid SD-JWT presentation: missing key binding JWT");
+    }
+    try {
+      verifyKeyBinding(
+          parsed.issuerJwt().getJWTClaimsSet(),
+          SignedJWT.parse(presentation.substring(end)),
+          presentation.substring(0, end), audience, nonce);
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Invalid SD-JWT presentation: malformed key binding JWT",
+          e);
+    }
+    return parsed;
+  }
+
+  private JWTClaimsSet verifyIssuerJwt(SignedJWT issuerJwt) {
+    try {
+      JWTClaimsSet claims = issuerJwt.getJWTClaimsSet();
+      if (!issuerJwt.verify(issuerVerifier(issuerJwt, claims.getIssuer()))) {
+        throw new IllegalArgumentException("Invalid SD-JWT: issuer signature does not verify");
+      }
+      Instant now = clock.instant();
+      if (claims.getExpirationTime() != null
+          && now.minus(CLOCK_SKEW).isAfter(claims.getExpirationTime().toInstant())) {
+        throw new IllegalArgumentException("Invalid SD-JWT: expired");
+      }
+      if (claims.getNotBeforeTime() != null
+          && now.plus(CLOCK_SKEW).isBefore(claims.getNotBeforeTime().toInstant())) {
+        throw new IllegalArgumentException("Invalid SD-JWT: not yet valid");
+      }
+      return claims;
+    } catch (ParseException | JOSEException e) {
+      throw new IllegalArgumentException("Invalid SD-JWT: unable to verify issuer JWT", e);
+    }
+  }
+
+  private JWSVerifier issuerVerifier(SignedJWT issuerJwt, String issuer) {
+    if (issuer == null || !trustedIssuers.contains(issuer)) {
+      throw new IllegalArgumentException("Invalid SD-JWT: issuer " + issuer + " is not trusted");
+    }
+    List<Base64> x5c = issuerJwt.getHeader().getX509CertChain();
+    if (x5c != null && !x5c.isEmpty()) {
+      String thumbprint = Sha256.base64Url(x5c.getFirst().decode());
+      return issuerKeys.get("x5c:" + issuer + "#" + thumbprint, key -> verifierFor(issuer, x5c));
+    }
+
+    String kid = issuerJwt.getHeader().getKeyID();
+    if (kid != null) {
+      return issuerKeys.get("kid:" + issuer + "#" + kid, key -> {
+        JWK jwk = jwksSource.apply(issuer).getKeyByKeyId(kid);
+        if (jwk == null) {
+          throw new IllegalArgumentException("Invalid SD-JWT: unknown issuer key " + kid);
+        }
+        return verifierFor(jwk);
+      });
+    }
+
+    throw new IllegalArgumentException("Invalid SD-JWT: issuer JWT has neither x5c nor kid");
+  }
+
+  private JWSVerifier verifierFor(String issuer, List<Base64> x5c) {
+    List<X509Certificate> chain = new ArrayList<>(x5c.size());
+    for (Base64 encoded : x5c) {
+      X509Certificate certificate = X509CertUtils.parse(encoded.decode());
+      if (certificate == null) {
+        throw new IllegalArgumentException("Invalid SD-JWT: malformed x5c certificate");
+      }
+      chain.add(certificate);
+    }
+
+    try {
+      Date now = Date.from(clock.instant());
+      chain.getFirst().checkValidity(now);
+      PKIXParameters parameters = new PKIXParameters(trustAnchors);
+      parameters.setRevocationEnabled(false);
+      parameters.setDate(now);
+      CertPathValidator.getInstance("PKIX").validate(
+          CertificateFactory.getInstance("X.509").generateCertPath(chain), parameters);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Invalid SD-JWT: issuer certificate is not trusted", e);
+    }
+    if (!issuerCertificates.test(issuer, chain.getFirst())) {
+      throw new IllegalArgumentException("Invalid SD-JWT: "
+          + chain.getFirst().getSubjectX500Principal() + " is not a certificate of " + issuer);
+    }
+    return verifierFor(chain.getFirst().getPublicKey());
+  }
+
+  private static JWSVerifier verifierFor(PublicKey publicKey) {
+    try {
+      if (publicKey instanceof ECPublicKey ecPublicKey) {
+        return new ECDSAVerifier(ecPublicKey);
+      } else if (publicKey instanceof RSAPublicKey rsaPublicKey) {
+        return new RSASSAVerifier(rsaPublicKey);
+      }
+    } catch (JOSEException e) {
+      throw new IllegalArgumentException("Invalid SD-JWT: unsupported issuer key", e);
+    }
+    throw new IllegalArgumentException(
+        "Unsupported public key type: " + publicKey.getClass().getName());
+  }
+
+  private static JWSVerifier verifierFor(JWK jwk) {
+    try {
+      if (jwk instanceof ECKey ecKey) {
+        return new ECDSAVerifier(ecKey);
+      } else if (jwk instanceof RSAKey rsaKey) {
+        return new RSASSAVerifier(rsaKey);
+      }
+    } catch (JOSEException e) {
+      throw new IllegalArgumentException("Invalid SD-JWT: unsupported issuer key", e);
+    }
+    throw new IllegalArgumentException("Unsupported key type: " + jwk.getKeyType());
+  }
+
+  /** Accepts the certificates that trust-source lists for granted PID issuance services. */
+  private static BiPredicate<String, X509Certificate> listedPidIssuers() {
+    TrustedEntitiesClient trustedEntities = new TrustedEntitiesClient();
+    return (issuer, certificate) -> trustedEntities.isTrusted(TrustedEntitiesList.PID_ISSUANCE,
+        certificate);
+  }
+
+  /**
+   * Checks that every disclosure is referenced exactly once, either from the signed payload or from
+   * another disclosure, with the digest algorithm the issuer declared, and returns the claims of
+   * the {@code [salt, name, value]} disclosures. Each disclosure is decoded once.
+   */
+  private static Map<String, String> verifyDisclosures(JWTClaimsSet claims,
+      List<String> disclosures) {
+    Object algorithm = claims.getClaim("_sd_alg");
+    if (algorithm != null && !"sha-256".equals(algorithm)) {
+      throw new IllegalArgumentException("Invalid SD-JWT: unsupported _sd_alg " + algorithm);
+    }
+
+    Set<String> referenced = new HashSet<>();
+    collectDigests(claims.toJSONObject(), referenced);
+    Map<String, String> disclosed = new HashMap<>();
+    for (String disclosure : disclosures) {
+      Object decoded;
+      try {
+        decoded = OBJECT_MAPPER.readValue(new Base64URL(disclosure).decode(), Object.class);
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Invalid SD-JWT: malformed disclosure", e);
+      }
+      collectDigests(decoded, referenced);
+      if (decoded instanceof List<?> claim && claim.size() == 3) {
+        disclosed.put(text(claim.get(1)), text(claim.get(2)));
+      }
+    }
+
+    Set<String> seen = new HashSet<>();
+    for (String disclosure : disclosures) {
+      String digest = Sha256.base64Url(disclosure.getBytes(StandardCharsets.US_ASCII));
+      if (!referenced.contains(digest)) {
+        throw new IllegalArgumentException(
+            "Invalid SD-JWT: disclosure is not referenced by the issuer");
+      }
+      if (!seen.add(digest)) {
+        throw new IllegalArgumentException("Invalid SD-JWT: disclosure is repeated");
+      }
+    }
+    return disclosed;
+  }
+
+  /** The text of a disclosed JSON value, as {@link SdJwtVc#parse} reads it. */
+  private static String text(Object value) {
+    if (value instanceof Map<?, ?> || value instanceof List<?>) {
+      return "";
+    }
+    return String.valueOf(value);
+  }
+
+  /** Adds the digests of {@code _sd} arrays and {@code {"...": digest}} array elements. */
+  private static void collectDigests(Object node, Set<String> digests) {
+    if (node instanceof Map<?, ?> map) {
+      if (map.get("_sd") instanceof List<?> sd) {
+        sd.stream().filter(String.class::isInstance).map(String.class::cast).forEach(digests::add);
+      }
+      if (map.size() == 1 && map.get("...") instanceof String digest) {
+        digests.add(digest);
+      }
+      map.values().forEach(value -> collectDigests(value, digests));
+    } else if (node instanceof List<?> list) {
+      list.forEach(value -> collectDigests(value, digests));
+    }
+  }
+
+  private void verifyKeyBinding(JWTClaimsSet issuerClaims, SignedJWT keyBindingJwt,
+      String presented, String audience, String nonce) throws ParseException {
+    if (!KEY_BINDING_TYPE.equals(keyBindingJwt.getHeader().getType())) {
+      throw new IllegalArgumentException(
+          "Invalid SD-JWT presentation: key binding JWT has wrong typ");
+    }
+
+    Map<String, Object> cnf = issuerClaims.getJSONObjectClaim("cnf");
+    if (cnf == null || !(cnf.get("jwk") instanceof Map<?, ?> holderJwk)) {
+      throw new IllegalArgumentException("Invalid SD-JWT: missing cnf.jwk");
+    }
+    try {
+      @SuppressWarnings("unchecked")
+      JWK holderKey = JWK.parse((Map<String, Object>) holderJwk);
+      if (!keyBindingJwt.verify(verifierFor(holderKey))) {
+        throw new IllegalArgumentException(
+            "Invalid SD-JWT presentation: key binding signature does not verify");
+      }
+    } catch (JOSEException e) {
+      throw new IllegalArgumentException(
+          "Invalid SD-JWT presentation: unable to verify key binding",
+          e);
+    }
+
+    JWTClaimsSet claims = keyBindingJwt.getJWTClaimsSet();
+    if (!Objects.equals(nonce, claims.getStringClaim("nonce"))) {
+      throw new IllegalArgumentException("Invalid SD-JWT presentation: nonce mismatch");
+    }
+    if (claims.getAudience() == null || !claims.getAudience().contains(audience)) {
+      throw new IllegalArgumentException("Invalid SD-JWT presentation: audience mismatch");
+    }
+    Instant now = clock.instant();
+    Date issuedAt = claims.getIssueTime();
+    if (issuedAt == null
+        || issuedAt.toInstant().isAfter(now.plus(CLOCK_SKEW))
+        || issuedAt.toInstant().isBefore(now.minus(MAX_KEY_BINDING_AGE).minus(CLOCK_SKEW))) {
+      throw new IllegalArgumentException("Invalid SD-JWT presentation: key binding JWT is stale");
+    }
+    String expectedHash = Sha256.base64Url(presented.getBytes(StandardCharsets.UTF_8));
+    if (!expectedHash.equals(claims.getStringClaim("sd_hash"))) {
+      throw new IllegalArgumentException("Invalid SD-JWT presentation: sd_hash mismatch");
+    }
+  }
+
+  /** The disclosures between the issuer JWT and the last {@code ~}. */
+  private static List<String> disclosures(String raw) {
+    List<String> disclosures = new ArrayList<>();
+    int start = raw.indexOf('~') + 1;
+    if (start == 0) {
+      return disclosures;
+    }
+    for (int end = raw.indexOf('~', start); end >= 0; end = raw.indexOf('~', start)) {
+      if (end == start) {
+        throw new IllegalArgumentException("Invalid SD-JWT: empty disclosure");
+      }
+      disclosures.add(raw.substring(start, end));
+      start = end + 1;
+    }
+    return disclosures;
+  }
+
+  /** The JWKS of the issuer's JWT VC issuer metadata, located as in the OpenID4VCI spec. */
+  static JWKSet fetchJwtVcIssuerJwks(String issuer) {
+    URI metadata = MetadataLocationStrategy.OID4VCI_COMPLIANT
+        .applyTo(URI.create(issuer), "/.well-known/jwt-vc-issuer");
+    Map<String, Object> jwks = given().get(metadata)
+        .then().assertThat().statusCode(200)
+        .extract().path("jwks");
+    try {
+      return JWKSet.parse(jwks);
+    } catch (ParseException e) {
+      throw new IllegalStateException("Invalid JWKS in JWT VC issuer metadata of " + issuer, e);
+    }
+  }
+}
@@ -0,0 +1,253 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.X509CertUtils;
+import com.nimbusds.jwt.SignedJWT;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SdJwtVcVerifierTest {
+
+  private static final Path CERTIFICATES = Path.of("config", "certificates");
+  private static final String AUDIENCE = VerifierBackendClient.VERIFIER_AUDIENCE;
+  private static final Map<String, Object> CLAIMS =
+      Map.of("given_name", "Tyler", "family_name", "Neal", "age_over_18", true);
+
+  private static ECKey issuerKey;
+  private static ECKey holderKey;
+  private static X509Certificate rootCa;
+  private static ECKey pidIssuerKey;
+  private static TrustedEntitiesList trustedEntities;
+
+  @BeforeAll
+  static void generateKeys() throws Exception {
+    issuerKey = new ECKeyGenerator(Curve.P_256).keyID("issuer-key").generate();
+    holderKey = new ECKeyGenerator(Curve.P_256).generate();
+    rootCa = X509CertUtils.parse(
+        Files.readString(CERTIFICATES.resolve("rootca/rootca.pem")));
+
+    KeyStore keyStore = KeyStore.getInstance("PKCS12");
+    try (InputStream in = Files.newInputStream(CERTIFICATES.resolve("issuer/pid_issuer.p12"))) {
+      keyStore.load(in, "pass1234".toCharArray());
+    }
+    X509Certificate pidIssuerCert = (X509Certificate) keyStore.getCertificate("pid_issuer");
+    pidIssuerKey = new ECKey.Builder(Curve.P_256, (ECPublicKey) pidIssuerCert.getPublicKey())
+        .privateKey((PrivateKey) keyStore.getKey("pid_issuer", "pass1234".toCharArray()))
+        .x509CertChain(List.of(Base64.encode(pidIssuerCert.getEncoded())))
+        .build();
+    trustedEntities = TrustedEntitiesList.parse(SignedJWT.parse(Files.readString(
+        Path.of("config", "trust-source", "signed", "trusted-entities.json")).trim())
+        .getJWTClaimsSet().getJSONObjectClaim("LoTE"));
+  }
+
+  @Test
+  void verifiesPresentationSignedWithKidFromJwks() throws Exception {
+    AtomicInteger fetches = new AtomicInteger();
+    SdJwtVcVerifier verifier = verifier(issuer -> {
+      fetches.incrementAndGet();
+      return new JWKSet(issuerKey.toPublicJWK());
+    });
+
+    for (int i = 0; i < 3; i++) {
+      String presentation = VerifiablePresentationToken.asString(
+          SdJwtVcFixture.issue(issuerKey, holderKey, CLAIMS), holderKey, "nonce-" + i);
+
+      SdJwtVc verified = verifier.verifyPresentation(presentation, AUDIENCE, "nonce-" + i);
+      assertThat(verified.getDisclosedClaim("given_name"), is("Tyler"));
+      assertThat(verified.getDisclosedClaim("age_over_18"), is("true"));
+    }
+    assertThat(fetches.get(), is(1));
+  }
+
+  @Test
+  void verifiesCredentialIssuedByPidIssuer() throws Exception {
+    String presentation = VerifiablePresentationToken.asString(
+        SdJwtVcFixture.issueWithX5c(pidIssuerKey, pidIssuerKey.getX509CertChain(), holderKey,
+            CLAIMS),
+        holderKey, "nonce");
+
+    SdJwtVc verified = verifier(this::noJwks).verifyPresentation(presentation, AUDIENCE, "nonce");
+
+    assertThat(verified.getIssuer(), is(ServiceIdentifier.PID_ISSUER.toString()));
+    assertThat(verified.getDisclosedClaim("family_name"), is("Neal"));
+    assertThat(verified.getDisclosedClaim("age_over_18"), is("true"));
+  }
+
+  @Test
+  void rejectsX5cCertificateOfAnotherService() throws Exception {
+    // The trust source certificate chains to the same root CA but is not a PID issuer's
+    X509Certificate trustSourceCert = X509CertUtils.parse(Files.readString(
+        CERTIFICATES.resolve("trust-list-signer/trust_source_cert.pem")));
+    ECKey trustSourceKey = SdJwtVcFixture.signingKey(trustSourceCert,
+        CERTIFICATES.resolve("trust-list-signer/trust_source_key.pem"));
+    String sdJwtVc = SdJwtVcFixture.issueWithX5c(trustSourceKey,
+        List.of(Base64.encode(trustSourceCert.getEncoded())), holderKey, CLAIMS);
+
+    var e = assertThrows(IllegalArgumentException.class,
+        () -> verifier(this::noJwks).verify(sdJwtVc));
+    assertThat(e.getMessage(), containsString("is not a certificate of"));
+  }
+
+  @Test
+  void requiresTrustAnchors() {
+    var e = assertThrows(IllegalArgumentException.class, () -> new SdJwtVcVerifier(
+        this::noJwks, Set.of(), Set.of(), (issuer, certificate) -> true, Duration.ofMinutes(5),
+        16, Clock.systemUTC()));
+    assertThat(e.getMessage(), containsString("trust anchor"));
+  }
+
+  @Test
+  void rejectsIssuerNotAllowedBeforeResolvingItsKey() throws Exception {
+    SdJwtVcVerifier verifier = new SdJwtVcVerifier(this::noJwks,
+        Set.of(new TrustAnchor(rootCa, null)), Set.of("https://issuer.example"),
+        (issuer, certificate) -> true, Duration.ofMinutes(5), 16, Clock.systemUTC());
+    String withKid = SdJwtVcFixture.issue(issuerKey, holderKey, CLAIMS);
+    String withX5c = SdJwtVcFixture.issueWithX5c(pidIssuerKey, pidIssuerKey.getX509CertChain(),
+        holderKey, CLAIMS);
+
+    var e = assertThrows(IllegalArgumentException.class, () -> verifier.verify(withKid));
+    assertThat(e.getMessage(), containsString("is not trusted"));
+    e = assertThrows(IllegalArgumentException.class, () -> verifier.verify(withX5c));
+    assertThat(e.getMessage(), containsString("is not trusted"));
+  }
+
+  @Test
+  void rejectsX5cChainNotIssuedByTrustAnchor() throws Exception {
+    SdJwtVcVerifier verifier = verifier(this::noJwks);
+    String credential = credentialFromUntrustedSource();
+
+    var e = assertThrows(IllegalArgumentException.class, () -> verifier.verify(credential));
+    assertThat(e.getMessage(), containsString("not trusted"));
+  }
+
+  @Test
+  void rejectsCredentialSignedByAnotherKey() throws Exception {
+    ECKey impostor = new ECKeyGenerator(Curve.P_256).keyID(issuerKey.getKeyID()).generate();
+    String sdJwtVc = SdJwtVcFixture.issue(impostor, holderKey, CLAIMS);
+
+    var e = assertThrows(IllegalArgumentException.class, () -> trustingIssuerKey().verify(sdJwtVc));
+    assertThat(e.getMessage(), containsString("issuer signature"));
+  }
+
+  @Test
+  void rejectsDisclosureNotReferencedByIssuer() throws Exception {
+    String sdJwtVc = SdJwtVcFixture.issue(issuerKey, holderKey, CLAIMS);
+    String foreign = SdJwtVcFixture.issue(issuerKey, holderKey, Map.of("given_name", "Mallory"));
+    String injected = sdJwtVc + foreign.substring(foreign.indexOf('~') + 1);
+
+    var e =
+        assertThrows(IllegalArgumentException.class, () -> trustingIssuerKey().verify(injected));
+    assertThat(e.getMessage(), containsString("not referenced"));
+  }
+
+  @Test
+  void rejectsRepeatedDisclosure() throws Exception {
+    String sdJwtVc = SdJwtVcFixture.issue(issuerKey, holderKey, CLAIMS);
+    String first = sdJwtVc.split("~")[1];
+
+    var e = assertThrows(IllegalArgumentException.class,
+        () -> trustingIssuerKey().verify(sdJwtVc + first + "~"));
+    assertThat(e.getMessage(), containsString("repeated"));
+  }
+
+  @Test
+  void rejectsPresentationWithWrongNonceOrAudience() throws Exception {
+    String presentation = VerifiablePresentationToken.asString(
+        SdJwtVcFixture.issue(issuerKey, holderKey, CLAIMS), holderKey, "nonce");
+    SdJwtVcVerifier verifier = trustingIssuerKey();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> verifier.verifyPresentation(presentation, AUDIENCE, "other-nonce"));
+    assertThrows(IllegalArgumentException.class,
+        () -> verifier.verifyPresentation(presentation, "other-audience", "nonce"));
+  }
+
+  @Test
+  void rejectsPresentationWithDisclosureRemovedAfterBinding() throws Exception {
+    String presentation = VerifiablePresentationToken.asString(
+        SdJwtVcFixture.issue(issuerKey, holderKey, CLAIMS), holderKey, "nonce");
+    String[] parts = presentation.split("~");
+    String withoutFirstDisclosure = parts[0] + "~" + String.join("~",
+        Arrays.copyOfRange(parts, 2, parts.length));
+
+    var e = assertThrows(IllegalArgumentException.class,
+        () -> trustingIssuerKey().verifyPresentation(withoutFirstDisclosure, AUDIENCE, "nonce"));
+    assertThat(e.getMessage(), containsString("sd_hash"));
+  }
+
+  @Test
+  void rejectsPresentationBoundToAnotherKey() throws Exception {
+    ECKey otherKey = new ECKeyGenerator(Curve.P_256).generate();
+    String presentation = VerifiablePresentationToken.asString(
+        SdJwtVcFixture.issue(issuerKey, holderKey, CLAIMS), otherKey, "nonce");
+
+    var e = assertThrows(IllegalArgumentException.class,
+        () -> trustingIssuerKey().verifyPresentation(presentation, AUDIENCE, "nonce"));
+    assertThat(e.getMessage(), containsString("key binding signature"));
+  }
+
+  @Test
+  void rejectsPresentationWithoutKeyBinding() throws Exception {
+    String sdJwtVc = SdJwtVcFixture.issue(issuerKey, holderKey, CLAIMS);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> trustingIssuerKey().verifyPresentation(sdJwtVc, AUDIENCE, "nonce"));
+  }
+
+  private SdJwtVcVerifier trustingIssuerKey() {
+    return verifier(issuer -> new JWKSet(issuerKey.toPublicJWK()));
+  }
+
+  /**
+   * Trusts the PID issuer that the fixture issues as, with x5c chains up to the root CA that end in
+   * a PID issuance certificate of trust-source's list.
+   */
+  private static SdJwtVcVerifier verifier(
+      java.util.function.Function<String, JWKSet> jwksSource) {
+    return new SdJwtVcVerifier(jwksSource, Set.of(new TrustAnchor(rootCa, null)),
+        Set.of(ServiceIdentifier.PID_ISSUER.toString()),
+        (issuer, certificate) -> trustedEntities.isTrusted(TrustedEntitiesList.PID_ISSUANCE,
+            certificate),
+        Duration.ofMinutes(5), 16, Clock.systemUTC());
+  }
+
+  private JWKSet noJwks(String issuer) {
+    throw new AssertionError("Unexpected JWKS lookup for " + issuer);
+  }
+
+  private String credentialFromUntrustedSource() throws Exception {
+    return Files.readString(Path.of(Objects.requireNonNull(
+        getClass().getResource("credentials-issued-by-untrusted-source.txt")).toURI()),
+        StandardCharsets.UTF_8).trim();
+  }
+}
@@ -19,6 +19,7 @@ public enum ServiceIdentifier {
   TRUST_VALIDATOR,
   TRUST_SOURCE,
   WALLET_CLIENT_GATEWAY,
+  WALLET_ACCOUNT,
   WALLET_ACCOUNT_DB,
   PID_ISSUER_DB;
 
@@ -0,0 +1,145 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.jwk.ECKey;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs wallet logins, a session challenge and its signed response, against wallet-client-gateway
+ * while sampling its Valkey session store. A share of the logins reuses an account that the worker
+ * signed in with before, like a returning wallet; the rest create a new account first. The samples
+ * show how memory and key count grow with the number of logins, and when eviction starts.
+ */
+public class SessionStoreBenchmark {
+
+  public static final String LOGIN = "login";
+  public static final String CREATE_ACCOUNT = "create account";
+  public static final String VALKEY_INFO = "valkey info";
+
+  /** Reads the session store, normally {@link ValkeyInfo#snapshot}. */
+  @FunctionalInterface
+  public interface Sampler {
+    ValkeyInfo.Snapshot sample() throws IOException;
+  }
+
+  public record Sample(Duration elapsed, long logins, ValkeyInfo.Snapshot snapshot) {
+  }
+
+  public record Result(LoadDriver.Result load, LatencyReport report, List<Sample> samples) {
+
+    /** Growth of used memory per key between the first and last sample, or 0 without growth. */
+    public double bytesPerKey() {
+      if (samples.size() < 2) {
+        return 0;
+      }
+      ValkeyInfo.Snapshot first = samples.getFirst().snapshot();
+      ValkeyInfo.Snapshot last = samples.getLast().snapshot();
+      long keys = last.keys() - first.keys();
+      return keys <= 0 ? 0 : (double) (last.usedMemory() - first.usedMemory()) / keys;
+    }
+
+    public String format() {
+      StringBuilder out = new StringBuilder(report.format(load.elapsed()));
+      out.append(String.format("%n%9s %9s %10s %10s %9s %9s %9s%n", "elapsed s", "logins",
+          "used MB", "keys", "expiring", "expired", "evicted"));
+      for (Sample sample : samples) {
+        ValkeyInfo.Snapshot snapshot = sample.snapshot();
+        out.append(String.format("%9d %9d %10.1f %10d %9d %9d %9d%n",
+            sample.elapsed().toSeconds(), sample.logins(), snapshot.usedMemory() / 1e6,
+            snapshot.keys(), snapshot.expiringKeys(), snapshot.expiredKeys(),
+            snapshot.evictedKeys()));
+      }
+      if (!samples.isEmpty()) {
+        ValkeyInfo.Snapshot last = samples.getLast().snapshot();
+        out.append(String.format("%.0f bytes per key, maxmemory %d bytes (%s)%n", bytesPerKey(),
+            last.maxMemory(), last.maxMemoryPolicy()));
+      }
+      return out.toString();
+    }
+  }
+
+  private record Account(String id, ECKey key) {
+  }
+
+  private final WalletClientGatewayClient gateway;
+  private final Sampler sampler;
+  private final double reuse;
+
+  public SessionStoreBenchmark(double reuse) {
+    this(new WalletClientGatewayClient(), new ValkeyInfo()::snapshot, reuse);
+  }
+
+  public SessionStoreBenchmark(WalletClientGatewayClient gateway, Sampler sampler, double reuse) {
+    if (reuse < 0 || reuse > 1) {
+      throw new IllegalArgumentException("Reuse must be between 0 and 1");
+    }
+    this.gateway = gateway;
+    this.sampler = sampler;
+    this.reuse = reuse;
+  }
+
+  /** Runs logins according to {@code profile} and samples the session store every interval. */
+  public Result run(LoadProfile profile, Duration sampleInterval) {
+    LatencyReport report = new LatencyReport();
+    List<Sample> samples = new CopyOnWriteArrayList<>();
+    List<List<Account>> accounts = new ArrayList<>();
+    for (int w = 0; w < profile.concurrency(); w++) {
+      accounts.add(new ArrayList<>());
+    }
+
+    long start = System.nanoTime();
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("session-store-sampler").daemon().factory());
+    LoadDriver.Result load;
+    try {
+      scheduler.scheduleAtFixedRate(() -> sample(start, report, samples), 0,
+          sampleInterval.toNanos(), TimeUnit.NANOSECONDS);
+      load = LoadDriver.run(profile, (worker, iteration) -> {
+        // Each worker only touches its own list
+        List<Account> own = accounts.get(worker);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Account account;
+        if (!own.isEmpty() && random.nextDouble() < reuse) {
+          account = own.get(random.nextInt(own.size()));
+        } else {
+          ECKey key = EcKeyPool.shared().take(KeyPurpose.DEVICE);
+          account = new Account(
+              report.time(CREATE_ACCOUNT, () -> gateway.createDeviceAccount(key)), key);
+          own.add(account);
+        }
+        report.time(LOGIN, () -> gateway.signIn(account.id(), account.key()));
+      });
+    } finally {
+      scheduler.shutdownNow();
+      scheduler.close();
+    }
+    sample(start, report, samples);
+    return new Result(load, report, List.copyOf(samples));
+  }
+
+  private void sample(long start, LatencyReport report, List<Sample> samples) {
+    long sampleStart = System.nanoTime();
+    boolean success = false;
+    try {
+      ValkeyInfo.Snapshot snapshot = sampler.sample();
+      samples.add(new Sample(Duration.ofNanos(sampleStart - start),
+          report.count(LOGIN) + report.errors(LOGIN), snapshot));
+      success = true;
+    } catch (IOException | RuntimeException e) {
+      // A missed sample is counted as an error of its own stage
+      success = false;
+    }
+    report.record(VALKEY_INFO, System.nanoTime() - sampleStart, success);
+  }
+}
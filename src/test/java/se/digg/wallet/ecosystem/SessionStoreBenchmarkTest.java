@@ -0,0 +1,121 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SessionStoreBenchmarkTest {
+
+  private final AtomicLong sessions = new AtomicLong();
+  private HttpServer server;
+  private WalletClientGatewayClient gateway;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", this::serve);
+    server.start();
+    gateway = new WalletClientGatewayClient(
+        URI.create("http://localhost:" + server.getAddress().getPort() + "/"));
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void reusesAccountsAndSamplesSessionStore() {
+    SessionStoreBenchmark.Result result = run(1);
+
+    LatencyReport report = result.report();
+    long logins = report.count(SessionStoreBenchmark.LOGIN);
+    assertThat(logins, greaterThan(0L));
+    assertThat(report.errors(SessionStoreBenchmark.LOGIN), is(0L));
+    // Each of the two workers creates one account and signs in with it from then on
+    assertThat(report.count(SessionStoreBenchmark.CREATE_ACCOUNT),
+        lessThanOrEqualTo(Math.min(logins, 2L)));
+    assertThat(result.samples().size(), greaterThanOrEqualTo(2));
+    assertThat(result.samples().getLast().logins(), is(logins));
+    assertThat(result.bytesPerKey(), closeTo(500, 0.1));
+  }
+
+  @Test
+  void createsAccountsForSomeLoginsWithPartialReuse() {
+    SessionStoreBenchmark.Result result = run(0.9);
+
+    LatencyReport report = result.report();
+    long logins = report.count(SessionStoreBenchmark.LOGIN);
+    assertThat(logins, greaterThan(0L));
+    assertThat(report.errors(SessionStoreBenchmark.LOGIN), is(0L));
+    // A worker's first login always creates an account, and no login creates more than one
+    assertThat(report.count(SessionStoreBenchmark.CREATE_ACCOUNT),
+        is(both(greaterThanOrEqualTo(1L)).and(lessThanOrEqualTo(logins))));
+  }
+
+  @Test
+  void createsAccountForEveryLoginWithoutReuse() {
+    SessionStoreBenchmark.Result result = run(0);
+
+    LatencyReport report = result.report();
+    assertThat(report.count(SessionStoreBenchmark.LOGIN), greaterThan(0L));
+    assertThat(report.count(SessionStoreBenchmark.CREATE_ACCOUNT),
+        is(report.count(SessionStoreBenchmark.LOGIN)));
+  }
+
+  private SessionStoreBenchmark.Result run(double reuse) {
+    // Every session takes 500 bytes in the fake store
+    SessionStoreBenchmark benchmark = new SessionStoreBenchmark(gateway,
+        () -> new ValkeyInfo.Snapshot(1_000_000 + sessions.get() * 500, 0, "noeviction",
+            sessions.get(), sessions.get(), 0, 0),
+        reuse);
+    return benchmark.run(
+        new LoadProfile(2, Duration.ZERO, 1000, Duration.ofSeconds(1)), Duration.ofMillis(200));
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    exchange.getRequestBody().readAllBytes();
+    if (path.endsWith("/v0/accounts")) {
+      respond(exchange, 201, "{\"accountId\": \"account\"}");
+    } else if (path.endsWith("/session/challenge")) {
+      respond(exchange, 200, "{\"nonce\": \"nonce\"}");
+    } else if (path.endsWith("/session/response")) {
+      sessions.incrementAndGet();
+      exchange.getResponseHeaders().add("session", "session");
+      respond(exchange, 200, "{\"sessionId\": \"session\"}");
+    } else {
+      respond(exchange, 404, "{}");
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
@@ -0,0 +1,38 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS",
+    matches = "true")
+@Isolated
+class SessionStoreLoadTest {
+
+  @Test
+  void measuresSessionStoreGrowth() {
+    LoadProfile profile = LoadProfile.fromEnvironment();
+    double reuse = Double.parseDouble(Property.SESSION_REUSE.getValue());
+    Duration sampleInterval = Duration.parse(Property.VALKEY_SAMPLE_INTERVAL.getValue());
+
+    SessionStoreBenchmark.Result result =
+        new SessionStoreBenchmark(reuse).run(profile, sampleInterval);
+
+    System.out.format("Wallet logins with %.0f%% account reuse, %s%n", reuse * 100, profile);
+    System.out.format("%s", result.format());
+    if (result.load().firstFailure() != null) {
+      result.load().firstFailure().printStackTrace(System.out);
+    }
+
+    assertThat(result.report().count(SessionStoreBenchmark.LOGIN), greaterThan(0L));
+  }
+}
@@ -0,0 +1,31 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/** SHA-256 hashing with one reused {@link MessageDigest} per thread. */
+final class Sha256 {
+  private Sha256() {}
+
+  private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  });
+
+  static byte[] digest(byte[] input) {
+    return DIGEST.get().digest(input);
+  }
+
+  /** The unpadded base64url encoding of the hash, as used by ath, sd_hash and disclosures. */
+  static String base64Url(byte[] input) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(digest(input));
+  }
+}
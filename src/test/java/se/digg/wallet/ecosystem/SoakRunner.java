@@ -0,0 +1,158 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static se.digg.wallet.ecosystem.RestAssuredSugar.given;
+
+import io.restassured.response.Response;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs the issuance and presentation {@link Scenario} at a fixed rate for hours and looks for slow
+ * degradation. Latency is recorded in {@link SoakWindows}, the {@code actuator/health} of every
+ * Spring service is polled into the same windows as stage {@code "health <service>"}, and so is its
+ * heap use as stage {@code "heap <service>"}: the live data after the last full GC if the service
+ * reports it, or else the used heap. The first and last complete windows are compared with
+ * {@link LatencyDrift}; a service that exposes no {@code actuator/metrics} is left out of the heap
+ * check.
+ */
+public class SoakRunner {
+
+  public static final List<ServiceIdentifier> SPRING_SERVICES = List.of(
+      ServiceIdentifier.PID_ISSUER,
+      ServiceIdentifier.WALLET_PROVIDER,
+      ServiceIdentifier.WALLET_CLIENT_GATEWAY,
+      ServiceIdentifier.VERIFIER_BACKEND,
+      ServiceIdentifier.TRUST_VALIDATOR);
+
+  public record Result(LoadDriver.Result load, List<SoakWindows.Window> windows,
+      List<LatencyDrift.Finding> drift) {
+
+    /** One row per window and stage that ends a whole flow or polls health, and its heap use. */
+    public String format() {
+      StringBuilder out = new StringBuilder(String.format("%6s %9s %-28s %8s %10s %8s%n",
+          "window", "", "stage", "count", "p99 ms", "error %"));
+      for (SoakWindows.Window window : windows) {
+        for (String stage : window.report().stages()) {
+          if (stage.endsWith(ScenarioLoadGenerator.SCENARIO) || stage.startsWith("health ")) {
+            out.append(String.format("%6d %9s %-28s %8d %10.1f %8.2f%n", window.index(),
+                window.complete() ? "" : "(partial)", stage, window.report().count(stage),
+                window.report().percentileMillis(stage, 99),
+                window.report().errorRate(stage) * 100));
+          }
+        }
+        window.lowestHeap().forEach(
+            (stage, bytes) -> out.append(String.format("%6d %9s %-28s %16.1f MB%n", window.index(),
+                window.complete() ? "" : "(partial)", stage, bytes / 1e6)));
+      }
+      return out.toString();
+    }
+
+    /** Whether any service reported heap use, without which the heap check compares nothing. */
+    public boolean reportsHeap() {
+      return windows.stream().anyMatch(window -> !window.lowestHeap().isEmpty());
+    }
+  }
+
+  private final ScenarioLoadGenerator generator;
+  private final List<ServiceIdentifier> services;
+
+  public SoakRunner() {
+    this(new ScenarioLoadGenerator(), SPRING_SERVICES);
+  }
+
+  public SoakRunner(ScenarioLoadGenerator generator, List<ServiceIdentifier> services) {
+    this.generator = generator;
+    this.services = services;
+  }
+
+  /**
+   * Runs the profile, ending a window every {@code window} after the ramp-up and polling health
+   * every {@code healthInterval}. Without two complete windows no drift is reported.
+   */
+  public Result run(LoadProfile profile, Duration window, Duration healthInterval) {
+    if (window.isNegative() || window.isZero()) {
+      throw new IllegalArgumentException("Window must be positive");
+    }
+    SoakWindows windows = new SoakWindows(Clock.systemUTC());
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("soak-scheduler").daemon().factory());
+    LoadDriver.Result load;
+    try {
+      long rampUp = profile.rampUp().toMillis();
+      if (rampUp > 0) {
+        scheduler.schedule(() -> windows.roll(false), rampUp, TimeUnit.MILLISECONDS);
+      }
+      scheduler.scheduleAtFixedRate(() -> windows.roll(true),
+          rampUp + window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+      scheduler.scheduleAtFixedRate(() -> poll(windows),
+          0, healthInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+      load = generator.run(profile, windows);
+    } finally {
+      scheduler.shutdownNow();
+    }
+    windows.roll(false);
+
+    List<LatencyDrift.Finding> drift = windows.firstComplete()
+        .flatMap(first -> windows.lastComplete()
+            .filter(last -> last.index() != first.index())
+            .map(last -> Stream.concat(
+                LatencyDrift.compare(first.report(), last.report()).stream(),
+                LatencyDrift.compareHeap(first.lowestHeap(), last.lowestHeap()).stream())
+                .toList()))
+        .orElse(List.of());
+    return new Result(load, windows.windows(), drift);
+  }
+
+  private void poll(SoakWindows windows) {
+    for (ServiceIdentifier service : services) {
+      long start = System.nanoTime();
+      boolean up;
+      try {
+        Response response =
+            given().when().get(service.getResourceRoot().resolve("actuator/health"));
+        up = response.statusCode() == 200 && "UP".equals(response.path("status"));
+      } catch (Exception e) {
+        // Includes connection failures, which RestAssured throws unchecked
+        up = false;
+      }
+      String name = service.name().toLowerCase(Locale.ROOT);
+      windows.record("health " + name, System.nanoTime() - start, up);
+      heapUsed(service).ifPresent(bytes -> windows.recordHeap("heap " + name, bytes));
+    }
+  }
+
+  private static OptionalLong heapUsed(ServiceIdentifier service) {
+    OptionalLong afterGc = metric(service, "jvm.gc.live.data.size", Map.of());
+    return afterGc.isPresent() && afterGc.getAsLong() > 0
+        ? afterGc
+        : metric(service, "jvm.memory.used", Map.of("tag", "area:heap"));
+  }
+
+  private static OptionalLong metric(ServiceIdentifier service, String metric,
+      Map<String, String> query) {
+    try {
+      Response response = given().queryParams(query)
+          .when().get(service.getResourceRoot().resolve("actuator/metrics/" + metric));
+      Number value = response.statusCode() == 200
+          ? response.path("measurements.find { it.statistic == 'VALUE' }.value")
+          : null;
+      return value == null ? OptionalLong.empty() : OptionalLong.of(value.longValue());
+    } catch (Exception e) {
+      // A service without metrics, or one that is down, which health already records
+      return OptionalLong.empty();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_SOAK_TESTS",
+    matches = "true")
+@Isolated
+class SoakTest {
+
+  @Test
+  void doesNotDegradeOverTime() {
+    LoadProfile load = LoadProfile.fromEnvironment();
+    LoadProfile profile = new LoadProfile(load.concurrency(), load.rampUp(), load.arrivalRate(),
+        Duration.parse(Property.SOAK_DURATION.getValue()));
+
+    SoakRunner.Result result = new SoakRunner().run(profile,
+        Duration.parse(Property.SOAK_WINDOW.getValue()),
+        Duration.parse(Property.SOAK_HEALTH_INTERVAL.getValue()));
+
+    System.out.format("Soak test with %s%n", profile);
+    System.out.format("%s", result.format());
+    System.out.format("%d of %d scenarios failed over %s%n",
+        result.load().failures(), result.load().iterations(), result.load().elapsed());
+    result.drift().forEach(finding -> System.out.format("Drift: %s%n", finding));
+
+    assertThat("No service exposes actuator/metrics, so heap use was not checked",
+        result.reportsHeap(), is(true));
+    assertThat(result.drift(), empty());
+  }
+}
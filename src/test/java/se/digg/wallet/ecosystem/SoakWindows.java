@@ -0,0 +1,76 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link LatencyRecorder} that records into one {@link LatencyReport} per time window. The caller
+ * ends a window with {@link #roll}, saying whether it covered a full window of steady load; the
+ * ramp-up and the tail of a run are partial windows that are kept but not compared. Each window
+ * also keeps the lowest heap use polled from every service, which approximates its heap after GC.
+ */
+public final class SoakWindows implements LatencyRecorder {
+
+  public record Window(int index, Instant start, Instant end, boolean complete,
+      LatencyReport report, Map<String, Long> lowestHeap) {
+
+    public Duration length() {
+      return Duration.between(start, end);
+    }
+  }
+
+  private final List<Window> closed = new ArrayList<>();
+  private final Clock clock;
+  private volatile LatencyReport current = new LatencyReport();
+  private volatile Map<String, Long> currentHeap = new ConcurrentHashMap<>();
+  private Instant currentStart;
+
+  public SoakWindows(Clock clock) {
+    this.clock = clock;
+    this.currentStart = clock.instant();
+  }
+
+  @Override
+  public void record(String stage, long nanos, boolean success) {
+    current.record(stage, nanos, success);
+  }
+
+  /** Records a heap use in bytes, of which the window keeps the lowest per stage. */
+  public void recordHeap(String stage, long bytes) {
+    currentHeap.merge(stage, bytes, Math::min);
+  }
+
+  /** Ends the current window and starts the next one. */
+  public synchronized Window roll(boolean complete) {
+    Instant now = clock.instant();
+    Window window = new Window(closed.size(), currentStart, now, complete, current,
+        Map.copyOf(currentHeap));
+    closed.add(window);
+    current = new LatencyReport();
+    currentHeap = new ConcurrentHashMap<>();
+    currentStart = now;
+    return window;
+  }
+
+  public synchronized List<Window> windows() {
+    return List.copyOf(closed);
+  }
+
+  public Optional<Window> firstComplete() {
+    return windows().stream().filter(Window::complete).findFirst();
+  }
+
+  public Optional<Window> lastComplete() {
+    return windows().stream().filter(Window::complete).reduce((first, second) -> second);
+  }
+}
@@ -0,0 +1,66 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SoakWindowsTest {
+
+  private final ExpiringCacheTest.MutableClock clock = new ExpiringCacheTest.MutableClock();
+
+  @Test
+  void recordsIntoCurrentWindow() {
+    SoakWindows windows = new SoakWindows(clock);
+
+    windows.record("scenario", 1_000_000, true);
+    clock.advance(Duration.ofMinutes(1));
+    SoakWindows.Window rampUp = windows.roll(false);
+    assertThat(rampUp.report().count("scenario"), is(1L));
+    windows.record("scenario", 1_000_000, true);
+    windows.record("scenario", 1_000_000, false);
+    clock.advance(Duration.ofMinutes(15));
+    SoakWindows.Window steady = windows.roll(true);
+
+    assertThat(steady.report().count("scenario"), is(1L));
+    assertThat(steady.report().errors("scenario"), is(1L));
+    assertThat(steady.length(), is(Duration.ofMinutes(15)));
+    assertThat(steady.index(), is(1));
+  }
+
+  @Test
+  void keepsLowestHeapPerWindow() {
+    SoakWindows windows = new SoakWindows(clock);
+
+    windows.recordHeap("heap pid_issuer", 300);
+    windows.recordHeap("heap pid_issuer", 200);
+    windows.recordHeap("heap pid_issuer", 250);
+    SoakWindows.Window first = windows.roll(true);
+    windows.recordHeap("heap pid_issuer", 400);
+    SoakWindows.Window second = windows.roll(true);
+
+    assertThat(first.lowestHeap(), is(Map.of("heap pid_issuer", 200L)));
+    assertThat(second.lowestHeap(), is(Map.of("heap pid_issuer", 400L)));
+  }
+
+  @Test
+  void comparesOnlyCompleteWindows() {
+    SoakWindows windows = new SoakWindows(clock);
+
+    windows.roll(false);
+    windows.roll(true);
+    windows.roll(true);
+    windows.roll(true);
+    windows.roll(false);
+
+    assertThat(windows.windows().size(), is(5));
+    assertThat(windows.firstComplete().orElseThrow().index(), is(1));
+    assertThat(windows.lastComplete().orElseThrow().index(), is(3));
+  }
+}
@@ -0,0 +1,127 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A decompressed token status list, as in the {@code status_list} claim of a
+ * {@code statuslist+jwt}. Every credential has {@link #bits} bits at its index, the first entry in
+ * the least significant bits of the first byte, so that a lookup is a shift and a mask.
+ */
+public final class StatusList {
+
+  public static final int VALID = 0;
+  public static final int INVALID = 1;
+  public static final int SUSPENDED = 2;
+
+  private static final Set<Integer> SUPPORTED_BITS = Set.of(1, 2, 4, 8);
+
+  private final int bits;
+  private final byte[] statuses;
+
+  private StatusList(int bits, byte[] statuses) {
+    if (!SUPPORTED_BITS.contains(bits)) {
+      throw new IllegalArgumentException("Status list bits must be 1, 2, 4 or 8, not " + bits);
+    }
+    this.bits = bits;
+    this.statuses = statuses;
+  }
+
+  /** A list of {@code size} valid entries, rounded up to whole bytes. */
+  public static StatusList empty(int bits, long size) {
+    long bytes = (size * bits + 7) / 8;
+    if (bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Status list too large: " + size + " entries");
+    }
+    return new StatusList(bits, new byte[(int) bytes]);
+  }
+
+  /** Decodes the base64url and zlib encoded {@code lst} member of a status list claim. */
+  public static StatusList decode(int bits, String lst) {
+    byte[] compressed;
+    try {
+      compressed = Base64.getUrlDecoder().decode(lst);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid status list: lst is not base64url", e);
+    }
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 8);
+      byte[] buffer = new byte[64 * 1024];
+      while (!inflater.finished()) {
+        int inflated = inflater.inflate(buffer);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IllegalArgumentException("Invalid status list: truncated lst");
+        }
+        out.write(buffer, 0, inflated);
+      }
+      return new StatusList(bits, out.toByteArray());
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Invalid status list: lst is not zlib", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /** Encodes the list as the {@code lst} member of a status list claim. */
+  public String encode() {
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try {
+      deflater.setInput(statuses);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[64 * 1024];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+    } finally {
+      deflater.end();
+    }
+  }
+
+  public int bits() {
+    return bits;
+  }
+
+  /** The number of entries, including the padding of the last byte. */
+  public long size() {
+    return (long) statuses.length * 8 / bits;
+  }
+
+  public int status(long index) {
+    checkIndex(index);
+    long bit = index * bits;
+    return (statuses[(int) (bit >>> 3)] >>> (bit & 7)) & ((1 << bits) - 1);
+  }
+
+  /** Sets the status at {@code index}, for building lists in tests and benchmarks. */
+  public StatusList set(long index, int status) {
+    if (status < 0 || status >= 1 << bits) {
+      throw new IllegalArgumentException(
+          "Status " + status + " does not fit in " + bits + " bits");
+    }
+    checkIndex(index);
+    long bit = index * bits;
+    int mask = ((1 << bits) - 1) << (bit & 7);
+    int i = (int) (bit >>> 3);
+    statuses[i] = (byte) ((statuses[i] & ~mask) | (status << (bit & 7)));
+    return this;
+  }
+
+  private void checkIndex(long index) {
+    if (index < 0 || index >= size()) {
+      throw new IllegalArgumentException(
+          "Status list index " + index + " out of range for " + size() + " entries");
+    }
+  }
+}
@@ -0,0 +1,174 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.X509CertUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.security.cert.CertPathValidator;
+import java.security.cert.CertificateFactory;
+import java.security.cert.PKIXParameters;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fetches token status lists ({@code statuslist+jwt}) such as trust-source's
+ * {@code signed/status-list.jwt} and looks up credential statuses in them. Lists are cached by
+ * {@link MetadataCache}, which honours {@code max-age} and revalidates with the {@code ETag}. The
+ * signature and x5c chain of a list are verified, and its bits decompressed, once per version of
+ * the document: a revalidation that confirms the list is unchanged reuses the decoded list. Its
+ * {@code sub}, {@code exp} and {@code ttl} are checked on every lookup. The first x5c certificate
+ * must be the expected signer, since any certificate under the trust anchors could otherwise sign a
+ * list for any {@code sub}.
+ */
+public class StatusListClient {
+
+  static final String MEDIA_TYPE = "application/statuslist+jwt";
+  private static final JOSEObjectType TYPE = new JOSEObjectType("statuslist+jwt");
+
+  /** A verified version of a list and the claims that bound its use. */
+  private record Verified(StatusList list, String subject, Instant expires, Duration ttl,
+      Instant verifiedAt) {
+  }
+
+  private final MetadataCache cache;
+  private final Set<TrustAnchor> trustAnchors;
+  private final X509Certificate signer;
+  private final Clock clock;
+
+  /** Trusts lists signed by trust-source's certificate under the ecosystem root CA. */
+  public StatusListClient() {
+    this(MetadataCache.SHARED, Certificates.rootCaAnchor(),
+        Certificates.read(Certificates.TRUST_SOURCE), Clock.systemUTC());
+  }
+
+  public StatusListClient(MetadataCache cache, Set<TrustAnchor> trustAnchors,
+      X509Certificate signer, Clock clock) {
+    if (trustAnchors.isEmpty()) {
+      throw new IllegalArgumentException("At least one trust anchor is required");
+    }
+    this.cache = cache;
+    this.trustAnchors = trustAnchors;
+    this.signer = signer;
+    this.clock = clock;
+  }
+
+  /** The verified list at {@code uri}, whose {@code sub} must be {@code uri}. */
+  public StatusList get(URI uri) {
+    return get(uri, uri);
+  }
+
+  /**
+   * The verified list fetched from {@code location} whose {@code sub} is {@code subject}, the URI
+   * credentials refer to the list by. A list past its {@code ttl} is fetched again.
+   */
+  public StatusList get(URI location, URI subject) {
+    Verified verified = cache.get(location, MEDIA_TYPE).view("status list", this::verify);
+    Instant now = clock.instant();
+    if (verified.ttl() != null && !now.isBefore(verified.verifiedAt().plus(verified.ttl()))) {
+      cache.invalidate(location, MEDIA_TYPE);
+      verified = cache.get(location, MEDIA_TYPE).view("status list", this::verify);
+    }
+    if (!subject.toString().equals(verified.subject())) {
+      throw new IllegalArgumentException(
+          "Invalid status list: sub is " + verified.subject() + ", not " + subject);
+    }
+    if (verified.expires() != null && !now.isBefore(verified.expires())) {
+      throw new IllegalStateException(
+          "Status list " + subject + " expired at " + verified.expires());
+    }
+    return verified.list();
+  }
+
+  /** The status of the credential at {@code index} in the list at {@code uri}. */
+  public int status(URI uri, long index) {
+    return get(uri).status(index);
+  }
+
+  private Verified verify(String body) {
+    SignedJWT jwt;
+    JWTClaimsSet claims;
+    try {
+      jwt = SignedJWT.parse(body.trim());
+      claims = jwt.getJWTClaimsSet();
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Invalid status list: not a signed JWT", e);
+    }
+    if (!TYPE.equals(jwt.getHeader().getType())) {
+      throw new IllegalArgumentException(
+          "Invalid status list: typ is " + jwt.getHeader().getType());
+    }
+    List<Base64> x5c = jwt.getHeader().getX509CertChain();
+    if (x5c == null || x5c.isEmpty()) {
+      throw new IllegalArgumentException("Invalid status list: no x5c");
+    }
+
+    Date now = Date.from(clock.instant());
+    try {
+      if (!jwt.verify(new ECDSAVerifier((ECPublicKey) trustedSigner(x5c, now).getPublicKey()))) {
+        throw new IllegalArgumentException("Invalid status list: bad signature");
+      }
+    } catch (JOSEException | ClassCastException e) {
+      throw new IllegalArgumentException("Invalid status list: unsupported signing key", e);
+    }
+    if (!(claims.getClaim("status_list") instanceof Map<?, ?> statusList)
+        || !(statusList.get("bits") instanceof Number bits)
+        || !(statusList.get("lst") instanceof String lst)) {
+      throw new IllegalArgumentException("Invalid status list: no status_list with bits and lst");
+    }
+    Duration ttl;
+    try {
+      Long seconds = claims.getLongClaim("ttl");
+      ttl = seconds == null ? null : Duration.ofSeconds(seconds);
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Invalid status list: ttl is not a number", e);
+    }
+    Date expires = claims.getExpirationTime();
+    return new Verified(StatusList.decode(bits.intValue(), lst), claims.getSubject(),
+        expires == null ? null : expires.toInstant(), ttl, now.toInstant());
+  }
+
+  private X509Certificate trustedSigner(List<Base64> x5c, Date now) {
+    List<X509Certificate> chain = new ArrayList<>(x5c.size());
+    for (Base64 encoded : x5c) {
+      X509Certificate certificate = X509CertUtils.parse(encoded.decode());
+      if (certificate == null) {
+        throw new IllegalArgumentException("Invalid status list: malformed x5c certificate");
+      }
+      chain.add(certificate);
+    }
+    if (!chain.getFirst().equals(signer)) {
+      throw new IllegalArgumentException(
+          "Invalid status list: not signed by " + signer.getSubjectX500Principal());
+    }
+    try {
+      chain.getFirst().checkValidity(now);
+      PKIXParameters parameters = new PKIXParameters(trustAnchors);
+      parameters.setRevocationEnabled(false);
+      parameters.setDate(now);
+      CertPathValidator.getInstance("PKIX").validate(
+          CertificateFactory.getInstance("X.509").generateCertPath(chain), parameters);
+      return chain.getFirst();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Invalid status list: signer is not trusted", e);
+    }
+  }
+}
@@ -0,0 +1,248 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.X509CertUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatusListClientTest {
+
+  private static final Path CERTIFICATES = Path.of("config", "certificates");
+
+  private static X509Certificate trustSourceCert;
+  private static ECKey trustSourceKey;
+  private static Set<TrustAnchor> trustAnchors;
+
+  private final ExpiringCacheTest.MutableClock clock = new ExpiringCacheTest.MutableClock();
+  private final AtomicInteger bodies = new AtomicInteger();
+  private volatile String token;
+  private volatile String etag = "\"v1\"";
+  private HttpServer server;
+  private URI uri;
+
+  @BeforeAll
+  static void loadTrustSource() throws Exception {
+    trustSourceCert = X509CertUtils.parse(Files.readString(
+        CERTIFICATES.resolve("trust-list-signer/trust_source_cert.pem")));
+    trustSourceKey = SdJwtVcFixture.signingKey(trustSourceCert,
+        CERTIFICATES.resolve("trust-list-signer/trust_source_key.pem"));
+    trustAnchors = Set.of(new TrustAnchor(X509CertUtils.parse(
+        Files.readString(CERTIFICATES.resolve("rootca/rootca.pem"))), null));
+  }
+
+  @BeforeEach
+  void startServer() throws IOException {
+    // Within the validity of the trust source certificate
+    clock.advance(Duration.ofDays(365));
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/signed/status-list.jwt", this::serve);
+    server.start();
+    uri = URI.create(
+        "http://localhost:" + server.getAddress().getPort() + "/signed/status-list.jwt");
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void verifiesStatusListOfTrustSource() throws Exception {
+    token = Files.readString(Path.of("config", "trust-source", "signed", "status-list.jwt"));
+
+    StatusList list =
+        client().get(uri, URI.create("http://trust-source/signed/status-list.jwt"));
+
+    assertThat(list.size(), is(8192L));
+    assertThat(list.status(0), is(StatusList.VALID));
+  }
+
+  @Test
+  void looksUpStatusesByIndex() throws Exception {
+    token = sign(trustSourceKey, StatusList.empty(2, 1024)
+        .set(5, StatusList.INVALID)
+        .set(7, StatusList.SUSPENDED));
+    StatusListClient client = client();
+
+    assertThat(client.status(uri, 0), is(StatusList.VALID));
+    assertThat(client.status(uri, 5), is(StatusList.INVALID));
+    assertThat(client.status(uri, 7), is(StatusList.SUSPENDED));
+    assertThat(bodies.get(), is(1));
+  }
+
+  @Test
+  void decodesEachVersionOnce() throws Exception {
+    token = sign(trustSourceKey, StatusList.empty(1, 64));
+    StatusListClient client = client();
+
+    StatusList first = client.get(uri);
+    clock.advance(Duration.ofSeconds(60));
+    assertThat(client.get(uri), is(sameInstance(first)));
+
+    token = sign(trustSourceKey, StatusList.empty(1, 64).set(3, StatusList.INVALID));
+    etag = "\"v2\"";
+    clock.advance(Duration.ofSeconds(60));
+    assertThat(client.get(uri).status(3), is(StatusList.INVALID));
+    assertThat(bodies.get(), is(2));
+  }
+
+  @Test
+  void rejectsListNotSignedByCertifiedKey() throws Exception {
+    token = sign(new ECKeyGenerator(Curve.P_256).generate(), StatusList.empty(1, 64));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> client().get(uri));
+    assertThat(e.getMessage(), containsString("bad signature"));
+  }
+
+  @Test
+  void rejectsListOfOtherCertifiedSigner() throws Exception {
+    // The PID issuer certificate chains to the same root CA, but does not sign status lists
+    KeyStore keyStore = KeyStore.getInstance("PKCS12");
+    try (InputStream in = Files.newInputStream(CERTIFICATES.resolve("issuer/pid_issuer.p12"))) {
+      keyStore.load(in, "pass1234".toCharArray());
+    }
+    X509Certificate pidIssuerCert = (X509Certificate) keyStore.getCertificate("pid_issuer");
+    token = sign(new ECKey.Builder(Curve.P_256, (ECPublicKey) pidIssuerCert.getPublicKey())
+        .privateKey((PrivateKey) keyStore.getKey("pid_issuer", "pass1234".toCharArray()))
+        .build(), pidIssuerCert, claims(StatusList.empty(1, 64)));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> client().get(uri));
+    assertThat(e.getMessage(), containsString("not signed by"));
+  }
+
+  @Test
+  void rejectsExpiredList() throws Exception {
+    token = sign(trustSourceKey,
+        claims(StatusList.empty(1, 64)).expirationTime(Date.from(clock.instant().minusSeconds(1))));
+
+    var e = assertThrows(IllegalStateException.class, () -> client().get(uri));
+    assertThat(e.getMessage(), containsString("expired"));
+  }
+
+  @Test
+  void rejectsListThatExpiresWhileUnchanged() throws Exception {
+    token = sign(trustSourceKey,
+        claims(StatusList.empty(1, 64)).expirationTime(Date.from(clock.instant().plusSeconds(90))));
+    StatusListClient client = client();
+    client.get(uri);
+
+    clock.advance(Duration.ofSeconds(100));
+
+    var e = assertThrows(IllegalStateException.class, () -> client.get(uri));
+    assertThat(e.getMessage(), containsString("expired"));
+    assertThat(bodies.get(), is(1));
+  }
+
+  @Test
+  void fetchesListAgainAfterItsTtl() throws Exception {
+    token = sign(trustSourceKey, claims(StatusList.empty(1, 64)).claim("ttl", 30));
+    StatusListClient client = client();
+    StatusList first = client.get(uri);
+
+    clock.advance(Duration.ofSeconds(20));
+    assertThat(client.get(uri), is(sameInstance(first)));
+    clock.advance(Duration.ofSeconds(10));
+    client.get(uri);
+
+    assertThat(bodies.get(), is(2));
+  }
+
+  @Test
+  void rejectsListOfOtherSubject() throws Exception {
+    token = sign(trustSourceKey, claims(StatusList.empty(1, 64)).subject("https://other/list"));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> client().get(uri));
+    assertThat(e.getMessage(), containsString("sub is https://other/list"));
+  }
+
+  private StatusListClient client() {
+    return new StatusListClient(new MetadataCache(Duration.ofMinutes(5), 8, clock), trustAnchors,
+        trustSourceCert, clock);
+  }
+
+  private JWTClaimsSet.Builder claims(StatusList list) {
+    return new JWTClaimsSet.Builder()
+        .subject(uri.toString())
+        .issueTime(Date.from(clock.instant()))
+        .expirationTime(Date.from(clock.instant().plus(Duration.ofDays(1))))
+        .claim("status_list", Map.of("bits", list.bits(), "lst", list.encode()));
+  }
+
+  private String sign(ECKey key, StatusList list) throws Exception {
+    return sign(key, claims(list));
+  }
+
+  private String sign(ECKey key, JWTClaimsSet.Builder claims) throws Exception {
+    return sign(key, trustSourceCert, claims);
+  }
+
+  private String sign(ECKey key, X509Certificate certificate, JWTClaimsSet.Builder claims)
+      throws Exception {
+    SignedJWT jwt = new SignedJWT(
+        new JWSHeader.Builder(JWSAlgorithm.ES256)
+            .type(new JOSEObjectType("statuslist+jwt"))
+            .x509CertChain(List.of(Base64.encode(certificate.getEncoded())))
+            .build(),
+        claims.build());
+    jwt.sign(new ECDSASigner(key));
+    return jwt.serialize();
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+    exchange.getResponseHeaders().add("ETag", etag);
+    if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+      exchange.sendResponseHeaders(304, -1);
+    } else {
+      bodies.incrementAndGet();
+      byte[] body = token.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", StatusListClient.MEDIA_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    }
+    exchange.close();
+  }
+}
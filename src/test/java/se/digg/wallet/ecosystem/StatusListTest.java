@@ -0,0 +1,73 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class StatusListTest {
+
+  @Test
+  void decodesOneBitExampleOfSpecification() {
+    StatusList list = StatusList.decode(1, "eNrbuRgAAhcBXQ");
+
+    assertThat(statuses(list), is(List.of(1, 0, 0, 1, 1, 1, 0, 1, 1, 1, 0, 0, 0, 1, 0, 1)));
+  }
+
+  @Test
+  void decodesTwoBitExampleOfSpecification() {
+    StatusList list = StatusList.decode(2, "eNo76fITAAPfAgc");
+
+    assertThat(statuses(list), is(List.of(1, 2, 0, 3, 0, 1, 0, 1, 1, 2, 3, 3)));
+  }
+
+  @Test
+  void decodesListServedByTrustSource() {
+    StatusList list = StatusList.decode(1, "eJxjYBgFo2AUjFQAAAQAAAE");
+
+    assertThat(list.size(), is(8192L));
+    assertThat(LongStream.range(0, list.size()).allMatch(i -> list.status(i) == 0), is(true));
+  }
+
+  @Test
+  void roundTripsEveryBitWidth() {
+    for (int bits : List.of(1, 2, 4, 8)) {
+      StatusList list = StatusList.empty(bits, 1000);
+      for (long i = 0; i < 1000; i += 7) {
+        list.set(i, (int) (i % (1 << bits)));
+      }
+
+      StatusList decoded = StatusList.decode(bits, list.encode());
+
+      for (long i = 0; i < 1000; i++) {
+        assertThat(decoded.status(i), is(i % 7 == 0 ? (int) (i % (1 << bits)) : 0));
+      }
+    }
+  }
+
+  @Test
+  void rejectsIndexOutsideList() {
+    StatusList list = StatusList.empty(2, 8);
+
+    assertThrows(IllegalArgumentException.class, () -> list.status(8));
+    assertThrows(IllegalArgumentException.class, () -> list.status(-1));
+  }
+
+  @Test
+  void rejectsUnsupportedBitsAndMalformedLst() {
+    assertThrows(IllegalArgumentException.class, () -> StatusList.empty(3, 8));
+    assertThrows(IllegalArgumentException.class, () -> StatusList.decode(1, "not zlib"));
+    assertThrows(IllegalArgumentException.class, () -> StatusList.decode(1, "eNrbuRgA"));
+  }
+
+  private static List<Integer> statuses(StatusList list) {
+    return LongStream.range(0, list.size()).mapToObj(list::status).toList();
+  }
+}
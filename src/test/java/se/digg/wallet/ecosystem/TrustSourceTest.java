@@ -6,8 +6,12 @@ package se.digg.wallet.ecosystem;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.matchesPattern;
 
+import java.math.BigInteger;
+import java.net.URI;
 import java.util.regex.Pattern;
 import org.junit.jupiter.api.Test;
 
@@ -52,4 +56,29 @@ class TrustSourceTest {
     com.nimbusds.jwt.SignedJWT jwt = com.nimbusds.jwt.SignedJWT.parse(body.trim());
     org.junit.jupiter.api.Assertions.assertNotNull(jwt.getJWTClaimsSet().getSubject());
   }
+
+  @Test
+  void servesVerifiableStatusList() {
+    StatusList statusList = new StatusListClient().get(
+        ServiceIdentifier.TRUST_SOURCE.getResourceRoot().resolve("signed/status-list.jwt"),
+        URI.create("http://trust-source/signed/status-list.jwt"));
+
+    assertThat(statusList.size(), greaterThan(0L));
+    assertThat(statusList.status(0), is(StatusList.VALID));
+  }
+
+  @Test
+  void servesVerifiableRevocationList() {
+    assertThat(RevocationChecker.shared().isRevoked(BigInteger.ONE), is(false));
+  }
+
+  @Test
+  void servesVerifiableTrustedEntities() {
+    TrustedEntitiesList list = new TrustedEntitiesClient().get();
+
+    TrustedEntitiesList.Service pidIssuer =
+        list.services(TrustedEntitiesList.PID_ISSUANCE).getFirst();
+    assertThat(list.isTrusted(TrustedEntitiesList.PID_ISSUANCE,
+        pidIssuer.certificates().getFirst()), is(true));
+  }
 }
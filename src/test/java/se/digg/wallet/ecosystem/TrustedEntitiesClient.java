@@ -0,0 +1,116 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jwt.SignedJWT;
+import java.net.URI;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.text.ParseException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fetches trust-source's list of trusted entities ({@code signed/trusted-entities.json}) and
+ * answers issuer trust questions from it without asking the trust-validator. The list is cached by
+ * {@link MetadataCache} and its signature, by the pinned trust-source certificate, verified and
+ * indexed once per version of the document. New versions are swapped in atomically, and a version
+ * with a lower {@code LoTESequenceNumber} than the current one is ignored. A list past its
+ * {@code NextUpdate} is not used.
+ */
+public class TrustedEntitiesClient {
+
+  private final MetadataCache cache;
+  private final URI uri;
+  private final X509Certificate signer;
+  private final Clock clock;
+  private final AtomicReference<TrustedEntitiesList> current = new AtomicReference<>();
+
+  /** Reads trust-source's list, signed with {@code trust_source_cert.pem}. */
+  public TrustedEntitiesClient() {
+    this(MetadataCache.SHARED,
+        ServiceIdentifier.TRUST_SOURCE.getResourceRoot().resolve("signed/trusted-entities.json"),
+        Certificates.read(Certificates.TRUST_SOURCE), Clock.systemUTC());
+  }
+
+  public TrustedEntitiesClient(MetadataCache cache, URI uri, X509Certificate signer,
+      Clock clock) {
+    this.cache = cache;
+    this.uri = uri;
+    this.signer = signer;
+    this.clock = clock;
+  }
+
+  /** The current list, fetched again when the cached document is stale. */
+  public TrustedEntitiesList get() {
+    TrustedEntitiesList fetched = cache.get(uri, null).view("trusted entities", this::verify);
+    TrustedEntitiesList list = current.accumulateAndGet(fetched,
+        (previous, next) -> previous == null
+            || next.sequenceNumber() >= previous.sequenceNumber() ? next : previous);
+    if (!clock.instant().isBefore(list.nextUpdate())) {
+      throw new IllegalStateException(
+          "Trusted entities list " + list.sequenceNumber() + " expired at " + list.nextUpdate());
+    }
+    return list;
+  }
+
+  /** Whether a granted service of the type is identified by the certificate. */
+  public boolean isTrusted(String type, X509Certificate certificate) {
+    return get().isTrusted(type, certificate);
+  }
+
+  private TrustedEntitiesList verify(String body) {
+    SignedJWT jwt;
+    Map<String, Object> claims;
+    try {
+      jwt = SignedJWT.parse(body.trim());
+      claims = jwt.getJWTClaimsSet().toJSONObject();
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Invalid trusted entities list: not a signed JWT", e);
+    }
+    List<Base64> x5c = jwt.getHeader().getX509CertChain();
+    if (x5c != null && !x5c.isEmpty()
+        && !Arrays.equals(x5c.getFirst().decode(), encoded(signer))) {
+      throw new IllegalArgumentException(
+          "Invalid trusted entities list: not signed by " + signer.getSubjectX500Principal());
+    }
+
+    try {
+      signer.checkValidity(Date.from(clock.instant()));
+      if (!jwt.verify(new ECDSAVerifier((ECPublicKey) signer.getPublicKey()))) {
+        throw new IllegalArgumentException("Invalid trusted entities list: bad signature");
+      }
+    } catch (CertificateException e) {
+      throw new IllegalArgumentException("Invalid trusted entities list: signer is not valid", e);
+    } catch (JOSEException | ClassCastException e) {
+      throw new IllegalArgumentException(
+          "Invalid trusted entities list: unsupported signing key", e);
+    }
+
+    if (!(claims.get("LoTE") instanceof Map<?, ?>)) {
+      throw new IllegalArgumentException("Invalid trusted entities list: no LoTE");
+    }
+    @SuppressWarnings("unchecked")
+    Map<String, Object> lote = (Map<String, Object>) claims.get("LoTE");
+    return TrustedEntitiesList.parse(lote);
+  }
+
+  private static byte[] encoded(X509Certificate certificate) {
+    try {
+      return certificate.getEncoded();
+    } catch (CertificateException e) {
+      throw new IllegalStateException("Could not encode " + certificate.getSubjectX500Principal(),
+          e);
+    }
+  }
+}
@@ -0,0 +1,191 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.X509CertUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TrustedEntitiesClientTest {
+
+  private static final Path CERTIFICATES = Path.of("config", "certificates");
+  private static final String WITHDRAWN =
+      "http://uri.etsi.org/TrstSvc/TrustedList/Svcstatus/withdrawn";
+
+  private static X509Certificate trustSourceCert;
+  private static ECKey trustSourceKey;
+  private static X509Certificate issuerCert;
+
+  private final ExpiringCacheTest.MutableClock clock = new ExpiringCacheTest.MutableClock();
+  private volatile String token;
+  private volatile String etag = "\"v1\"";
+  private HttpServer server;
+  private URI uri;
+
+  @BeforeAll
+  static void loadTrustSource() throws Exception {
+    trustSourceCert = X509CertUtils.parse(Files.readString(
+        CERTIFICATES.resolve("trust-list-signer/trust_source_cert.pem")));
+    trustSourceKey = SdJwtVcFixture.signingKey(trustSourceCert,
+        CERTIFICATES.resolve("trust-list-signer/trust_source_key.pem"));
+    // Any certificate will do as the one a test issuer is listed with
+    issuerCert = X509CertUtils.parse(Files.readString(CERTIFICATES.resolve("rootca/rootca.pem")));
+  }
+
+  @BeforeEach
+  void startServer() throws IOException {
+    // Within the validity of the trust source certificate
+    clock.advance(Duration.ofDays(365));
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/signed/trusted-entities.json", this::serve);
+    server.start();
+    uri = URI.create(
+        "http://localhost:" + server.getAddress().getPort() + "/signed/trusted-entities.json");
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void verifiesListOfTrustSource() throws Exception {
+    token = Files.readString(Path.of("config", "trust-source", "signed", "trusted-entities.json"));
+
+    TrustedEntitiesList list = client().get();
+
+    List<TrustedEntitiesList.Service> pidIssuers =
+        list.services(TrustedEntitiesList.PID_ISSUANCE);
+    assertThat(pidIssuers.size(), is(1));
+    assertThat(pidIssuers.getFirst().entity(), is("Local PID Issuer"));
+    X509Certificate pidIssuer = pidIssuers.getFirst().certificates().getFirst();
+    assertThat(list.isTrusted(TrustedEntitiesList.PID_ISSUANCE, pidIssuer), is(true));
+    assertThat(list.isTrusted(TrustedEntitiesList.WALLET_SOLUTION_ISSUANCE, pidIssuer), is(false));
+  }
+
+  @Test
+  void swapsInNewerVersion() throws Exception {
+    token = sign(trustSourceKey, lote(1, TrustedEntitiesList.GRANTED));
+    TrustedEntitiesClient client = client();
+    assertThat(client.isTrusted(TrustedEntitiesList.PID_ISSUANCE, issuerCert), is(true));
+
+    token = sign(trustSourceKey, lote(2, WITHDRAWN));
+    etag = "\"v2\"";
+    clock.advance(Duration.ofSeconds(60));
+
+    assertThat(client.isTrusted(TrustedEntitiesList.PID_ISSUANCE, issuerCert), is(false));
+    assertThat(client.get().sequenceNumber(), is(2L));
+  }
+
+  @Test
+  void ignoresOlderVersion() throws Exception {
+    token = sign(trustSourceKey, lote(2, WITHDRAWN));
+    TrustedEntitiesClient client = client();
+    client.get();
+
+    token = sign(trustSourceKey, lote(1, TrustedEntitiesList.GRANTED));
+    etag = "\"v1-replayed\"";
+    clock.advance(Duration.ofSeconds(60));
+
+    assertThat(client.get().sequenceNumber(), is(2L));
+    assertThat(client.isTrusted(TrustedEntitiesList.PID_ISSUANCE, issuerCert), is(false));
+  }
+
+  @Test
+  void rejectsListNotSignedByTrustSource() throws Exception {
+    token = sign(new ECKeyGenerator(Curve.P_256).generate(), lote(1, TrustedEntitiesList.GRANTED));
+
+    var e = assertThrows(IllegalArgumentException.class, () -> client().get());
+    assertThat(e.getMessage(), containsString("bad signature"));
+  }
+
+  @Test
+  void rejectsListPastNextUpdate() throws Exception {
+    token = sign(trustSourceKey, lote(1, TrustedEntitiesList.GRANTED));
+    TrustedEntitiesClient client = client();
+    client.get();
+
+    clock.advance(Duration.ofDays(2));
+
+    var e = assertThrows(IllegalStateException.class, client::get);
+    assertThat(e.getMessage(), containsString("expired"));
+  }
+
+  private TrustedEntitiesClient client() {
+    return new TrustedEntitiesClient(new MetadataCache(Duration.ofMinutes(5), 8, clock), uri,
+        trustSourceCert, clock);
+  }
+
+  /** A list with a single PID issuer, identified by {@link #issuerCert}. */
+  private Map<String, Object> lote(long sequenceNumber, String status) throws Exception {
+    return Map.of(
+        "ListAndSchemeInformation", Map.of(
+            "LoTESequenceNumber", sequenceNumber,
+            "NextUpdate", clock.instant().plus(Duration.ofDays(1)).toString()),
+        "TrustedEntitiesList", List.of(Map.of(
+            "TrustedEntityInformation", Map.of(
+                "TEName", List.of(Map.of("lang", "en", "value", "Test PID Issuer"))),
+            "TrustedEntityServices", List.of(Map.of(
+                "ServiceInformation", Map.of(
+                    "ServiceDigitalIdentity", Map.of("X509Certificates", List.of(Map.of(
+                        "val", Base64.encode(issuerCert.getEncoded()).toString()))),
+                    "ServiceTypeIdentifier", TrustedEntitiesList.PID_ISSUANCE,
+                    "ServiceStatus", status))))));
+  }
+
+  private String sign(ECKey key, Map<String, Object> lote) throws Exception {
+    SignedJWT jwt = new SignedJWT(
+        new JWSHeader.Builder(JWSAlgorithm.ES256)
+            .x509CertChain(List.of(Base64.encode(trustSourceCert.getEncoded())))
+            .build(),
+        new JWTClaimsSet.Builder().claim("LoTE", lote).build());
+    jwt.sign(new ECDSASigner(key));
+    return jwt.serialize();
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+    exchange.getResponseHeaders().add("ETag", etag);
+    if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+      exchange.sendResponseHeaders(304, -1);
+    } else {
+      byte[] body = token.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    }
+    exchange.close();
+  }
+}
@@ -0,0 +1,164 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.util.X509CertUtils;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A list of trusted entities (LoTE, ETSI TS 119 602) such as trust-source's
+ * {@code signed/trusted-entities.json}, indexed by service type and by the SHA-256 thumbprint of
+ * every certificate of a service, so that deciding whether an issuer is trusted is a hash lookup.
+ * Lists are immutable; a new version of the list is a new instance.
+ */
+public final class TrustedEntitiesList {
+
+  public static final String PID_ISSUANCE = "http://uri.etsi.org/19602/SvcType/PID/Issuance";
+  public static final String PID_REVOCATION = "http://uri.etsi.org/19602/SvcType/PID/Revocation";
+  public static final String WALLET_SOLUTION_ISSUANCE =
+      "http://uri.etsi.org/19602/SvcType/WalletSolution/Issuance";
+  public static final String WALLET_SOLUTION_REVOCATION =
+      "http://uri.etsi.org/19602/SvcType/WalletSolution/Revocation";
+  public static final String GRANTED =
+      "http://uri.etsi.org/TrstSvc/TrustedList/Svcstatus/granted";
+
+  /** A service of a trusted entity and the certificates it is identified by. */
+  public record Service(String entity, String type, String status,
+      List<X509Certificate> certificates) {
+
+    public boolean isGranted() {
+      return GRANTED.equals(status);
+    }
+  }
+
+  private final long sequenceNumber;
+  private final Instant nextUpdate;
+  private final Map<String, List<Service>> byType = new HashMap<>();
+  private final Map<String, List<Service>> byThumbprint = new HashMap<>();
+
+  private TrustedEntitiesList(long sequenceNumber, Instant nextUpdate, List<Service> services) {
+    this.sequenceNumber = sequenceNumber;
+    this.nextUpdate = nextUpdate;
+    for (Service service : services) {
+      byType.computeIfAbsent(service.type(), type -> new ArrayList<>()).add(service);
+      for (X509Certificate certificate : service.certificates()) {
+        byThumbprint.computeIfAbsent(thumbprint(certificate), thumbprint -> new ArrayList<>())
+            .add(service);
+      }
+    }
+  }
+
+  /** Reads the {@code LoTE} claim of a verified list. */
+  public static TrustedEntitiesList parse(Map<String, Object> lote) {
+    Map<String, Object> scheme = object(lote, "ListAndSchemeInformation");
+    if (!(scheme.get("LoTESequenceNumber") instanceof Number sequenceNumber)) {
+      throw invalid("no LoTESequenceNumber");
+    }
+    Instant nextUpdate;
+    try {
+      nextUpdate = Instant.parse(string(scheme, "NextUpdate"));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid trusted entities list: bad NextUpdate", e);
+    }
+
+    List<Service> services = new ArrayList<>();
+    for (Map<String, Object> entity : objects(lote, "TrustedEntitiesList")) {
+      String name = name(object(entity, "TrustedEntityInformation"), "TEName");
+      for (Map<String, Object> entityService : objects(entity, "TrustedEntityServices")) {
+        Map<String, Object> information = object(entityService, "ServiceInformation");
+        List<X509Certificate> certificates = new ArrayList<>();
+        for (Map<String, Object> certificate : objects(
+            object(information, "ServiceDigitalIdentity"), "X509Certificates")) {
+          X509Certificate parsed =
+              X509CertUtils.parse(Base64.getDecoder().decode(string(certificate, "val")));
+          if (parsed == null) {
+            throw invalid("malformed certificate of " + name);
+          }
+          certificates.add(parsed);
+        }
+        services.add(new Service(name, string(information, "ServiceTypeIdentifier"),
+            string(information, "ServiceStatus"), List.copyOf(certificates)));
+      }
+    }
+    return new TrustedEntitiesList(sequenceNumber.longValue(), nextUpdate, services);
+  }
+
+  /** The base64url SHA-256 thumbprint of a certificate, as in {@code x5t#S256}. */
+  public static String thumbprint(X509Certificate certificate) {
+    return X509CertUtils.computeSHA256Thumbprint(certificate).toString();
+  }
+
+  /** Increases with every version of the list. */
+  public long sequenceNumber() {
+    return sequenceNumber;
+  }
+
+  public Instant nextUpdate() {
+    return nextUpdate;
+  }
+
+  /** The services of a type, for example {@link #PID_ISSUANCE}. */
+  public List<Service> services(String type) {
+    return byType.getOrDefault(type, List.of());
+  }
+
+  /** The services identified by a certificate. */
+  public List<Service> services(X509Certificate certificate) {
+    return byThumbprint.getOrDefault(thumbprint(certificate), List.of());
+  }
+
+  /**
+   * Whether a granted service of the type is identified by the certificate. Only the certificate
+   * itself is looked up; a chain to a listed CA certificate is left to PKIX validation.
+   */
+  public boolean isTrusted(String type, X509Certificate certificate) {
+    for (Service service : services(certificate)) {
+      if (service.type().equals(type) && service.isGranted()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String name(Map<String, Object> information, String key) {
+    List<Map<String, Object>> names = objects(information, key);
+    return names.isEmpty() ? "" : string(names.getFirst(), "value");
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> object(Map<String, Object> json, String key) {
+    if (!(json.get(key) instanceof Map<?, ?> value)) {
+      throw invalid("no " + key);
+    }
+    return (Map<String, Object>) value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> objects(Map<String, Object> json, String key) {
+    if (!(json.get(key) instanceof List<?> values)
+        || !values.stream().allMatch(Map.class::isInstance)) {
+      throw invalid("no list of " + key);
+    }
+    return (List<Map<String, Object>>) values;
+  }
+
+  private static String string(Map<String, Object> json, String key) {
+    if (!(json.get(key) instanceof String value)) {
+      throw invalid("no " + key);
+    }
+    return value;
+  }
+
+  private static IllegalArgumentException invalid(String reason) {
+    return new IllegalArgumentException("Invalid trusted entities list: " + reason);
+  }
+}
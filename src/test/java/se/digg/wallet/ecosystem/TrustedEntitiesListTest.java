@@ -0,0 +1,95 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nimbusds.jose.util.X509CertUtils;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class TrustedEntitiesListTest {
+
+  private static final String SUSPENDED =
+      "http://uri.etsi.org/TrstSvc/TrustedList/Svcstatus/suspended";
+
+  private static X509Certificate rootCa;
+  private static X509Certificate trustSource;
+
+  @BeforeAll
+  static void loadCertificates() throws Exception {
+    Path certificates = Path.of("config", "certificates");
+    rootCa = X509CertUtils.parse(Files.readString(certificates.resolve("rootca/rootca.pem")));
+    trustSource = X509CertUtils.parse(Files.readString(
+        certificates.resolve("trust-list-signer/trust_source_cert.pem")));
+  }
+
+  @Test
+  void indexesServicesByTypeAndCertificate() throws Exception {
+    TrustedEntitiesList list = TrustedEntitiesList.parse(lote(List.of(
+        service(TrustedEntitiesList.PID_ISSUANCE, TrustedEntitiesList.GRANTED, trustSource, rootCa),
+        service(TrustedEntitiesList.PID_REVOCATION, TrustedEntitiesList.GRANTED, rootCa))));
+
+    assertThat(list.sequenceNumber(), is(7L));
+    assertThat(list.services(TrustedEntitiesList.PID_ISSUANCE).size(), is(1));
+    assertThat(list.services(TrustedEntitiesList.WALLET_SOLUTION_ISSUANCE), is(empty()));
+    assertThat(list.services(rootCa).size(), is(2));
+    assertThat(list.isTrusted(TrustedEntitiesList.PID_REVOCATION, trustSource), is(false));
+    assertThat(list.isTrusted(TrustedEntitiesList.PID_REVOCATION, rootCa), is(true));
+  }
+
+  @Test
+  void trustsOnlyGrantedServices() throws Exception {
+    TrustedEntitiesList list = TrustedEntitiesList.parse(lote(List.of(
+        service(TrustedEntitiesList.PID_ISSUANCE, SUSPENDED, trustSource))));
+
+    assertThat(list.services(trustSource).size(), is(1));
+    assertThat(list.isTrusted(TrustedEntitiesList.PID_ISSUANCE, trustSource), is(false));
+  }
+
+  @Test
+  void rejectsListWithoutNextUpdate() {
+    Map<String, Object> lote = Map.of(
+        "ListAndSchemeInformation", Map.of("LoTESequenceNumber", 1),
+        "TrustedEntitiesList", List.of());
+
+    var e = assertThrows(IllegalArgumentException.class, () -> TrustedEntitiesList.parse(lote));
+    assertThat(e.getMessage(), containsString("no NextUpdate"));
+  }
+
+  private static Map<String, Object> lote(List<Map<String, Object>> services) {
+    return Map.of(
+        "ListAndSchemeInformation", Map.of(
+            "LoTESequenceNumber", 7,
+            "NextUpdate", "2027-08-11T18:00:31Z"),
+        "TrustedEntitiesList", List.of(Map.of(
+            "TrustedEntityInformation", Map.of(
+                "TEName", List.of(Map.of("lang", "en", "value", "Test Issuer"))),
+            "TrustedEntityServices", services)));
+  }
+
+  private static Map<String, Object> service(String type, String status,
+      X509Certificate... certificates) throws Exception {
+    List<Map<String, Object>> encoded = new ArrayList<>();
+    for (X509Certificate certificate : certificates) {
+      encoded.add(Map.of("val", Base64.getEncoder().encodeToString(certificate.getEncoded())));
+    }
+    return Map.of("ServiceInformation", Map.of(
+        "ServiceDigitalIdentity", Map.of("X509Certificates", encoded),
+        "ServiceTypeIdentifier", type,
+        "ServiceStatus", status));
+  }
+}
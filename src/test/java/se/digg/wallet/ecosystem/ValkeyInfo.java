@@ -0,0 +1,146 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads memory, key and eviction figures from a Valkey (or Redis) server with the {@code INFO}
+ * command. Speaks just enough RESP for that over a plain socket, so that no client library is
+ * needed. The URI has the form {@code redis://[user:password@]host:port}; with a password the
+ * connection is authenticated first.
+ */
+public final class ValkeyInfo {
+
+  static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  public record Snapshot(long usedMemory, long maxMemory, String maxMemoryPolicy, long keys,
+      long expiringKeys, long expiredKeys, long evictedKeys) {
+  }
+
+  private final URI uri;
+
+  public ValkeyInfo() {
+    this(URI.create(Property.VALKEY_URI.getValue()));
+  }
+
+  public ValkeyInfo(URI uri) {
+    if (uri.getHost() == null || uri.getPort() == -1) {
+      throw new IllegalArgumentException("Valkey URI needs a host and port: " + uri);
+    }
+    this.uri = uri;
+  }
+
+  public Snapshot snapshot() throws IOException {
+    try (Socket socket = new Socket()) {
+      socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()),
+          (int) TIMEOUT.toMillis());
+      socket.setSoTimeout((int) TIMEOUT.toMillis());
+      OutputStream out = socket.getOutputStream();
+      InputStream in = new BufferedInputStream(socket.getInputStream());
+
+      String userInfo = uri.getUserInfo();
+      if (userInfo != null) {
+        int colon = userInfo.indexOf(':');
+        send(out, colon < 0
+            ? new String[] {"AUTH", userInfo}
+            : new String[] {"AUTH", userInfo.substring(0, colon), userInfo.substring(colon + 1)});
+        read(in);
+      }
+      send(out, "INFO", "memory", "stats", "keyspace");
+      return snapshot(parse(read(in)));
+    }
+  }
+
+  static Snapshot snapshot(Map<String, String> info) {
+    long keys = 0;
+    long expiringKeys = 0;
+    for (Map.Entry<String, String> entry : info.entrySet()) {
+      // Keyspace lines look like db0:keys=12,expires=3,avg_ttl=0
+      if (entry.getKey().matches("db\\d+")) {
+        for (String field : entry.getValue().split(",")) {
+          String[] pair = field.split("=", 2);
+          if ("keys".equals(pair[0])) {
+            keys += Long.parseLong(pair[1]);
+          } else if ("expires".equals(pair[0])) {
+            expiringKeys += Long.parseLong(pair[1]);
+          }
+        }
+      }
+    }
+    return new Snapshot(number(info, "used_memory"), number(info, "maxmemory"),
+        info.getOrDefault("maxmemory_policy", "unknown"), keys, expiringKeys,
+        number(info, "expired_keys"), number(info, "evicted_keys"));
+  }
+
+  static Map<String, String> parse(String info) {
+    Map<String, String> fields = new HashMap<>();
+    for (String line : info.split("\r?\n")) {
+      int colon = line.indexOf(':');
+      if (!line.startsWith("#") && colon > 0) {
+        fields.put(line.substring(0, colon), line.substring(colon + 1).trim());
+      }
+    }
+    return fields;
+  }
+
+  private static long number(Map<String, String> info, String field) {
+    String value = info.get(field);
+    return value == null ? 0 : Long.parseLong(value);
+  }
+
+  private static void send(OutputStream out, String... arguments) throws IOException {
+    StringBuilder command = new StringBuilder("*").append(arguments.length).append("\r\n");
+    for (String argument : arguments) {
+      command.append('$').append(argument.getBytes(StandardCharsets.UTF_8).length).append("\r\n")
+          .append(argument).append("\r\n");
+    }
+    out.write(command.toString().getBytes(StandardCharsets.UTF_8));
+    out.flush();
+  }
+
+  /** Reads a simple string, error or bulk string reply. */
+  private static String read(InputStream in) throws IOException {
+    String line = readLine(in);
+    if (line.startsWith("-")) {
+      throw new IllegalStateException("Valkey answered " + line.substring(1));
+    }
+    if (line.startsWith("+")) {
+      return line.substring(1);
+    }
+    if (!line.startsWith("$")) {
+      throw new IllegalStateException("Unexpected Valkey reply " + line);
+    }
+    int length = Integer.parseInt(line.substring(1));
+    byte[] bulk = in.readNBytes(length);
+    readLine(in);
+    return new String(bulk, StandardCharsets.UTF_8);
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int previous = -1;
+    for (int b = in.read(); b != -1; b = in.read()) {
+      if (previous == '\r' && b == '\n') {
+        byte[] bytes = line.toByteArray();
+        return new String(bytes, 0, bytes.length - 1, StandardCharsets.UTF_8);
+      }
+      line.write(b);
+      previous = b;
+    }
+    throw new IOException("Valkey closed the connection");
+  }
+}
@@ -0,0 +1,116 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ValkeyInfoTest {
+
+  private static final String INFO = """
+      # Memory\r
+      used_memory:1048576\r
+      maxmemory:0\r
+      maxmemory_policy:noeviction\r
+      \r
+      # Stats\r
+      expired_keys:7\r
+      evicted_keys:2\r
+      \r
+      # Keyspace\r
+      db0:keys=120,expires=100,avg_ttl=299000\r
+      db1:keys=3,expires=0,avg_ttl=0\r
+      """;
+
+  private final List<String> commands = new CopyOnWriteArrayList<>();
+  private volatile String authReply = "+OK";
+  private ServerSocket server;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+    Thread.ofVirtual().start(this::serve);
+  }
+
+  @AfterEach
+  void stopServer() throws IOException {
+    server.close();
+  }
+
+  @Test
+  void readsMemoryKeysAndEvictions() throws Exception {
+    ValkeyInfo.Snapshot snapshot = new ValkeyInfo(uri("")).snapshot();
+
+    assertThat(snapshot, is(new ValkeyInfo.Snapshot(1048576, 0, "noeviction", 123, 100, 7, 2)));
+    assertThat(commands, contains("INFO memory stats keyspace"));
+  }
+
+  @Test
+  void authenticatesWithUserAndPassword() throws Exception {
+    new ValkeyInfo(uri("default:secret@")).snapshot();
+
+    assertThat(commands, contains("AUTH default secret", "INFO memory stats keyspace"));
+  }
+
+  @Test
+  void failsWhenAuthenticationIsRejected() {
+    authReply = "-WRONGPASS invalid username-password pair";
+
+    assertThrows(IllegalStateException.class,
+        () -> new ValkeyInfo(uri("default:wrong@")).snapshot());
+  }
+
+  private URI uri(String userInfo) {
+    return URI.create("redis://" + userInfo + "localhost:" + server.getLocalPort());
+  }
+
+  private void serve() {
+    while (!server.isClosed()) {
+      try (Socket socket = server.accept()) {
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        OutputStream out = socket.getOutputStream();
+        for (String header = in.readLine(); header != null; header = in.readLine()) {
+          String command = readArguments(in, Integer.parseInt(header.substring(1)));
+          commands.add(command);
+          String reply = command.startsWith("AUTH")
+              ? authReply + "\r\n"
+              : "$" + INFO.getBytes(StandardCharsets.UTF_8).length + "\r\n" + INFO + "\r\n";
+          out.write(reply.getBytes(StandardCharsets.UTF_8));
+          out.flush();
+        }
+      } catch (IOException e) {
+        // Closed by the test or the client
+        return;
+      }
+    }
+  }
+
+  private static String readArguments(BufferedReader in, int count) throws IOException {
+    StringBuilder command = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      in.readLine();
+      command.append(i == 0 ? "" : " ").append(in.readLine());
+    }
+    return command.toString();
+  }
+}
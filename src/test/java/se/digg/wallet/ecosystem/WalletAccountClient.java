@@ -0,0 +1,72 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.Matchers.blankOrNullString;
+import static org.hamcrest.Matchers.not;
+import static se.digg.wallet.ecosystem.RestAssuredSugar.given;
+
+import com.nimbusds.jose.jwk.ECKey;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import java.net.URI;
+
+/** Calls wallet-account directly, without going through wallet-client-gateway. */
+public class WalletAccountClient {
+
+  private final URI base;
+
+  public WalletAccountClient() {
+    this(ServiceIdentifier.WALLET_ACCOUNT.getResourceRoot());
+  }
+
+  public WalletAccountClient(URI base) {
+    this.base = base;
+  }
+
+  /** Creates an account for the public part of the device key, returning the account id. */
+  public String createAccount(ECKey deviceKey) {
+    return given()
+        .contentType(ContentType.JSON).body("""
+            {
+              "deviceKey": %s
+            }""".formatted(deviceKey.toPublicJWK().toJSONString()))
+        .when().post(base.resolve("v0/accounts"))
+        .then()
+        .assertThat().statusCode(201)
+        .and().body("id", not(blankOrNullString()))
+        .extract().jsonPath().getString("id");
+  }
+
+  public void addWalletKey(String accountId, ECKey walletKey) {
+    given()
+        .contentType(ContentType.JSON).body(walletKey.toPublicJWK().toJSONString())
+        .when().post(base.resolve("v0/accounts/%s/wallet-keys".formatted(accountId)))
+        .then()
+        .assertThat().statusCode(201);
+  }
+
+  public void addSecurityEnvelope(String accountId, String type, String content) {
+    given()
+        .contentType(ContentType.JSON).body("""
+            {
+              "type": "%s",
+              "content": "%s"
+            }""".formatted(type, content))
+        .when().post(base.resolve("v0/accounts/%s/security-envelopes".formatted(accountId)))
+        .then()
+        .assertThat().statusCode(201);
+  }
+
+  public Response tryGetAccount(String accountId) {
+    return given()
+        .when().get(base.resolve("v0/accounts/%s".formatted(accountId)));
+  }
+
+  public Response tryGetWalletKeys(String accountId) {
+    return given()
+        .when().get(base.resolve("v0/accounts/%s/wallet-keys".formatted(accountId)));
+  }
+}
@@ -8,16 +8,34 @@ import static org.hamcrest.Matchers.blankOrNullString;
 import static org.hamcrest.Matchers.not;
 import static se.digg.wallet.ecosystem.RestAssuredSugar.given;
 
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import java.net.URI;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class WalletClientGatewayClient {
 
-  private final URI base = ServiceIdentifier.WALLET_CLIENT_GATEWAY.getResourceRoot();
   private static final String API_KEY = Property.WALLET_CLIENT_GATEWAY_API_KEY.getValue();
 
+  private final URI base;
+
+  public WalletClientGatewayClient() {
+    this(ServiceIdentifier.WALLET_CLIENT_GATEWAY.getResourceRoot());
+  }
+
+  public WalletClientGatewayClient(URI base) {
+    this.base = base;
+  }
+
   public Response tryGetHealth() {
     return given()
         .when()
@@ -86,6 +104,35 @@ public class WalletClientGatewayClient {
         .extract().body().jsonPath().get("sessionId");
   }
 
+  /** Creates an account for the device key and signs in with it, returning the session id. */
+  public String createSession(ECKey deviceKey) throws JOSEException {
+    return signIn(createDeviceAccount(deviceKey), deviceKey);
+  }
+
+  /** Creates an account for the device key with a random personal identity number. */
+  public String createDeviceAccount(ECKey deviceKey) {
+    return createAccount("""
+        {
+          "deviceKey": %s,
+          "personalIdentityNumber": "%s"
+        }""".formatted(deviceKey.toPublicJWK().toJSONString(), Long.toString(
+        ThreadLocalRandom.current().nextLong(100_000_000_000L, 1_000_000_000_000L))));
+  }
+
+  /** Answers a session challenge for the account with the device key, returning the session id. */
+  public String signIn(String accountId, ECKey deviceKey) throws JOSEException {
+    String nonce = initChallenge(accountId, deviceKey.getKeyID());
+
+    SignedJWT signedJwt = new SignedJWT(
+        new JWSHeader.Builder(JWSAlgorithm.ES256).keyID(deviceKey.getKeyID()).build(),
+        new JWTClaimsSet.Builder()
+            .claim("nonce", nonce)
+            .expirationTime(new Date(System.currentTimeMillis() + 60 * 1000))
+            .build());
+    signedJwt.sign(new ECDSASigner(deviceKey));
+    return respondToChallenge(signedJwt.serialize());
+  }
+
   public Response tryCreateWalletUnitAttestation(String sessionId, String nonce) {
     RequestSpecification request = given()
         .when()
@@ -8,17 +8,12 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.matchesPattern;
-import static org.junit.jupiter.api.Assertions.fail;
 
-import com.nimbusds.jose.Algorithm;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.crypto.ECDSASigner;
-import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import java.util.Date;
@@ -28,25 +23,24 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 @TestMethodOrder(OrderAnnotation.class)
+@TestInstance(Lifecycle.PER_CLASS)
 public class WalletClientGatewayTest {
 
   private static final WalletClientGatewayClient walletClientGateway =
       new WalletClientGatewayClient();
-  private static String session;
+  private String session;
 
   @BeforeAll
-  static void beforeAll() throws Exception {
-    var ecKey = generateKey();
-    var accountId = createAccount(ecKey);
-    var nonce = walletClientGateway.initChallenge(accountId, ecKey.getKeyID());
-    var signedJwt = createSignedJwt(ecKey, nonce);
-    session = walletClientGateway.respondToChallenge(signedJwt);
+  void beforeAll() throws Exception {
+    session = walletClientGateway.createSession(generateKey());
   }
 
   @Test
@@ -144,16 +138,7 @@ public class WalletClientGatewayTest {
   }
 
   static ECKey generateKey() {
-    try {
-      return new ECKeyGenerator(Curve.P_256)
-          .keyID(UUID.randomUUID().toString())
-          .algorithm(Algorithm.NONE)
-          .keyUse(KeyUse.SIGNATURE)
-          .generate();
-    } catch (Exception e) {
-      fail("Unable to generate key");
-      return null;
-    }
+    return EcKeyPool.shared().take(KeyPurpose.DEVICE);
   }
 
   private static String createAccount(ECKey ecKey) {
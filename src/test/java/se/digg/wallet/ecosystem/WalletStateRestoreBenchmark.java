@@ -0,0 +1,173 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.ECKey;
+import io.restassured.response.Response;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how the size of the compacted {@code wallet-state} topic affects a cold restart of
+ * wallet-bff and hsm-worker, which rebuild their state from it. {@link #seed} fills the topic with
+ * synthetic device states through wallet-client-gateway, and {@link #restore} restarts the services
+ * and probes with HSM requests until the first one succeeds.
+ */
+public class WalletStateRestoreBenchmark {
+
+  public static final String SAVE_STATE = "save device state";
+  public static final String RESTORE_PROBE = "restore probe";
+
+  /** Long enough that no seeded state expires during a benchmark. */
+  static final String STATE_TTL = "P365D";
+
+  public record Restore(Duration timeToFirstResult, long failedProbes) {
+  }
+
+  private final WalletClientGatewayClient gateway;
+  private final Duration probeInterval;
+  private final Duration resultTimeout;
+
+  public WalletStateRestoreBenchmark() {
+    this(new WalletClientGatewayClient(),
+        Duration.parse(Property.HSM_RESULT_POLL_INTERVAL.getValue()),
+        Duration.parse(Property.HSM_RESULT_TIMEOUT.getValue()));
+  }
+
+  public WalletStateRestoreBenchmark(WalletClientGatewayClient gateway, Duration probeInterval,
+      Duration resultTimeout) {
+    this.gateway = gateway;
+    this.probeInterval = probeInterval;
+    this.resultTimeout = resultTimeout;
+  }
+
+  /**
+   * Saves {@code count} device states, each with its own key id, from {@code concurrency} signed-in
+   * devices at full speed.
+   */
+  public LoadDriver.Result seed(int count, int concurrency, LatencyRecorder latency)
+      throws JOSEException {
+    List<HsmPipelineLoadGenerator.Device> devices = new ArrayList<>();
+    for (int i = 0; i < concurrency; i++) {
+      ECKey key = EcKeyPool.shared().take(KeyPurpose.DEVICE);
+      devices.add(new HsmPipelineLoadGenerator.Device(key, gateway.createSession(key)));
+    }
+
+    AtomicInteger remaining = new AtomicInteger(count);
+    LongAdder failures = new LongAdder();
+    AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (HsmPipelineLoadGenerator.Device device : devices) {
+        executor.submit(() -> {
+          while (remaining.getAndDecrement() > 0) {
+            try {
+              latency.time(SAVE_STATE, () -> gateway
+                  .saveDeviceState(device.session(), deviceState(device.key()))
+                  .then()
+                  .assertThat()
+                  .statusCode(201));
+            } catch (Exception | AssertionError e) {
+              failures.increment();
+              firstFailure.compareAndSet(null, e);
+            }
+          }
+        });
+      }
+    }
+    return new LoadDriver.Result(Duration.ofNanos(System.nanoTime() - start), count,
+        failures.sum(), firstFailure.get());
+  }
+
+  /**
+   * Signs in a device, runs {@code restart} and then sends an HSM request every probe interval
+   * until one succeeds, either directly or through its asynchronous result. The time is measured
+   * from the start of the restart.
+   */
+  public Restore restore(Runnable restart, Duration timeout, LatencyRecorder latency)
+      throws JOSEException, InterruptedException {
+    ECKey key = EcKeyPool.shared().take(KeyPurpose.DEVICE);
+    HsmPipelineLoadGenerator.Device device =
+        new HsmPipelineLoadGenerator.Device(key, gateway.createSession(key));
+
+    long start = System.nanoTime();
+    long deadline = start + timeout.toNanos();
+    restart.run();
+    try (HsmResultAwaiter awaiter =
+        new HsmResultAwaiter(gateway, probeInterval, probeInterval, resultTimeout)) {
+      for (long failed = 0;; failed++) {
+        if (probe(device, awaiter, latency)) {
+          return new Restore(Duration.ofNanos(System.nanoTime() - start), failed);
+        }
+        if (System.nanoTime() > deadline) {
+          throw new IllegalStateException("No successful HSM request within " + timeout);
+        }
+        Thread.sleep(probeInterval);
+      }
+    }
+  }
+
+  /** Runs a command line, such as {@code podman compose restart wallet-bff}, and waits for it. */
+  public static Runnable command(String commandLine) {
+    return () -> {
+      try {
+        int exitCode = new ProcessBuilder(commandLine.trim().split("\\s+"))
+            .inheritIO()
+            .start()
+            .waitFor();
+        if (exitCode != 0) {
+          throw new IllegalStateException("'" + commandLine + "' exited with " + exitCode);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not run '" + commandLine + "'", e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while running '" + commandLine + "'", e);
+      }
+    };
+  }
+
+  static String deviceState(ECKey deviceKey) {
+    ECKey synthetic = new ECKey.Builder(deviceKey.toPublicJWK())
+        .keyID(UUID.randomUUID().toString())
+        .build();
+    return """
+        {
+          "deviceKey": %s,
+          "ttl": "%s"
+        }""".formatted(synthetic.toJSONString(), STATE_TTL);
+  }
+
+  private boolean probe(HsmPipelineLoadGenerator.Device device, HsmResultAwaiter awaiter,
+      LatencyRecorder latency) {
+    long start = System.nanoTime();
+    boolean success;
+    try {
+      String clientId = UUID.randomUUID().toString();
+      Response created = gateway.createHsmRequest(device.session(),
+          HsmPipelineLoadGenerator.signedRequest(device, clientId));
+      success = switch (created.statusCode()) {
+        case 200, 201 -> true;
+        case 202 -> awaiter.await(device.session(), clientId).get().statusCode() == 200;
+        default -> false;
+      };
+    } catch (Exception e) {
+      // Connection failures and timeouts while the services are still starting
+      success = false;
+    }
+    latency.record(RESTORE_PROBE, System.nanoTime() - start, success);
+    return success;
+  }
+}
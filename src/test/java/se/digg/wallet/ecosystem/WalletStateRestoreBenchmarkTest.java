@@ -0,0 +1,122 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WalletStateRestoreBenchmarkTest {
+
+  private final Set<String> savedKeyIds = ConcurrentHashMap.newKeySet();
+  private volatile long availableAt = Long.MAX_VALUE;
+  private HttpServer server;
+  private WalletStateRestoreBenchmark benchmark;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", this::serve);
+    server.start();
+    benchmark = new WalletStateRestoreBenchmark(
+        new WalletClientGatewayClient(
+            URI.create("http://localhost:" + server.getAddress().getPort() + "/")),
+        Duration.ofMillis(20), Duration.ofSeconds(5));
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void seedsDeviceStatesWithDistinctKeyIds() throws Exception {
+    LatencyReport report = new LatencyReport();
+
+    LoadDriver.Result result = benchmark.seed(50, 4, report);
+
+    assertThat(result.failures(), is(0L));
+    assertThat(savedKeyIds.size(), is(50));
+    assertThat(report.count(WalletStateRestoreBenchmark.SAVE_STATE), is(50L));
+  }
+
+  @Test
+  void measuresTimeToFirstSuccessfulRequestAfterRestart() throws Exception {
+    LatencyReport report = new LatencyReport();
+
+    WalletStateRestoreBenchmark.Restore restore = benchmark.restore(
+        () -> availableAt = System.nanoTime() + Duration.ofMillis(300).toNanos(),
+        Duration.ofSeconds(10), report);
+
+    assertThat(restore.timeToFirstResult(), greaterThanOrEqualTo(Duration.ofMillis(300)));
+    assertThat(restore.failedProbes(), greaterThan(0L));
+    assertThat(report.errors(WalletStateRestoreBenchmark.RESTORE_PROBE),
+        is(restore.failedProbes()));
+    assertThat(report.count(WalletStateRestoreBenchmark.RESTORE_PROBE), is(1L));
+  }
+
+  @Test
+  void failsWhenServicesDoNotComeBack() {
+    assertThrows(IllegalStateException.class,
+        () -> benchmark.restore(() -> {
+        }, Duration.ofMillis(200), LatencyRecorder.NONE));
+  }
+
+  @Test
+  void runsRestartCommand() {
+    WalletStateRestoreBenchmark.command("true").run();
+    Runnable failing = WalletStateRestoreBenchmark.command("false");
+
+    assertThrows(IllegalStateException.class, failing::run);
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    byte[] body = exchange.getRequestBody().readAllBytes();
+    if (path.endsWith("/v0/accounts")) {
+      respond(exchange, 201, "{\"accountId\": \"account\"}");
+    } else if (path.endsWith("/session/challenge")) {
+      respond(exchange, 200, "{\"nonce\": \"nonce\"}");
+    } else if (path.endsWith("/session/response")) {
+      exchange.getResponseHeaders().add("session", "session");
+      respond(exchange, 200, "{\"sessionId\": \"session\"}");
+    } else if (path.endsWith("/hsm/v0/device-states")) {
+      JsonNode state = new ObjectMapper().readTree(body);
+      savedKeyIds.add(state.get("deviceKey").get("kid").asText());
+      respond(exchange, 201, "{}");
+    } else if (path.endsWith("/hsm/v0/requests")) {
+      respond(exchange, System.nanoTime() >= availableAt ? 200 : 503, "{}");
+    } else {
+      respond(exchange, 404, "{}");
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
@@ -0,0 +1,64 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.ecosystem;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@EnabledIfEnvironmentVariable(
+    named = "DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS",
+    matches = "true")
+@Isolated
+class WalletStateRestoreTest {
+
+  @Test
+  void restoresAfterSeedingWalletState() throws Exception {
+    int count = Integer.parseInt(Property.WALLET_STATE_SEED_COUNT.getValue());
+    int concurrency = Integer.parseInt(Property.WALLET_STATE_SEED_CONCURRENCY.getValue());
+    String restartCommand = Property.WALLET_STATE_RESTART_COMMAND.getValue();
+    Duration timeout = Duration.parse(Property.WALLET_STATE_RESTORE_TIMEOUT.getValue());
+    WalletStateRestoreBenchmark benchmark = new WalletStateRestoreBenchmark();
+    LatencyReport report = new LatencyReport();
+
+    LoadDriver.Result seeded = benchmark.seed(count, concurrency, report);
+    double perSecond = report.throughput(WalletStateRestoreBenchmark.SAVE_STATE, seeded.elapsed());
+    System.out.format("Seeded %d device states in %s (%.1f/s, %d failed)%n", count,
+        seeded.elapsed(), perSecond, seeded.failures());
+    if (seeded.firstFailure() != null) {
+      seeded.firstFailure().printStackTrace(System.out);
+    }
+
+    WalletStateRestoreBenchmark.Restore restore = null;
+    if (!"none".equals(restartCommand)) {
+      restore = benchmark.restore(WalletStateRestoreBenchmark.command(restartCommand), timeout,
+          report);
+      System.out.format("First successful HSM request %s after restart (%d failed probes)%n",
+          restore.timeToFirstResult(), restore.failedProbes());
+    }
+    System.out.format("%s", report.format(seeded.elapsed()));
+
+    String results = Property.WALLET_STATE_RESULTS.getValue();
+    if (!"none".equals(results)) {
+      Path file = Path.of(results).toAbsolutePath();
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, String.format(Locale.ROOT, "%d\t%d\t%.1f\t%.1f\t%d%n", count,
+          seeded.failures(), perSecond,
+          restore == null ? Double.NaN : restore.timeToFirstResult().toMillis() / 1000.0,
+          restore == null ? 0 : restore.failedProbes()),
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    assertThat(seeded.failures(), is(0L));
+  }
+}
@@ -0,0 +1,81 @@
+#!/bin/bash
+
+# SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+#
+# SPDX-License-Identifier: EUPL-1.2
+
+# Measures how wallet-bff and hsm-worker restarts slow down as the compacted
+# wallet-state topic grows.
+#
+# For every scale, WalletStateRestoreTest saves device states until the topic
+# holds that many synthetic states, restarts wallet-bff and hsm-worker, and
+# times the first successful HSM request. The script then reads the size of
+# the topic on disk. Scales are cumulative, so each run only adds the
+# difference to the previous one. The compose services must already be up.
+#
+# Optional:
+#   SCALES       - numbers of seeded device states (default: "10000 100000 1000000")
+#   CONCURRENCY  - concurrent device state saves (default: 16)
+#   RESET        - delete and re-create wallet-state first, so that it only
+#                  holds seeded states (default: false)
+#   RESULTS_DIR  - where results and logs go (default: target/wallet-state-restore)
+
+set -euo pipefail
+
+SCALES="${SCALES:-10000 100000 1000000}"
+CONCURRENCY="${CONCURRENCY:-16}"
+RESET="${RESET:-false}"
+RESULTS_DIR="${RESULTS_DIR:-target/wallet-state-restore}"
+
+RESULTS="$RESULTS_DIR/results.tsv"
+
+kafka_tool() {
+  local tool="$1"
+  shift
+  podman compose run --rm --no-deps --entrypoint "/opt/kafka/bin/$tool" init-kafka \
+    --bootstrap-server kafka-1:19092 "$@"
+}
+
+# Prints the total size in bytes of all wallet-state partitions.
+topic_bytes() {
+  kafka_tool kafka-log-dirs.sh --describe --topic-list wallet-state |
+    grep '^{' |
+    grep -o '"size":[0-9]*' |
+    awk -F: '{ total += $2 } END { print total + 0 }'
+}
+
+if [ "$RESET" = "true" ]; then
+  echo "Re-creating wallet-state..."
+  podman compose stop wallet-bff hsm-worker
+  kafka_tool kafka-topics.sh --delete --if-exists --topic wallet-state
+  # Read the list in full, as grep -q stops reading at the first match
+  topics="$(kafka_tool kafka-topics.sh --list)"
+  while grep -q '^wallet-state$' <<<"$topics"; do
+    sleep 2
+    topics="$(kafka_tool kafka-topics.sh --list)"
+  done
+  podman compose run --rm --no-deps init-kafka
+  podman compose up -d --no-deps wallet-bff hsm-worker
+fi
+
+mkdir -p "$RESULTS_DIR"
+printf 'states\tadded\tfailed\tsaves per sec\trestore s\tfailed probes\ttopic bytes\n' >"$RESULTS"
+
+seeded=0
+for scale in $SCALES; do
+  added=$((scale - seeded))
+  echo "── $scale device states (adding $added) ──"
+  rm -f "$RESULTS_DIR/$scale.tsv"
+  if ! env DIGG_WALLET_ECOSYSTEM_INCLUDE_LOAD_TESTS=true \
+    DIGG_WALLET_ECOSYSTEM_WALLET_STATE_SEED_COUNT="$added" \
+    DIGG_WALLET_ECOSYSTEM_WALLET_STATE_SEED_CONCURRENCY="$CONCURRENCY" \
+    DIGG_WALLET_ECOSYSTEM_WALLET_STATE_RESULTS="$RESULTS_DIR/$scale.tsv" \
+    mvn -B test -Dtest=WalletStateRestoreTest >"$RESULTS_DIR/$scale.log" 2>&1; then
+    echo "Run failed, see $RESULTS_DIR/$scale.log"
+  fi
+  seeded=$scale
+  row=$(cat "$RESULTS_DIR/$scale.tsv" 2>/dev/null || printf '%s\t-\t-\t-\t-' "$added")
+  printf '%s\t%s\t%s\n' "$scale" "$row" "$(topic_bytes)" >>"$RESULTS"
+done
+
+column -t -s $'\t' "$RESULTS"